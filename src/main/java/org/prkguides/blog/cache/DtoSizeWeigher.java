@@ -0,0 +1,78 @@
+package org.prkguides.blog.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.prkguides.blog.dto.*;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the retained size in bytes of the DTOs we put in the caches so that a
+ * cache can be bounded by memory rather than entry count. A post with a long body
+ * weighs far more than a tag, and a page of summaries weighs roughly the sum of its items.
+ */
+public class DtoSizeWeigher implements Weigher<Object, Object> {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE = 8;
+    private static final int FIELD = 8;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long weight = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, weight));
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            return OBJECT_OVERHEAD + 24 + s.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            return OBJECT_OVERHEAD;
+        }
+        if (value instanceof PostDto post) {
+            return OBJECT_OVERHEAD + 20 * FIELD
+                    + estimate(post.getTitle()) + estimate(post.getSlug()) + estimate(post.getExcerpt())
+                    + estimate(post.getContent()) + estimate(post.getFeaturedImageUrl())
+                    + estimate(post.getMetaDescription()) + estimate(post.getMetaKeywords())
+                    + estimate(post.getAuthor()) + estimate(post.getTags());
+        }
+        if (value instanceof PostSummaryDto post) {
+            return OBJECT_OVERHEAD + 15 * FIELD
+                    + estimate(post.getTitle()) + estimate(post.getSlug()) + estimate(post.getExcerpt())
+                    + estimate(post.getFeaturedImageUrl()) + estimate(post.getAuthor()) + estimate(post.getTags());
+        }
+        if (value instanceof UserSummaryDto user) {
+            return OBJECT_OVERHEAD + 9 * FIELD
+                    + estimate(user.getUsername()) + estimate(user.getFirstName()) + estimate(user.getLastName())
+                    + estimate(user.getFullName()) + estimate(user.getBio())
+                    + estimate(user.getAvatarUrl()) + estimate(user.getWebsiteUrl());
+        }
+        if (value instanceof TagDto tag) {
+            return OBJECT_OVERHEAD + 6 * FIELD
+                    + estimate(tag.getName()) + estimate(tag.getSlug())
+                    + estimate(tag.getDescription()) + estimate(tag.getColor());
+        }
+        if (value instanceof PaginationResponse<?> page) {
+            return OBJECT_OVERHEAD + 8 * FIELD + estimate(page.getContent());
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD + (long) collection.size() * REFERENCE;
+            for (Object element : collection) {
+                size += estimate(element);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = OBJECT_OVERHEAD + (long) map.size() * 4 * REFERENCE;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        return OBJECT_OVERHEAD + 8 * FIELD;
+    }
+}
@@ -0,0 +1,28 @@
+package org.prkguides.blog.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived listing totals for CountMode.APPROXIMATE. A total may lag behind writes by up
+ * to the listing-counts TTL, in exchange for skipping the COUNT query on every page request.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingCountCache {
+
+    public static final String CACHE_NAME = "listing-counts";
+
+    private final CacheManager cacheManager;
+
+    public long get(String key, Supplier<Long> counter) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+        Long count = cache.get(key, counter::get);
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,156 @@
+package org.prkguides.blog.cache;
+
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from post id to the cache entries whose value contains that post.
+ * Lets a post write evict its own detail entries and only the listing pages that
+ * actually show it, instead of wiping whole caches.
+ */
+@Component
+public class PostCacheIndex {
+
+    public static final Set<String> TRACKED_CACHES = Set.of("posts", "featured-posts", "recent-posts", "popular-posts", "post-summaries");
+
+    private record EntryRef(String cacheName, Object key) {
+    }
+
+    private record TrackedEntry(Set<Long> postIds, boolean listing, Object value) {
+    }
+
+    private final Map<String, PostTrackingCache> caches = new ConcurrentHashMap<>();
+    private final Map<EntryRef, TrackedEntry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<EntryRef>> entriesByPost = new ConcurrentHashMap<>();
+    private final Map<String, Set<Object>> listingKeys = new ConcurrentHashMap<>();
+
+    void register(PostTrackingCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    void track(String cacheName, Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        EntryRef ref = new EntryRef(cacheName, key);
+        boolean listing = value instanceof PaginationResponse<?> || value instanceof Collection<?>;
+        TrackedEntry entry = new TrackedEntry(extractPostIds(value), listing, value);
+
+        TrackedEntry previous = entries.put(ref, entry);
+        if (previous != null) {
+            unlink(ref, previous);
+        }
+
+        entry.postIds().forEach(postId ->
+                entriesByPost.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(ref));
+        if (listing) {
+            listingKeys.computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    void untrack(String cacheName, Object key) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        TrackedEntry removed = entries.remove(ref);
+        if (removed != null) {
+            unlink(ref, removed);
+        }
+    }
+
+    /**
+     * Called from the Caffeine eviction listener; only drops the tracking if it still
+     * belongs to the evicted value and was not replaced by a newer put in the meantime.
+     */
+    public void untrackEvicted(String cacheName, Object key, Object value) {
+        EntryRef ref = new EntryRef(cacheName, key);
+        TrackedEntry current = entries.get(ref);
+        if (current != null && current.value() == value && entries.remove(ref, current)) {
+            unlink(ref, current);
+        }
+    }
+
+    void untrackAll(String cacheName) {
+        new ArrayList<>(entries.keySet()).stream()
+                .filter(ref -> ref.cacheName().equals(cacheName))
+                .forEach(ref -> untrack(ref.cacheName(), ref.key()));
+    }
+
+    /**
+     * Evicts every tracked entry that contains the post: its id and slug detail entries and
+     * any listing page or list it appears on.
+     */
+    public void evictPost(Long postId) {
+        Set<EntryRef> refs = entriesByPost.get(postId);
+        if (refs == null) {
+            return;
+        }
+        for (EntryRef ref : new ArrayList<>(refs)) {
+            evict(ref);
+        }
+    }
+
+    /**
+     * Evicts every listing (page or list) entry of a cache but keeps the post detail entries.
+     * Used when a post enters or leaves a listing, which shifts the offsets of all its pages.
+     */
+    public void evictListings(String cacheName) {
+        Set<Object> keys = listingKeys.get(cacheName);
+        if (keys == null) {
+            return;
+        }
+        for (Object key : new ArrayList<>(keys)) {
+            evict(new EntryRef(cacheName, key));
+        }
+    }
+
+    public int trackedEntryCount() {
+        return entries.size();
+    }
+
+    private void evict(EntryRef ref) {
+        PostTrackingCache cache = caches.get(ref.cacheName());
+        if (cache != null) {
+            cache.evict(ref.key());
+        } else {
+            untrack(ref.cacheName(), ref.key());
+        }
+    }
+
+    private void unlink(EntryRef ref, TrackedEntry entry) {
+        entry.postIds().forEach(postId -> entriesByPost.computeIfPresent(postId, (id, refs) -> {
+            refs.remove(ref);
+            return refs.isEmpty() ? null : refs;
+        }));
+        if (entry.listing()) {
+            Set<Object> keys = listingKeys.get(ref.cacheName());
+            if (keys != null) {
+                keys.remove(ref.key());
+            }
+        }
+    }
+
+    private Set<Long> extractPostIds(Object value) {
+        if (value instanceof PostDto post) {
+            return post.getId() != null ? Set.of(post.getId()) : Set.of();
+        }
+        if (value instanceof PostSummaryDto post) {
+            return post.getId() != null ? Set.of(post.getId()) : Set.of();
+        }
+        if (value instanceof PaginationResponse<?> page) {
+            return extractPostIds(page.getContent());
+        }
+        if (value instanceof Collection<?> collection) {
+            Set<Long> ids = new HashSet<>();
+            for (Object element : collection) {
+                ids.addAll(extractPostIds(element));
+            }
+            return ids;
+        }
+        return Set.of();
+    }
+}
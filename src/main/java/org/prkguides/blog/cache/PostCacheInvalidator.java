@@ -0,0 +1,77 @@
+package org.prkguides.blog.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Works out which cache entries a post write invalidates and evicts them once the
+ * surrounding transaction has committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCacheInvalidator {
+
+    private final PostCacheIndex postCacheIndex;
+
+    /**
+     * The parts of a post that decide which listings it shows up on and where.
+     */
+    public record PostCacheState(Long id, PostStatus status, boolean featured, LocalDateTime publishedDate) {
+
+        public static PostCacheState of(Post post) {
+            return new PostCacheState(post.getId(), post.getStatus(),
+                    Boolean.TRUE.equals(post.getIsFeatured()), post.getPublishedDate());
+        }
+
+        boolean published() {
+            return PostStatus.PUBLISHED.equals(status);
+        }
+
+        boolean featuredAndPublished() {
+            return featured && published();
+        }
+    }
+
+    /**
+     * @param before state prior to the write, or null when the post was created
+     * @param after state after the write, or null when the post was deleted
+     */
+    public void postChanged(PostCacheState before, PostCacheState after) {
+        Long postId = after != null ? after.id() : before.id();
+
+        boolean wasPublished = before != null && before.published();
+        boolean isPublished = after != null && after.published();
+        boolean reordered = before != null && after != null
+                && !Objects.equals(before.publishedDate(), after.publishedDate());
+
+        // Entering, leaving or moving within the published listings shifts every page after it
+        boolean publishedListingsChanged = wasPublished != isPublished || (isPublished && reordered);
+
+        boolean wasFeatured = before != null && before.featuredAndPublished();
+        boolean isFeatured = after != null && after.featuredAndPublished();
+        boolean featuredListingsChanged = wasFeatured != isFeatured || (isFeatured && reordered);
+
+        AfterCommit.run(() -> {
+            postCacheIndex.evictPost(postId);
+
+            if (publishedListingsChanged) {
+                postCacheIndex.evictListings("posts");
+                postCacheIndex.evictListings("recent-posts");
+                postCacheIndex.evictListings("popular-posts");
+            }
+            if (featuredListingsChanged) {
+                postCacheIndex.evictListings("featured-posts");
+            }
+
+            log.debug("Evicted cache entries for post {} (publishedListings={}, featuredListings={})",
+                    postId, publishedListingsChanged, featuredListingsChanged);
+        });
+    }
+}
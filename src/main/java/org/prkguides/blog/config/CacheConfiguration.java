@@ -0,0 +1,66 @@
+package org.prkguides.blog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.cache.DtoSizeWeigher;
+import org.prkguides.blog.cache.PostCacheIndex;
+import org.prkguides.blog.cache.PostTrackingCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties, PostCacheIndex postCacheIndex) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adapted = super.adaptCaffeineCache(name, cache);
+                // Post caches report their contents to the reverse index used for targeted eviction
+                return PostCacheIndex.TRACKED_CACHES.contains(name) ? new PostTrackingCache(adapted, postCacheIndex) : adapted;
+            }
+        };
+
+        // Caches that are not listed under blog.cache.specs are created lazily with the defaults
+        cacheManager.setCaffeine(builder(cacheProperties.resolve("")));
+
+        // Listed caches are registered eagerly so the actuator metrics binder picks them up at startup
+        cacheProperties.getSpecs().keySet().forEach(cacheName -> {
+            CacheProperties.Spec spec = cacheProperties.resolve(cacheName);
+            Caffeine<Object, Object> builder = builder(spec);
+            if (PostCacheIndex.TRACKED_CACHES.contains(cacheName)) {
+                builder.evictionListener((key, value, cause) -> postCacheIndex.untrackEvicted(cacheName, key, value));
+            }
+            cacheManager.registerCustomCache(cacheName, builder.build());
+            log.info("Configured cache '{}' (maxWeight={}, maxEntries={}, ttl={})",
+                    cacheName, spec.getMaxWeight(), spec.getMaxEntries(), spec.getTtl());
+        });
+
+        return cacheManager;
+    }
+
+    private Caffeine<Object, Object> builder(CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+
+        if (spec.getMaxWeight() != null) {
+            builder.maximumWeight(spec.getMaxWeight().toBytes()).weigher(new DtoSizeWeigher());
+        } else if (spec.getMaxEntries() != null) {
+            builder.maximumSize(spec.getMaxEntries());
+        }
+
+        if (spec.getTtl() != null) {
+            builder.expireAfterWrite(spec.getTtl());
+        }
+
+        return builder;
+    }
+}
@@ -0,0 +1,42 @@
+package org.prkguides.blog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "blog.cache")
+public class CacheProperties {
+
+    // Applied to every cache that has no entry (or no value for a field) under specs
+    private Spec defaults = new Spec();
+
+    // Per cache name settings, e.g. blog.cache.specs.posts.ttl=10m
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+
+        // Upper bound on the summed estimated DTO size; takes precedence over maxEntries
+        private DataSize maxWeight;
+
+        // Upper bound on entry count, used when no maxWeight is configured
+        private Long maxEntries;
+
+        // Time to live after the entry was written
+        private Duration ttl;
+    }
+
+    public Spec resolve(String cacheName) {
+        Spec spec = specs.getOrDefault(cacheName, new Spec());
+        Spec resolved = new Spec();
+        resolved.setMaxWeight(spec.getMaxWeight() != null ? spec.getMaxWeight() : defaults.getMaxWeight());
+        resolved.setMaxEntries(spec.getMaxEntries() != null ? spec.getMaxEntries() : defaults.getMaxEntries());
+        resolved.setTtl(spec.getTtl() != null ? spec.getTtl() : defaults.getTtl());
+        return resolved;
+    }
+}
@@ -53,6 +53,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/published/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/featured/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/popular/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/posts/trending/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/recent/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/slug/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/posts/tag/**").permitAll()
@@ -119,6 +120,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PATCH, "/api/v1/comments/*/approve").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PATCH, "/api/v1/comments/*/reject").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/comments/pending").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/comments/bulk/**").hasRole("ADMIN")
 
                         // All other requests require authentication
                         .anyRequest().authenticated()
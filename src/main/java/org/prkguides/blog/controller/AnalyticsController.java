@@ -7,7 +7,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.prkguides.blog.dto.APIResponse;
+import org.prkguides.blog.dto.DashboardStatsDto;
 import org.prkguides.blog.service.AnalyticsService;
+import org.prkguides.blog.service.DashboardService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +25,17 @@ import java.util.Map;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final DashboardService dashboardService;
+
+    @Operation(summary = "Get dashboard statistics", description = "Site-wide counts and recent traffic for the admin dashboard, refreshed every few seconds")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/dashboard")
+    public ResponseEntity<APIResponse<DashboardStatsDto>> getDashboardStats() {
+
+        DashboardStatsDto stats = dashboardService.getDashboardStats();
+        return ResponseEntity.ok(APIResponse.success("Dashboard statistics retrieved successfully", stats));
+    }
 
     @Operation(summary = "Get post analytics", description = "Get analytics data for a specific post")
     @SecurityRequirement(name = "bearerAuth")
@@ -83,14 +96,15 @@ public class AnalyticsController {
     @PostMapping("/track-view")
     public ResponseEntity<APIResponse<String>> trackPageView(
             @RequestParam String page,
+            @RequestParam(required = false) Long postId,
             @RequestParam(required = false) String referrer,
             @RequestParam(required = false) String userAgent) {
 
-        analyticsService.trackPageView(page, referrer, userAgent);
+        analyticsService.trackPageView(page, postId, referrer, userAgent);
         return ResponseEntity.ok(APIResponse.success("Page view tracked", "View recorded"));
     }
 
-    @Operation(summary = "Get popular content", description = "Get most popular content")
+    @Operation(summary = "Get popular content", description = "Get the content trending over the period (hour, day or week)")
     @GetMapping("/popular")
     public ResponseEntity<APIResponse<Map<String, Object>>> getPopularContent(
             @RequestParam(value = "period", defaultValue = "week") String period,
@@ -8,6 +8,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.prkguides.blog.dto.*;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.enums.ModerationAction;
+import org.prkguides.blog.service.CommentModerationService;
 import org.prkguides.blog.service.CommentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +29,7 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentModerationService commentModerationService;
 
     @Operation(summary = "Create comment", description = "Create a new comment on a post")
     @SecurityRequirement(name = "bearerAuth")
@@ -48,9 +52,11 @@ public class CommentController {
     public ResponseEntity<APIResponse<PaginationResponse<CommentDto>>> getCommentsByPost(
             @Parameter(description = "Post ID") @PathVariable Long postId,
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "20") int pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = "20") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
 
-        PaginationResponse<CommentDto> comments = commentService.getCommentsByPost(postId, pageNo, pageSize);
+        PaginationResponse<CommentDto> comments = commentService.getCommentsByPost(postId, pageNo, pageSize, countMode);
         return ResponseEntity.ok(APIResponse.success("Comments retrieved successfully", comments));
     }
 
@@ -139,15 +145,50 @@ public class CommentController {
         return ResponseEntity.ok(APIResponse.success("Comment rejected successfully", rejectedComment));
     }
 
+    @Operation(summary = "Bulk approve comments", description = "Approve listed comments, or pending ones matching a filter (Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk/approve")
+    public ResponseEntity<APIResponse<BulkModerationResultDto>> bulkApprove(
+            @Valid @RequestBody CommentBulkModerationDto request) {
+
+        BulkModerationResultDto result = commentModerationService.moderate(ModerationAction.APPROVE, request);
+        return ResponseEntity.ok(APIResponse.success("Comments approved successfully", result));
+    }
+
+    @Operation(summary = "Bulk reject comments", description = "Reject listed comments, or pending ones matching a filter (Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk/reject")
+    public ResponseEntity<APIResponse<BulkModerationResultDto>> bulkReject(
+            @Valid @RequestBody CommentBulkModerationDto request) {
+
+        BulkModerationResultDto result = commentModerationService.moderate(ModerationAction.REJECT, request);
+        return ResponseEntity.ok(APIResponse.success("Comments rejected successfully", result));
+    }
+
+    @Operation(summary = "Bulk delete comments", description = "Delete listed comments with their replies, or pending ones matching a filter (Admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<APIResponse<BulkModerationResultDto>> bulkDelete(
+            @Valid @RequestBody CommentBulkModerationDto request) {
+
+        BulkModerationResultDto result = commentModerationService.moderate(ModerationAction.DELETE, request);
+        return ResponseEntity.ok(APIResponse.success("Comments deleted successfully", result));
+    }
+
     @Operation(summary = "Get pending comments", description = "Get all pending comments for moderation (Admin only)")
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/pending")
     public ResponseEntity<APIResponse<PaginationResponse<CommentDto>>> getPendingComments(
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "20") int pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = "20") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
 
-        PaginationResponse<CommentDto> comments = commentService.getPendingComments(pageNo, pageSize);
+        PaginationResponse<CommentDto> comments = commentService.getPendingComments(pageNo, pageSize, countMode);
         return ResponseEntity.ok(APIResponse.success("Pending comments retrieved successfully", comments));
     }
 
@@ -157,9 +198,11 @@ public class CommentController {
     public ResponseEntity<APIResponse<PaginationResponse<CommentDto>>> getUserComments(
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
             @RequestParam(value = "pageSize", defaultValue = "20") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode,
             Authentication authentication) {
 
-        PaginationResponse<CommentDto> comments = commentService.getCommentsByUser(authentication.getName(), pageNo, pageSize);
+        PaginationResponse<CommentDto> comments = commentService.getCommentsByUser(authentication.getName(), pageNo, pageSize, countMode);
         return ResponseEntity.ok(APIResponse.success("User comments retrieved successfully", comments));
     }
 }
@@ -10,6 +10,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.prkguides.blog.dto.*;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.TrendingWindow;
 import org.prkguides.blog.service.PostService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -59,9 +62,11 @@ public class PostController {
             @Parameter(description = "Page number (0-based)")
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
             @Parameter(description = "Page size")
-            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
 
-        PaginationResponse<PostSummaryDto> posts = postService.getAllPosts(pageNo, pageSize);
+        PaginationResponse<PostSummaryDto> posts = postService.getAllPosts(pageNo, pageSize, countMode);
 
         if (posts.getContent().isEmpty()) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT)
@@ -77,9 +82,11 @@ public class PostController {
     public ResponseEntity<APIResponse<PaginationResponse<PostSummaryDto>>> getMyPosts(
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode,
             Authentication authentication) {
 
-        PaginationResponse<PostSummaryDto> posts = postService.getPostsByAuthor(authentication.getName(), pageNo, pageSize);
+        PaginationResponse<PostSummaryDto> posts = postService.getPostsByAuthor(authentication.getName(), pageNo, pageSize, countMode);
         return ResponseEntity.ok(APIResponse.success("My posts retrieved successfully", posts));
     }
 
@@ -87,9 +94,11 @@ public class PostController {
     @GetMapping("/published")
     public ResponseEntity<APIResponse<PaginationResponse<PostSummaryDto>>> getPublishedPosts(
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
 
-        PaginationResponse<PostSummaryDto> posts = postService.getPublishedPosts(pageNo, pageSize);
+        PaginationResponse<PostSummaryDto> posts = postService.getPublishedPosts(pageNo, pageSize, countMode);
         return ResponseEntity.ok(APIResponse.success("Published posts retrieved successfully", posts));
     }
 
@@ -97,9 +106,32 @@ public class PostController {
     @GetMapping("/featured")
     public ResponseEntity<APIResponse<PaginationResponse<PostSummaryDto>>> getFeaturedPosts(
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "6") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
+
+        PaginationResponse<PostSummaryDto> posts = postService.getFeaturedPosts(pageNo, pageSize, countMode);
+        return ResponseEntity.ok(APIResponse.success("Featured posts retrieved successfully", posts));
+    }
+
+    @Operation(summary = "Get published posts by cursor", description = "Retrieves published posts after the given cursor, without totals")
+    @GetMapping("/published/cursor")
+    public ResponseEntity<APIResponse<CursorPageResponse<PostSummaryDto>>> getPublishedPostsByCursor(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page; omit for the first page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+
+        CursorPageResponse<PostSummaryDto> posts = postService.getPublishedPostsAfter(cursor, pageSize);
+        return ResponseEntity.ok(APIResponse.success("Published posts retrieved successfully", posts));
+    }
+
+    @Operation(summary = "Get featured posts by cursor", description = "Retrieves featured posts after the given cursor, without totals")
+    @GetMapping("/featured/cursor")
+    public ResponseEntity<APIResponse<CursorPageResponse<PostSummaryDto>>> getFeaturedPostsByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestParam(value = "pageSize", defaultValue = "6") int pageSize) {
 
-        PaginationResponse<PostSummaryDto> posts = postService.getFeaturedPosts(pageNo, pageSize);
+        CursorPageResponse<PostSummaryDto> posts = postService.getFeaturedPostsAfter(cursor, pageSize);
         return ResponseEntity.ok(APIResponse.success("Featured posts retrieved successfully", posts));
     }
 
@@ -162,20 +194,57 @@ public class PostController {
     @Operation(summary = "Search posts", description = "Search posts with various filters")
     @PostMapping("/search")
     public ResponseEntity<APIResponse<PaginationResponse<PostSummaryDto>>> searchPosts(
-            @Valid @RequestBody SearchRequestDto searchRequest) {
+            @Valid @RequestBody SearchRequestDto searchRequest,
+            Authentication authentication) {
 
+        // Search is public; only admins may look beyond published posts
+        if (!isAdmin(authentication)) {
+            searchRequest.setStatus(PostStatus.PUBLISHED);
+        }
         PaginationResponse<PostSummaryDto> posts = postService.searchPosts(searchRequest);
         return ResponseEntity.ok(APIResponse.success("Search completed successfully", posts));
     }
 
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    @Operation(summary = "Rebuild search index",
+            description = "Rebuilds the search index from the posts table in the background. Search is served from the database until it completes")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/search/reindex")
+    public ResponseEntity<APIResponse<String>> reindexSearch() {
+        if (!postService.reindexSearch()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(APIResponse.error("A search reindex is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(APIResponse.success("Search reindex started", null));
+    }
+
     @Operation(summary = "Get posts by author", description = "Retrieves posts by a specific author")
     @GetMapping("/author/{username}")
     public ResponseEntity<APIResponse<PaginationResponse<PostSummaryDto>>> getPostsByAuthor(
             @PathVariable String username,
             @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+            @Parameter(description = "EXACT runs a COUNT query, APPROXIMATE uses a cached count, NONE skips totals")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") CountMode countMode) {
+
+        PaginationResponse<PostSummaryDto> posts = postService.getPostsByAuthor(username, pageNo, pageSize, countMode);
+        return ResponseEntity.ok(APIResponse.success("Posts by author retrieved successfully", posts));
+    }
+
+    @Operation(summary = "Get posts by author by cursor", description = "Retrieves posts by a specific author after the given cursor, without totals")
+    @GetMapping("/author/{username}/cursor")
+    public ResponseEntity<APIResponse<CursorPageResponse<PostSummaryDto>>> getPostsByAuthorByCursor(
+            @PathVariable String username,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
 
-        PaginationResponse<PostSummaryDto> posts = postService.getPostsByAuthor(username, pageNo, pageSize);
+        CursorPageResponse<PostSummaryDto> posts = postService.getPostsByAuthorAfter(username, cursor, pageSize);
         return ResponseEntity.ok(APIResponse.success("Posts by author retrieved successfully", posts));
     }
 
@@ -190,6 +259,17 @@ public class PostController {
         return ResponseEntity.ok(APIResponse.success("Posts by tag retrieved successfully", posts));
     }
 
+    @Operation(summary = "Get posts by tag by cursor", description = "Retrieves posts with a specific tag after the given cursor, without totals")
+    @GetMapping("/tag/{tagName}/cursor")
+    public ResponseEntity<APIResponse<CursorPageResponse<PostSummaryDto>>> getPostsByTagByCursor(
+            @PathVariable String tagName,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+
+        CursorPageResponse<PostSummaryDto> posts = postService.getPostsByTagAfter(tagName, cursor, pageSize);
+        return ResponseEntity.ok(APIResponse.success("Posts by tag retrieved successfully", posts));
+    }
+
     @Operation(summary = "Get related posts", description = "Retrieves posts related to a specific post")
     @GetMapping("/{id}/related")
     public ResponseEntity<APIResponse<List<PostSummaryDto>>> getRelatedPosts(
@@ -209,6 +289,16 @@ public class PostController {
         return ResponseEntity.ok(APIResponse.success("Popular posts retrieved successfully", popularPosts));
     }
 
+    @Operation(summary = "Get trending posts", description = "Retrieves the posts with the most recent views, decayed over the window (hour, day or week)")
+    @GetMapping("/trending")
+    public ResponseEntity<APIResponse<List<PostSummaryDto>>> getTrendingPosts(
+            @RequestParam(value = "window", defaultValue = "day") String window,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        List<PostSummaryDto> trendingPosts = postService.getTrendingPosts(TrendingWindow.of(window), limit);
+        return ResponseEntity.ok(APIResponse.success("Trending posts retrieved successfully", trendingPosts));
+    }
+
     @Operation(summary = "Get recent posts", description = "Retrieves most recent posts")
     @GetMapping("/recent")
     public ResponseEntity<APIResponse<List<PostSummaryDto>>> getRecentPosts(
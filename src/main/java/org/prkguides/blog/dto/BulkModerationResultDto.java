@@ -0,0 +1,20 @@
+package org.prkguides.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.prkguides.blog.enums.ModerationAction;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a bulk moderation request")
+public class BulkModerationResultDto {
+
+    @Schema(description = "Action applied", example = "APPROVE")
+    private ModerationAction action;
+
+    @Schema(description = "Comments changed or deleted, replies of deleted comments included", example = "250")
+    private int affected;
+}
@@ -0,0 +1,28 @@
+package org.prkguides.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Bulk moderation request: either comment IDs, or a filter over pending comments")
+public class CommentBulkModerationDto {
+
+    @Size(max = 10000, message = "At most 10000 comment IDs per request")
+    @Schema(description = "Comments to moderate", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Min(value = 0, message = "Hours must not be negative")
+    @Schema(description = "Filter: pending comments created more than this many hours ago", example = "24")
+    private Integer pendingOlderThanHours;
+
+    @Schema(description = "Filter: only pending comments on this post", example = "1")
+    private Long postId;
+}
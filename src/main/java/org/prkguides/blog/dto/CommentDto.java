@@ -34,9 +34,12 @@ public class CommentDto {
     @Schema(description = "Comment author information")
     private UserSummaryDto author;
 
-    @Schema(description = "Replies to this comment")
+    @Schema(description = "Replies to this comment, cut at the configured depth and per-level limit")
     private List<CommentDto> replies;
 
+    @Schema(description = "Number of approved direct replies, including any left out of replies", example = "3")
+    private Integer replyCount;
+
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Schema(description = "Creation timestamp")
     private LocalDateTime createdAt;
@@ -0,0 +1,27 @@
+package org.prkguides.blog.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Cursor-based page of results, without totals")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Page content")
+    private List<T> content;
+
+    @Schema(description = "Requested page size", example = "10")
+    private Integer size;
+
+    @Schema(description = "Opaque cursor to pass back for the next page, null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Whether more results follow", example = "true")
+    private Boolean hasNext;
+}
@@ -4,6 +4,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -36,4 +38,26 @@ public class PaginationResponse<T> {
 
     @Schema(description = "Whether the page is empty", example = "false")
     private Boolean empty;
+
+    /**
+     * Builds a response from a Page (exact totals), or from a Slice with an optional
+     * externally supplied total. Totals are left null when none is known.
+     */
+    public static <T> PaginationResponse<T> of(Slice<?> slice, List<T> content, Long totalElements) {
+        PaginationResponse<T> response = new PaginationResponse<>();
+        response.setContent(content);
+        response.setPage(slice.getNumber());
+        response.setSize(slice.getSize());
+        if (slice instanceof Page<?> page) {
+            response.setTotalElements(page.getTotalElements());
+            response.setTotalPages(page.getTotalPages());
+        } else if (totalElements != null) {
+            response.setTotalElements(totalElements);
+            response.setTotalPages(slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / slice.getSize()));
+        }
+        response.setLast(slice.isLast());
+        response.setFirst(slice.isFirst());
+        response.setEmpty(slice.isEmpty());
+        return response;
+    }
 }
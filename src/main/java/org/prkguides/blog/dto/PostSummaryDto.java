@@ -1,6 +1,7 @@
 package org.prkguides.blog.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import org.prkguides.blog.enums.PostStatus;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Set;
 
 @Data
@@ -37,6 +39,9 @@ public class PostSummaryDto {
     @Schema(description = "Number of views", example = "1250")
     private Long viewCount;
 
+    @Schema(description = "Number of approved comments", example = "12")
+    private Long commentCount;
+
     @Schema(description = "Post status", example = "PUBLISHED")
     private PostStatus status;
 
@@ -56,4 +61,8 @@ public class PostSummaryDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Schema(description = "Creation timestamp")
     private LocalDateTime createdAt;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Schema(description = "Search results only: matching fragments per field (title, excerpt, content), matches wrapped in <mark>")
+    private Map<String, String> highlights;
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.TagMatch;
 
 import java.util.Set;
 
@@ -14,16 +15,19 @@ import java.util.Set;
 @Schema(description = "Search request parameters")
 public class SearchRequestDto {
 
-    @Schema(description = "Search query", example = "spring boot tutorial")
+    @Schema(description = "Search query; all terms must match and the last one also matches as a prefix", example = "spring boot tutorial")
     private String query;
 
-    @Schema(description = "Filter by tags")
+    @Schema(description = "Filter by tags, see tagMatch")
     private Set<String> tags;
 
+    @Schema(description = "ANY matches posts with at least one of the tags, ALL only posts with every tag", example = "ANY")
+    private TagMatch tagMatch = TagMatch.ANY;
+
     @Schema(description = "Filter by author username")
     private String author;
 
-    @Schema(description = "Filter by post status", example = "PUBLISHED")
+    @Schema(description = "Filter by post status, PUBLISHED when omitted; other statuses are for admins only", example = "PUBLISHED")
     private PostStatus status;
 
     @Schema(description = "Only featured posts", example = "true")
@@ -35,8 +39,8 @@ public class SearchRequestDto {
     @Schema(description = "Page size", example = "10")
     private Integer size = 10;
 
-    @Schema(description = "Sort field", example = "publishedDate")
-    private String sortBy = "publishedDate";
+    @Schema(description = "Sort field: relevance, publishedDate or createdAt. Defaults to relevance when a query is given, publishedDate otherwise", example = "relevance")
+    private String sortBy;
 
     @Schema(description = "Sort direction", example = "desc")
     private String sortDirection = "desc";
@@ -3,6 +3,7 @@ package org.prkguides.blog.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.utils.CommentPath;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,7 +19,9 @@ import java.util.List;
                 @Index(name = "idx_comment_post", columnList = "post_id"),
                 @Index(name = "idx_comment_author", columnList = "author_id"),
                 @Index(name = "idx_comment_status", columnList = "status"),
-                @Index(name = "idx_comment_parent", columnList = "parent_comment_id")
+                @Index(name = "idx_comment_parent", columnList = "parent_comment_id"),
+                @Index(name = "idx_comment_post_thread_path", columnList = "post_id, thread_path"),
+                @Index(name = "idx_comment_post_status", columnList = "post_id, status")
         })
 public class Comment extends BaseEntity {
 
@@ -46,6 +49,10 @@ public class Comment extends BaseEntity {
     @JoinColumn(name = "parent_comment_id")
     private Comment parentComment;
 
+    // Set once the id is known, see CommentPath
+    @Column(name = "thread_path", length = CommentPath.MAX_LENGTH)
+    private String threadPath;
+
     @OneToMany(mappedBy = "parentComment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Comment> replies = new ArrayList<>();
 
@@ -0,0 +1,44 @@
+package org.prkguides.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.prkguides.blog.enums.RollupDimension;
+
+import java.time.LocalDate;
+
+/**
+ * Views and approved comments per day. Updated on the same flush as the hourly rollup, so
+ * an N-day window is one range scan over this table.
+ * Written through JDBC by the rollup service; the entity only describes the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "rollup_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_daily_key", columnNames = {"dimension", "dimension_id", "rollup_date"}),
+        indexes = @Index(name = "idx_rollup_daily_dimension_date", columnList = "dimension, rollup_date"))
+public class DailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 10)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    @Column(name = "comments", nullable = false)
+    private long comments;
+}
@@ -0,0 +1,44 @@
+package org.prkguides.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.prkguides.blog.enums.RollupDimension;
+
+import java.time.LocalDateTime;
+
+/**
+ * Views and approved comments per hour. Kept for the recent hours only; older hours are
+ * pruned, their counts already live in the daily rollup.
+ * Written through JDBC by the rollup service; the entity only describes the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "rollup_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_hourly_key", columnNames = {"dimension", "dimension_id", "rollup_hour"}),
+        indexes = @Index(name = "idx_rollup_hourly_dimension_hour", columnList = "dimension, rollup_hour"))
+public class HourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false, length = 10)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(name = "rollup_hour", nullable = false)
+    private LocalDateTime rollupHour;
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    @Column(name = "comments", nullable = false)
+    private long comments;
+}
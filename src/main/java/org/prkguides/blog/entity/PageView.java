@@ -0,0 +1,42 @@
+package org.prkguides.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only page view log. Rows are written in JDBC batches by the page view ingester,
+ * never through JPA; the entity only describes the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "page_views", indexes = {
+        @Index(name = "idx_page_views_post_viewed_at", columnList = "post_id, viewed_at"),
+        @Index(name = "idx_page_views_viewed_at", columnList = "viewed_at")
+})
+public class PageView {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "page", nullable = false, length = 500)
+    private String page;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "referrer", length = 500)
+    private String referrer;
+
+    @Column(name = "user_agent", length = 500)
+    private String userAgent;
+
+    @Column(name = "viewed_at", nullable = false)
+    private LocalDateTime viewedAt;
+}
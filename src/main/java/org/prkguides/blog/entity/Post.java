@@ -2,6 +2,7 @@ package org.prkguides.blog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.prkguides.blog.enums.PostStatus;
 
 import java.time.LocalDateTime;
@@ -18,7 +19,8 @@ import java.util.Set;
         indexes = {
                 @Index(name = "idx_post_status", columnList = "status"),
                 @Index(name = "idx_post_published_date", columnList = "publishedDate"),
-                @Index(name = "idx_post_author", columnList = "author_id")
+                @Index(name = "idx_post_author", columnList = "author_id"),
+                @Index(name = "idx_posts_status_published_date", columnList = "status, publishedDate, id")
         })
 public class Post extends BaseEntity {
 
@@ -48,6 +50,13 @@ public class Post extends BaseEntity {
     @Column(name = "view_count", columnDefinition = "BIGINT DEFAULT 0")
     private Long viewCount = 0L;
 
+    // Kept by CommentCountService with in-place increments, so entity saves never write them
+    @Column(name = "approved_comment_count", columnDefinition = "BIGINT DEFAULT 0", insertable = false, updatable = false)
+    private Long approvedCommentCount = 0L;
+
+    @Column(name = "pending_comment_count", columnDefinition = "BIGINT DEFAULT 0", insertable = false, updatable = false)
+    private Long pendingCommentCount = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private PostStatus status = PostStatus.DRAFT;
@@ -65,6 +74,8 @@ public class Post extends BaseEntity {
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
+    // Loaded for a whole listing page in one IN query instead of one query per post
+    @BatchSize(size = 100)
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, fetch = FetchType.LAZY)
     @JoinTable(
             name = "post_tags",
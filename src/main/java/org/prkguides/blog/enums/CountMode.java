@@ -0,0 +1,16 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum CountMode {
+    EXACT("Exact"),             // Page query plus COUNT, totals are exact
+    APPROXIMATE("Approximate"), // Slice query, totals from a short-lived cached count
+    NONE("None");               // Slice query only, no totals, just whether a next page exists
+
+    private final String displayName;
+
+    CountMode(String displayName) {
+        this.displayName = displayName;
+    }
+}
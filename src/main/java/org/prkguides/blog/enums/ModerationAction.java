@@ -0,0 +1,18 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ModerationAction {
+    APPROVE("Approve", CommentStatus.APPROVED),
+    REJECT("Reject", CommentStatus.REJECTED),
+    DELETE("Delete", null);
+
+    private final String displayName;
+    private final CommentStatus targetStatus;   // Null when the comments are removed
+
+    ModerationAction(String displayName, CommentStatus targetStatus) {
+        this.displayName = displayName;
+        this.targetStatus = targetStatus;
+    }
+}
@@ -0,0 +1,25 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+/**
+ * What one auto-moderation rule says about a comment. Ordered from weakest to strongest:
+ * combining verdicts keeps the strongest, so a single REJECT or HOLD overrides approvals.
+ */
+@Getter
+public enum ModerationVerdict {
+    ABSTAIN("Abstain"),
+    APPROVE("Approve"),
+    HOLD("Hold for review"),
+    REJECT("Reject");
+
+    private final String displayName;
+
+    ModerationVerdict(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public ModerationVerdict and(ModerationVerdict other) {
+        return other.ordinal() > ordinal() ? other : this;
+    }
+}
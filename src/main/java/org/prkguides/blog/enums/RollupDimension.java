@@ -0,0 +1,17 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum RollupDimension {
+    POST("Post"),
+    AUTHOR("Author"),
+    TAG("Tag"),
+    SITE("Site");   // One row per bucket for the whole site, dimension id 0
+
+    private final String displayName;
+
+    RollupDimension(String displayName) {
+        this.displayName = displayName;
+    }
+}
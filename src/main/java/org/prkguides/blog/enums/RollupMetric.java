@@ -0,0 +1,17 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum RollupMetric {
+    VIEWS("Views", "views"),
+    COMMENTS("Comments", "comments");
+
+    private final String displayName;
+    private final String column;
+
+    RollupMetric(String displayName, String column) {
+        this.displayName = displayName;
+        this.column = column;
+    }
+}
@@ -0,0 +1,15 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum TagMatch {
+    ANY("Any"), // Posts carrying at least one of the tags
+    ALL("All"); // Posts carrying every one of the tags
+
+    private final String displayName;
+
+    TagMatch(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -0,0 +1,34 @@
+package org.prkguides.blog.enums;
+
+import lombok.Getter;
+import org.prkguides.blog.exceptions.BadRequestException;
+
+import java.time.Duration;
+
+@Getter
+public enum TrendingWindow {
+    HOUR("Hour", Duration.ofHours(1)),
+    DAY("Day", Duration.ofDays(1)),
+    WEEK("Week", Duration.ofDays(7));
+
+    private final String displayName;
+    private final Duration duration;   // Decay time constant of the window's score
+
+    TrendingWindow(String displayName, Duration duration) {
+        this.displayName = displayName;
+        this.duration = duration;
+    }
+
+    // Accepts hour/day/week as well as 1h/24h/7d
+    public static TrendingWindow of(String period) {
+        if (period == null) {
+            return DAY;
+        }
+        return switch (period.trim().toLowerCase()) {
+            case "hour", "1h" -> HOUR;
+            case "day", "24h", "1d" -> DAY;
+            case "week", "7d" -> WEEK;
+            default -> throw new BadRequestException("Unknown trending window: " + period);
+        };
+    }
+}
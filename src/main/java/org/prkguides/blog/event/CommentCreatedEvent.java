@@ -0,0 +1,8 @@
+package org.prkguides.blog.event;
+
+/**
+ * Published when a comment or reply is created, always as pending. Carries what the
+ * auto-moderation rules look at, so they don't have to read the comment back.
+ */
+public record CommentCreatedEvent(Long commentId, Long postId, Long authorId, String content) {
+}
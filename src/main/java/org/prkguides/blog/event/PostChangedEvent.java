@@ -0,0 +1,13 @@
+package org.prkguides.blog.event;
+
+/**
+ * Published by the post write paths for every change to a post. Listeners that need the
+ * committed state should use {@code @TransactionalEventListener}, which only delivers the
+ * event once the surrounding transaction has committed and drops it on rollback.
+ */
+public record PostChangedEvent(Long postId, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, PUBLISHED, UNPUBLISHED, DELETED
+    }
+}
@@ -0,0 +1,17 @@
+package org.prkguides.blog.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Invalid input supplied by the client, such as a malformed cursor or an out-of-range page.
+ * Only thrown on purpose where request values are checked, so unexpected
+ * IllegalArgumentExceptions from inside the application stay server errors.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
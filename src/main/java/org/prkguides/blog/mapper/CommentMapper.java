@@ -0,0 +1,17 @@
+package org.prkguides.blog.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.entity.Comment;
+
+@Mapper(config = MapperConfiguration.class, uses = UserMapper.class)
+public interface CommentMapper {
+
+    // Reply trees come from the thread loader, which reads them in one query
+    @Mapping(target = "postId", source = "post.id")
+    @Mapping(target = "parentCommentId", source = "parentComment.id")
+    @Mapping(target = "replies", ignore = true)
+    @Mapping(target = "replyCount", ignore = true)
+    CommentDto toDto(Comment comment);
+}
@@ -0,0 +1,17 @@
+package org.prkguides.blog.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.entity.Post;
+
+@Mapper(config = MapperConfiguration.class, uses = {UserMapper.class, TagMapper.class})
+public interface PostMapper {
+
+    PostDto toDto(Post post);
+
+    @Mapping(target = "highlights", ignore = true)
+    @Mapping(target = "commentCount", source = "approvedCommentCount")
+    PostSummaryDto toSummaryDto(Post post);
+}
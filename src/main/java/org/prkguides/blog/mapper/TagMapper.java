@@ -0,0 +1,14 @@
+package org.prkguides.blog.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.prkguides.blog.dto.TagDto;
+import org.prkguides.blog.entity.Tag;
+
+@Mapper(config = MapperConfiguration.class)
+public interface TagMapper {
+
+    // Counting posts would initialize the lazy posts collection, callers that show it set it themselves
+    @Mapping(target = "postCount", ignore = true)
+    TagDto toDto(Tag tag);
+}
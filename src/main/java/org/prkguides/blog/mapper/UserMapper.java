@@ -0,0 +1,17 @@
+package org.prkguides.blog.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.prkguides.blog.dto.UserDto;
+import org.prkguides.blog.dto.UserSummaryDto;
+import org.prkguides.blog.entity.User;
+
+@Mapper(config = MapperConfiguration.class)
+public interface UserMapper {
+
+    UserSummaryDto toSummaryDto(User user);
+
+    // Post count needs a query, the service fills it in
+    @Mapping(target = "postCount", ignore = true)
+    UserDto toDto(User user);
+}
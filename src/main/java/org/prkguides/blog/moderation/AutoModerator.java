@@ -0,0 +1,166 @@
+package org.prkguides.blog.moderation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.enums.ModerationAction;
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.prkguides.blog.service.CommentModerationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Auto-moderates new comments off the request thread. A committed comment is handed to a
+ * small worker pool that runs the {@link ModerationRule}s in order and keeps the strongest
+ * verdict, stopping at the first REJECT. Approvals and rejections are queued and written by
+ * a scheduled flush as bulk status updates; anything else stays pending for a human. The
+ * flush only touches comments that are still pending with the content the rules saw, so a
+ * moderator acting first wins and an edit made meanwhile is left for a human.
+ * When the workers fall behind, new comments skip auto-moderation instead of queueing
+ * without bound.
+ */
+@Slf4j
+@Component
+public class AutoModerator {
+
+    // The content is the version the verdict applies to
+    private record Decision(Long commentId, ModerationAction action, String content) {
+    }
+
+    private final List<ModerationRule> rules;
+    private final CommentModerationService commentModerationService;
+    private final boolean enabled;
+    private final ThreadPoolExecutor workers;
+    private final Queue<Decision> decisions = new ConcurrentLinkedQueue<>();
+
+    private final Map<String, Timer> ruleTimers = new HashMap<>();
+    private final Map<ModerationVerdict, Counter> outcomes = new EnumMap<>(ModerationVerdict.class);
+    private final Counter skipped;
+    private final Counter failedFlushes;
+
+    public AutoModerator(List<ModerationRule> rules,
+                         CommentModerationService commentModerationService,
+                         @Value("${blog.moderation.enabled:true}") boolean enabled,
+                         @Value("${blog.moderation.workers:2}") int workerCount,
+                         @Value("${blog.moderation.queue-capacity:10000}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        this.rules = rules;
+        this.commentModerationService = commentModerationService;
+        this.enabled = enabled;
+
+        AtomicInteger threads = new AtomicInteger();
+        int poolSize = Math.max(1, workerCount);
+        this.workers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), task -> {
+            Thread thread = new Thread(task, "comment-moderation-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (ModerationRule rule : rules) {
+            ruleTimers.put(rule.name(), Timer.builder("blog.moderation.rule")
+                    .description("Time one auto-moderation rule takes per comment")
+                    .tag("rule", rule.name())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+        for (ModerationVerdict verdict : ModerationVerdict.values()) {
+            outcomes.put(verdict, meterRegistry.counter("blog.moderation.outcomes", "verdict", verdict.name()));
+        }
+        this.skipped = meterRegistry.counter("blog.moderation.skipped");
+        this.failedFlushes = meterRegistry.counter("blog.moderation.flush.failures");
+        Gauge.builder("blog.moderation.backlog", workers, pool -> pool.getQueue().size())
+                .description("Comments waiting for a moderation worker")
+                .register(meterRegistry);
+        Gauge.builder("blog.moderation.decisions", decisions, Queue::size)
+                .description("Decisions waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            workers.execute(() -> moderate(event));
+        } catch (RejectedExecutionException ex) {
+            skipped.increment();
+        }
+    }
+
+    /**
+     * Runs the rules on one comment and queues the outcome for the next flush.
+     */
+    public ModerationVerdict moderate(CommentCreatedEvent comment) {
+        ModerationVerdict verdict = ModerationVerdict.ABSTAIN;
+        try {
+            for (ModerationRule rule : rules) {
+                long started = System.nanoTime();
+                ModerationVerdict ruled = rule.evaluate(comment);
+                ruleTimers.get(rule.name()).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                verdict = verdict.and(ruled);
+                if (verdict == ModerationVerdict.REJECT) {
+                    log.debug("Comment {} rejected by {}", comment.commentId(), rule.name());
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // A failing rule leaves the comment to a human rather than deciding on partial evidence
+            log.warn("Auto-moderation of comment {} failed, leaving it pending", comment.commentId(), ex);
+            verdict = ModerationVerdict.HOLD;
+        }
+
+        outcomes.get(verdict).increment();
+        if (verdict == ModerationVerdict.APPROVE) {
+            decisions.add(new Decision(comment.commentId(), ModerationAction.APPROVE, comment.content()));
+        } else if (verdict == ModerationVerdict.REJECT) {
+            decisions.add(new Decision(comment.commentId(), ModerationAction.REJECT, comment.content()));
+        }
+        return verdict;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.moderation.flush-interval-ms:500}")
+    public synchronized int flush() {
+        List<Decision> batch = new ArrayList<>();
+        for (Decision decision; (decision = decisions.poll()) != null; ) {
+            batch.add(decision);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<ModerationAction, Map<Long, String>> byAction = new EnumMap<>(ModerationAction.class);
+        batch.forEach(decision -> byAction.computeIfAbsent(decision.action(), action -> new HashMap<>())
+                .put(decision.commentId(), decision.content()));
+        try {
+            int written = 0;
+            for (Map.Entry<ModerationAction, Map<Long, String>> entry : byAction.entrySet()) {
+                written += commentModerationService.moderateIfPending(entry.getKey(), entry.getValue());
+            }
+            return written;
+        } catch (RuntimeException ex) {
+            decisions.addAll(batch);
+            failedFlushes.increment();
+            log.error("Writing {} auto-moderation decisions failed, retrying on the next run", batch.size(), ex);
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
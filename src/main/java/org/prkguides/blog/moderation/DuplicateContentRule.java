@@ -0,0 +1,81 @@
+package org.prkguides.blog.moderation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Rejects the same text posted again within the window: by the same author a second time, or
+ * by anyone once it reaches the threshold. Texts are compared by a hash of their letters and
+ * digits, so case, spacing and punctuation changes don't get around it. Short texts ("Great
+ * post!") are expected to repeat and are left alone. Only hashes are kept, in memory.
+ */
+@Component
+@Order(3)
+public class DuplicateContentRule implements ModerationRule {
+
+    private final Cache<Long, Sighting> recent;
+    private final int threshold;
+    private final int minLength;
+
+    private record Sighting(Long firstAuthorId, int count) {
+    }
+
+    public DuplicateContentRule(@Value("${blog.moderation.duplicates.window-minutes:60}") long windowMinutes,
+                                @Value("${blog.moderation.duplicates.threshold:3}") int threshold,
+                                @Value("${blog.moderation.duplicates.min-length:20}") int minLength,
+                                @Value("${blog.moderation.duplicates.max-entries:100000}") long maxEntries) {
+        this.recent = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .maximumSize(maxEntries)
+                .build();
+        this.threshold = Math.max(2, threshold);
+        this.minLength = minLength;
+    }
+
+    @Override
+    public String name() {
+        return "duplicate-content";
+    }
+
+    @Override
+    public ModerationVerdict evaluate(CommentCreatedEvent comment) {
+        String normalized = normalize(comment.content());
+        if (normalized.length() < minLength) {
+            return ModerationVerdict.ABSTAIN;
+        }
+        Sighting sighting = recent.asMap().merge(hash(normalized), new Sighting(comment.authorId(), 1),
+                (seen, first) -> new Sighting(seen.firstAuthorId(), seen.count() + 1));
+        boolean repeated = sighting.count() > 1 && Objects.equals(sighting.firstAuthorId(), comment.authorId());
+        return repeated || sighting.count() >= threshold ? ModerationVerdict.REJECT : ModerationVerdict.ABSTAIN;
+    }
+
+    private static String normalize(String content) {
+        StringBuilder normalized = new StringBuilder(content.length());
+        content.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(Character::toLowerCase)
+                .forEach(normalized::appendCodePoint);
+        return normalized.toString();
+    }
+
+    private static long hash(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
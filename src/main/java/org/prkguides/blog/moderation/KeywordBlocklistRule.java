@@ -0,0 +1,42 @@
+package org.prkguides.blog.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.prkguides.blog.utils.AhoCorasick;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Rejects comments containing a blocklisted word or phrase, in one pass whatever the list size
+@Slf4j
+@Component
+@Order(2)
+public class KeywordBlocklistRule implements ModerationRule {
+
+    private final AhoCorasick blocklist;
+
+    public KeywordBlocklistRule(@Value("${blog.moderation.blocklist:}") List<String> terms) {
+        this.blocklist = new AhoCorasick(terms);
+    }
+
+    @Override
+    public String name() {
+        return "keyword-blocklist";
+    }
+
+    @Override
+    public ModerationVerdict evaluate(CommentCreatedEvent comment) {
+        if (blocklist.isEmpty()) {
+            return ModerationVerdict.ABSTAIN;
+        }
+        String match = blocklist.findWord(comment.content());
+        if (match == null) {
+            return ModerationVerdict.ABSTAIN;
+        }
+        log.debug("Comment {} contains blocklisted \"{}\"", comment.commentId(), match);
+        return ModerationVerdict.REJECT;
+    }
+}
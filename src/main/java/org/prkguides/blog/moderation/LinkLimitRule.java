@@ -0,0 +1,42 @@
+package org.prkguides.blog.moderation;
+
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Rejects comments carrying more links than allowed
+@Component
+@Order(1)
+public class LinkLimitRule implements ModerationRule {
+
+    // A scheme or a bare www., but not the www. right after a scheme
+    private static final Pattern LINK = Pattern.compile("(?i)https?://|(?<![/\\w.])www\\.");
+
+    private final int maxLinks;
+
+    public LinkLimitRule(@Value("${blog.moderation.max-links:2}") int maxLinks) {
+        this.maxLinks = Math.max(0, maxLinks);
+    }
+
+    @Override
+    public String name() {
+        return "link-limit";
+    }
+
+    @Override
+    public ModerationVerdict evaluate(CommentCreatedEvent comment) {
+        Matcher matcher = LINK.matcher(comment.content());
+        int links = 0;
+        while (matcher.find()) {
+            if (++links > maxLinks) {
+                return ModerationVerdict.REJECT;
+            }
+        }
+        return ModerationVerdict.ABSTAIN;
+    }
+}
@@ -0,0 +1,17 @@
+package org.prkguides.blog.moderation;
+
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+
+/**
+ * One check of the auto-moderation pipeline. Rules run on the moderation workers, off the
+ * request thread, in their {@code @Order}; cheap rules go first since a REJECT ends the run.
+ * Implementations must be thread-safe.
+ */
+public interface ModerationRule {
+
+    // Metric tag and log name
+    String name();
+
+    ModerationVerdict evaluate(CommentCreatedEvent comment);
+}
@@ -0,0 +1,67 @@
+package org.prkguides.blog.moderation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Judges the author by their moderated history. Authors with enough approved comments and
+ * few rejections are approved without review; authors rejected more often than approved are
+ * held for a human. The history is one grouped count per author, cached for a few minutes.
+ */
+@Component
+@Order(4)
+public class ReputationRule implements ModerationRule {
+
+    private static final String HISTORY_SQL =
+            "SELECT COUNT(CASE WHEN status = 'APPROVED' THEN 1 END), " +
+            "COUNT(CASE WHEN status IN ('REJECTED', 'SPAM') THEN 1 END) " +
+            "FROM comments WHERE author_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, History> histories;
+    private final int trustedAfter;
+    private final double maxRejectedShare;
+
+    private record History(long approved, long rejected) {
+    }
+
+    public ReputationRule(JdbcTemplate jdbcTemplate,
+                          @Value("${blog.moderation.reputation.trusted-after:5}") int trustedAfter,
+                          @Value("${blog.moderation.reputation.max-rejected-share:0.2}") double maxRejectedShare,
+                          @Value("${blog.moderation.reputation.cache-ttl-seconds:300}") long cacheTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trustedAfter = Math.max(1, trustedAfter);
+        this.maxRejectedShare = maxRejectedShare;
+        this.histories = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "reputation";
+    }
+
+    @Override
+    public ModerationVerdict evaluate(CommentCreatedEvent comment) {
+        History history = histories.get(comment.authorId(), authorId -> jdbcTemplate.queryForObject(HISTORY_SQL,
+                (rs, rowNum) -> new History(rs.getLong(1), rs.getLong(2)), authorId));
+        long moderated = history.approved() + history.rejected();
+        if (history.rejected() > history.approved()) {
+            return ModerationVerdict.HOLD;
+        }
+        if (history.approved() >= trustedAfter && history.rejected() <= maxRejectedShare * moderated) {
+            return ModerationVerdict.APPROVE;
+        }
+        return ModerationVerdict.ABSTAIN;
+    }
+}
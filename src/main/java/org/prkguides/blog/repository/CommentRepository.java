@@ -1,32 +1,105 @@
 package org.prkguides.blog.repository;
 
+import jakarta.persistence.LockModeType;
 import org.prkguides.blog.entity.Comment;
 import org.prkguides.blog.enums.CommentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, JpaSpecificationExecutor<Comment> {
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Comment> findWithAuthorById(Long id);
+
+    // Holds the row until commit, so concurrent moderation of one comment sees each other's status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Comment c WHERE c.id = :id")
+    Optional<Comment> findForUpdateById(@Param("id") Long id);
 
     // Find comments by post
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByPostIdAndStatusAndParentCommentIsNull(Long postId, CommentStatus status, Pageable pageable);
 
     // Find all comments by post (including replies)
     Page<Comment> findByPostIdAndStatus(Long postId, CommentStatus status, Pageable pageable);
 
     // Find comments by author
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByAuthorUsername(String username, Pageable pageable);
 
     // Find comments by status
+    @EntityGraph(attributePaths = "author")
     Page<Comment> findByStatus(CommentStatus status, Pageable pageable);
 
+    // Slice variants of the listings above, no COUNT query
+    @EntityGraph(attributePaths = "author")
+    Slice<Comment> findSliceByPostIdAndStatusAndParentCommentIsNull(Long postId, CommentStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = "author")
+    Slice<Comment> findSliceByAuthorUsername(String username, Pageable pageable);
+    @EntityGraph(attributePaths = "author")
+    Slice<Comment> findSliceByStatus(CommentStatus status, Pageable pageable);
+
+    Long countByPostIdAndStatusAndParentCommentIsNull(Long postId, CommentStatus status);
+    Long countByAuthorUsername(String username);
+
+    // Whole threads of the posts with their authors, in thread order, for building reply trees in memory
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.post.id IN :postIds AND c.status = :status " +
+            "ORDER BY c.threadPath")
+    List<Comment> findThreadsByPostIds(@Param("postIds") Collection<Long> postIds, @Param("status") CommentStatus status);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAll(Specification<Comment> spec, Sort sort);
+
+    // A comment and everything below it, in thread order; one range scan on (post_id, thread_path)
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.post.id = :postId " +
+            "AND c.threadPath LIKE CONCAT(:path, '%') AND c.status = :status ORDER BY c.threadPath")
+    List<Comment> findSubtree(@Param("postId") Long postId, @Param("path") String path, @Param("status") CommentStatus status);
+
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId AND c.threadPath LIKE CONCAT(:path, '%')")
+    long countSubtree(@Param("postId") Long postId, @Param("path") String path);
+
+    // Unlinks the subtree first, so the self-referencing foreign key doesn't depend on delete order
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Comment c SET c.parentComment = NULL WHERE c.post.id = :postId AND c.threadPath LIKE CONCAT(:path, '%')")
+    int unlinkSubtree(@Param("postId") Long postId, @Param("path") String path);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.post.id = :postId AND c.threadPath LIKE CONCAT(:path, '%')")
+    int deleteSubtree(@Param("postId") Long postId, @Param("path") String path);
+
+    // Replies below a subtree that the backfill hasn't given a path yet, as (id, post id, status) rows
+    @Query("SELECT c.id, c.post.id, c.status FROM Comment c WHERE c.post.id = :postId AND c.threadPath IS NULL " +
+            "AND c.parentComment.threadPath LIKE CONCAT(:path, '%')")
+    List<Object[]> findUnpathedReplies(@Param("postId") Long postId, @Param("path") String path);
+
+    @Query("SELECT c.id, c.post.id, c.status FROM Comment c WHERE c.threadPath IS NULL AND c.parentComment.id IN :parentIds")
+    List<Object[]> findUnpathedRepliesOf(@Param("parentIds") Collection<Long> parentIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Comment c SET c.parentComment = NULL WHERE c.id IN :ids")
+    int unlinkByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
     // Find replies to a comment
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByParentCommentIdAndStatus(Long parentCommentId, CommentStatus status, Sort sort);
 
     // Count by status
@@ -42,6 +115,11 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.status = :status AND c.createdAt >= :since")
     Long countByStatusAndCreatedAtAfter(@Param("status") CommentStatus status, @Param("since") LocalDateTime since);
 
+    // Status breakdown of a comment and all its replies, as (status, count) rows
+    @Query("SELECT c.status, COUNT(c) FROM Comment c WHERE c.post.id = :postId " +
+            "AND c.threadPath LIKE CONCAT(:path, '%') GROUP BY c.status")
+    List<Object[]> countSubtreeByStatus(@Param("postId") Long postId, @Param("path") String path);
+
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post.id = :postId AND c.status = :status")
     Long countByPostIdAndStatus(@Param("postId") Long postId, @Param("status") CommentStatus status);
 
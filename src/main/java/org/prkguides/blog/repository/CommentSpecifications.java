@@ -0,0 +1,35 @@
+package org.prkguides.blog.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.enums.CommentStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public final class CommentSpecifications {
+
+    // Parents sort before their replies, and siblings oldest first
+    public static final Sort THREAD_ORDER = Sort.by("threadPath");
+
+    private CommentSpecifications() {
+        // Utility class - prevent instantiation
+    }
+
+    public static Specification<Comment> hasStatus(CommentStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * The given comments and everything below them: one (post_id, thread_path) range per comment,
+     * OR'ed together. Every comment must have a thread path.
+     */
+    public static Specification<Comment> inSubtrees(Collection<Comment> comments) {
+        return (root, query, cb) -> cb.or(comments.stream()
+                .map(comment -> cb.and(
+                        cb.equal(root.get("post").get("id"), comment.getPost().getId()),
+                        cb.like(root.get("threadPath"), comment.getThreadPath() + "%")))
+                .toArray(Predicate[]::new));
+    }
+}
@@ -4,11 +4,14 @@ import org.prkguides.blog.entity.*;
 import org.prkguides.blog.enums.PostStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,15 +20,44 @@ public interface PostRepository extends JpaRepository<Post,Long>, JpaSpecificati
 
     Optional<Post> findBySlug(String slug);
 
+    // Listings fetch the author in the same select; tags are batch loaded per page (see Post.tags)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Post> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Post> findAll(Specification<Post> spec, Pageable pageable);
+
     // Find published posts
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
 
     // Find featured posts
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByIsFeaturedTrueAndStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
 
 //    // Find posts by author
+    @EntityGraph(attributePaths = "author")
     Page<Post> findByAuthorUsernameAndStatusOrderByPublishedDateDesc(String username, PostStatus status, Pageable pageable);
 
+    // Slice variants of the listings above, no COUNT query
+    @EntityGraph(attributePaths = "author")
+    Slice<Post> findSliceBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    Slice<Post> findSliceByStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    Slice<Post> findSliceByIsFeaturedTrueAndStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    Slice<Post> findSliceByAuthorUsernameAndStatusOrderByPublishedDateDesc(String username, PostStatus status, Pageable pageable);
+
+    // Loads a page of search hits; the caller restores the rank order
+    @EntityGraph(attributePaths = "author")
+    List<Post> findByIdIn(Collection<Long> ids);
+
 //    // Find posts by tag
 //    @Query("SELECT p FROM Post p JOIN p.tags t WHERE t.name = :tagName AND p.status = :status ORDER BY p.publishedDate DESC")
 //    Page<Post> findByTagNameAndStatus(@Param("tagName") String tagName, @Param("status") PostStatus status, Pageable pageable);
@@ -61,6 +93,7 @@ public interface PostRepository extends JpaRepository<Post,Long>, JpaSpecificati
     @Query("SELECT DISTINCT p FROM Post p JOIN p.tags t WHERE t IN " +
             "(SELECT t2 FROM Post p2 JOIN p2.tags t2 WHERE p2.id = :postId) " +
             "AND p.id != :postId AND p.status = :status ORDER BY p.publishedDate DESC")
+    @EntityGraph(attributePaths = "author")
     List<Post> findRelatedPosts(@Param("postId") Long postId, @Param("status") PostStatus status, Pageable pageable);
 
     // Increment view count
@@ -79,9 +112,15 @@ public interface PostRepository extends JpaRepository<Post,Long>, JpaSpecificati
     @Query("SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId AND p.status = :status")
     Long countByAuthorAndStatus(@Param("authorId") Long authorId, @Param("status") PostStatus status);
 
+    Long countByIsFeaturedTrueAndStatus(PostStatus status);
+    Long countByAuthorUsernameAndStatus(String username, PostStatus status);
+    Long countByTagsIdAndStatus(Long tagId, PostStatus status);
+
     // Popular posts (by view count)
-    Page<Post> findByStatusOrderByViewCountDesc(PostStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = "author")
+    List<Post> findByStatusOrderByViewCountDesc(PostStatus status, Pageable pageable);
 
     // Recent posts
-    Page<Post> findTop10ByStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = "author")
+    List<Post> findTop10ByStatusOrderByPublishedDateDesc(PostStatus status, Pageable pageable);
 }
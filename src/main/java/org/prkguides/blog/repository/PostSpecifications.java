@@ -0,0 +1,103 @@
+package org.prkguides.blog.repository;
+
+import jakarta.persistence.criteria.Join;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.utils.PostCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public final class PostSpecifications {
+
+    // Matches idx_posts_status_published_date; id breaks ties between posts published at the same instant
+    public static final Sort PUBLISHED_DATE_DESC = Sort.by(Sort.Order.desc("publishedDate"), Sort.Order.desc("id"));
+
+    private PostSpecifications() {
+        // Utility class - prevent instantiation
+    }
+
+    public static Specification<Post> hasStatus(PostStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Post> isFeatured() {
+        return (root, query, cb) -> cb.isTrue(root.get("isFeatured"));
+    }
+
+    public static Specification<Post> hasAuthor(String username) {
+        return (root, query, cb) -> {
+            Join<Post, User> author = root.join("author");
+            return cb.equal(author.get("username"), username);
+        };
+    }
+
+    public static Specification<Post> hasTag(String tagName) {
+        return (root, query, cb) -> {
+            Join<Post, Tag> tags = root.join("tags");
+            return cb.equal(tags.get("name"), tagName);
+        };
+    }
+
+    public static Specification<Post> hasTagId(Long tagId) {
+        return (root, query, cb) -> {
+            Join<Post, Tag> tags = root.join("tags");
+            return cb.equal(tags.get("id"), tagId);
+        };
+    }
+
+    public static Specification<Post> hasAnyTagId(Collection<Long> tagIds) {
+        return (root, query, cb) -> {
+            query.distinct(true);
+            Join<Post, Tag> tags = root.join("tags");
+            return tags.get("id").in(tagIds);
+        };
+    }
+
+    public static Specification<Post> hasAnyTag(Collection<String> tagNames) {
+        return (root, query, cb) -> {
+            query.distinct(true);
+            Join<Post, Tag> tags = root.join("tags");
+            return tags.get("name").in(tagNames);
+        };
+    }
+
+    // Case-insensitive substring match on title, excerpt or content; only used while the search index is loading
+    public static Specification<Post> containsText(String text) {
+        return (root, query, cb) -> {
+            String pattern = "%" + text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("excerpt")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("content")), pattern, '\\')
+            );
+        };
+    }
+
+    /**
+     * Seek predicate for (publishedDate DESC, id DESC) ordering: rows strictly after the cursor.
+     * A null cursor matches everything, i.e. the first page. Rows without a publishedDate come
+     * last, so they follow every dated cursor.
+     */
+    public static Specification<Post> publishedBefore(PostCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            if (cursor.publishedDate() == null) {
+                return cb.and(cb.isNull(root.get("publishedDate")), cb.lessThan(root.get("id"), cursor.id()));
+            }
+            return cb.or(
+                    cb.lessThan(root.get("publishedDate"), cursor.publishedDate()),
+                    cb.isNull(root.get("publishedDate")),
+                    cb.and(
+                            cb.equal(root.get("publishedDate"), cursor.publishedDate()),
+                            cb.lessThan(root.get("id"), cursor.id())
+                    )
+            );
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package org.prkguides.blog.repository;
 
 import org.prkguides.blog.entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,8 +21,8 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     @Query("SELECT t FROM Tag t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Tag> findByNameContainingIgnoreCase(@Param("query") String query);
 
-    // Get popular tags (with post count)
+    // Get popular tags (with post count); only used while the tag posting lists are loading
     @Query("SELECT t, COUNT(p) as postCount FROM Tag t LEFT JOIN t.posts p " +
             "WHERE p.status = 'PUBLISHED' GROUP BY t ORDER BY postCount DESC")
-    List<Object[]> findPopularTags();
+    List<Object[]> findPopularTags(Pageable pageable);
 }
@@ -15,4 +15,5 @@ public interface UserRepository extends JpaRepository<User,Long> {
     Boolean existsByEmail(String email);
     List<User> findByRole(Role role);
     List<User> findByIsActiveTrue();
+    Long countByIsActiveTrue();
 }
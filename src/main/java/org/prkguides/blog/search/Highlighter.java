@@ -0,0 +1,96 @@
+package org.prkguides.blog.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds a fragment of a field around the densest cluster of matched terms, with the matches
+ * wrapped in {@code <mark>}. The rest of the text is HTML-escaped, so the fragment is safe to
+ * render as is.
+ */
+public final class Highlighter {
+
+    private static final String OPEN = "<mark>";
+    private static final String CLOSE = "</mark>";
+    private static final String ELLIPSIS = "…";
+
+    private Highlighter() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * @param terms analyzed index terms to mark, as returned in {@link SearchHits#matchedTerms()}
+     * @param fragmentLength approximate length of the fragment in characters of the original text
+     * @return the fragment, or null when the text contains none of the terms
+     */
+    public static String highlight(String text, Collection<String> terms, int fragmentLength) {
+        if (text == null || text.isEmpty() || terms.isEmpty()) {
+            return null;
+        }
+
+        List<TextAnalyzer.Token> matches = TextAnalyzer.tokens(text).stream()
+                .filter(token -> terms.contains(token.term()))
+                .toList();
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        // Slide a window over the matches and keep the one covering the most of them
+        int bestFirst = 0;
+        int bestCount = 0;
+        int last = 0;
+        for (int first = 0; first < matches.size(); first++) {
+            last = Math.max(last, first);
+            while (last + 1 < matches.size() && matches.get(last + 1).end() - matches.get(first).start() <= fragmentLength) {
+                last++;
+            }
+            if (last - first + 1 > bestCount) {
+                bestCount = last - first + 1;
+                bestFirst = first;
+            }
+        }
+
+        TextAnalyzer.Token firstMatch = matches.get(bestFirst);
+        TextAnalyzer.Token lastMatch = matches.get(bestFirst + bestCount - 1);
+        int slack = Math.max(0, fragmentLength - (lastMatch.end() - firstMatch.start()));
+        int start = wordBoundaryBefore(text, Math.max(0, firstMatch.start() - slack / 3));
+        int end = wordBoundaryAfter(text, Math.min(text.length(), lastMatch.end() + slack - slack / 3));
+
+        StringBuilder fragment = new StringBuilder(end - start + 32);
+        if (start > 0) {
+            fragment.append(ELLIPSIS);
+        }
+        int position = start;
+        for (TextAnalyzer.Token match : matches) {
+            if (match.start() < start || match.end() > end) {
+                continue;
+            }
+            fragment.append(HtmlUtils.htmlEscape(text.substring(position, match.start())))
+                    .append(OPEN)
+                    .append(HtmlUtils.htmlEscape(text.substring(match.start(), match.end())))
+                    .append(CLOSE);
+            position = match.end();
+        }
+        fragment.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+        if (end < text.length()) {
+            fragment.append(ELLIPSIS);
+        }
+        return fragment.toString().strip();
+    }
+
+    private static int wordBoundaryBefore(String text, int index) {
+        while (index > 0 && Character.isLetterOrDigit(text.charAt(index - 1))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int wordBoundaryAfter(String text, int index) {
+        while (index < text.length() && Character.isLetterOrDigit(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,24 @@
+package org.prkguides.blog.search;
+
+import java.util.Collection;
+
+/**
+ * An in-memory structure derived from the posts table and kept current by {@link SearchIndexer}:
+ * single posts are updated as they change, and a bulk load rebuilds it from scratch. A post
+ * updated while a load is running keeps its live version over the loaded row.
+ */
+public interface PostIndex {
+
+    void index(SearchDocument document);
+
+    void remove(Long postId);
+
+    // Empties the index; it reports not ready until finishLoad
+    void beginLoad();
+
+    void load(Collection<SearchDocument> documents);
+
+    void finishLoad();
+
+    boolean isReady();
+}
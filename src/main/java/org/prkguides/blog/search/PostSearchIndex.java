@@ -0,0 +1,696 @@
+package org.prkguides.blog.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over post title, excerpt, content and tag names, ranked with BM25.
+ * Field weights are folded into the term frequency, so a title hit counts three content hits.
+ * Filters and sorting run on per-post metadata kept next to the postings, so a search never
+ * touches the database; the caller only loads the posts of the returned page.
+ *
+ * <p>Posts are addressed by a dense internal ordinal, and terms, tags and authors by int ids,
+ * so postings and metadata live in primitive arrays. Searches share a read lock, index
+ * updates take the write lock for the duration of one post or one load chunk.
+ */
+@Slf4j
+@Component
+public class PostSearchIndex implements PostIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 3;
+    private static final int EXCERPT_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_PREFIX_SCAN = 4096;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_AUTHOR = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Per-thread score and match buffers, reset after each search instead of reallocated
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    // Dictionaries, guarded by lock. Term ids are never reused; a term whose postings run empty stays in place.
+    private final NavigableMap<String, Integer> termIds = new TreeMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final Map<String, Integer> authorIds = new HashMap<>();
+
+    // Post metadata by ordinal, guarded by lock
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int ordinalLimit;
+    private long totalLength;
+    private long[] postIds;
+    private boolean[] live;
+    private byte[] statuses;
+    private boolean[] featured;
+    private int[] authors;
+    private int[][] tags;
+    private long[] publishedAt;
+    private long[] createdAt;
+    private int[] lengths;
+    private int[][] terms;
+
+    // Posts deleted while a bulk load is running, so the load doesn't bring them back
+    private Set<Long> removedDuringLoad;
+    private volatile boolean ready;
+
+    public PostSearchIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private record QueryTerm(String term, boolean prefix) {
+    }
+
+    /**
+     * Adds the post, or replaces what was indexed for it before.
+     */
+    @Override
+    public void index(SearchDocument document) {
+        Map<String, Integer> frequencies = termFrequencies(document);
+        lock.writeLock().lock();
+        try {
+            put(document, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(postId);
+            }
+            Integer ordinal = ordinals.remove(postId);
+            if (ordinal != null) {
+                removePostings(ordinal);
+                live[ordinal] = false;
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the index and starts a bulk load. Until {@link #finishLoad()} the index reports itself
+     * as not ready and {@link #load(Collection)} only adds posts that no concurrent update has
+     * touched meanwhile.
+     */
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            clear();
+            removedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Collection<SearchDocument> documents) {
+        List<Map<String, Integer>> frequencies = documents.stream().map(PostSearchIndex::termFrequencies).toList();
+        lock.writeLock().lock();
+        try {
+            int i = 0;
+            for (SearchDocument document : documents) {
+                // A post indexed or removed by a live update since the load began is newer than the loaded row
+                if (!ordinals.containsKey(document.id())
+                        && (removedDuringLoad == null || !removedDuringLoad.contains(document.id()))) {
+                    put(document, frequencies.get(i));
+                }
+                i++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            tagIds.clear();
+            authorIds.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            ordinalLimit = 0;
+            totalLength = 0;
+            allocate(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // False until the initial load has completed; callers fall back to the database meanwhile
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // False for unknown posts, and for every post while the index is loading
+    public boolean isPublished(Long postId) {
+        if (!ready || postId == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(postId);
+            return ordinal != null && statuses[ordinal] == PostStatus.PUBLISHED.ordinal();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchHits search(SearchQuery query) {
+        List<QueryTerm> queryTerms = parse(query.text());
+        lock.readLock().lock();
+        try {
+            int wanted = (int) Math.min(ordinals.size(), Math.max(0, (query.page() + 1L) * query.size()));
+            Filter filter = filter(query);
+            if (filter == null) {
+                return SearchHits.empty();
+            }
+
+            Ranker ranker = new Ranker(query.order(), query.ascending(), wanted);
+            if (queryTerms.isEmpty()) {
+                long total = 0;
+                for (int ordinal = 0; ordinal < ordinalLimit; ordinal++) {
+                    if (live[ordinal] && filter.matches(ordinal)) {
+                        total++;
+                        ranker.offer(ordinal, 0f);
+                    }
+                }
+                return new SearchHits(ranker.page(offset(query), query.size()), total, List.of());
+            }
+            return searchTerms(queryTerms, filter, ranker, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchHits searchTerms(List<QueryTerm> queryTerms, Filter filter, Ranker ranker, SearchQuery query) {
+        List<List<Map.Entry<String, Integer>>> expansions = new ArrayList<>(queryTerms.size());
+        for (QueryTerm queryTerm : queryTerms) {
+            List<Map.Entry<String, Integer>> expansion = expand(queryTerm);
+            if (expansion.isEmpty()) {
+                return SearchHits.empty();
+            }
+            expansions.add(expansion);
+        }
+
+        Scratch buffers = scratch.get();
+        buffers.ensureCapacity(ordinalLimit);
+        float[] scores = buffers.scores;
+        byte[] matched = buffers.matched;
+        float averageLength = ordinals.isEmpty() ? 1f : (float) totalLength / ordinals.size();
+        List<String> matchedTerms = new ArrayList<>();
+        long total = 0;
+
+        try {
+            for (int t = 0; t < expansions.size(); t++) {
+                for (Map.Entry<String, Integer> expansion : expansions.get(t)) {
+                    matchedTerms.add(expansion.getKey());
+                    score(postings.get(expansion.getValue()), t, scores, matched, averageLength);
+                }
+            }
+
+            // Every post that matched all terms appears in the postings of the last one
+            byte all = (byte) queryTerms.size();
+            for (Map.Entry<String, Integer> expansion : expansions.get(expansions.size() - 1)) {
+                Postings list = postings.get(expansion.getValue());
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    if (matched[ordinal] != all) {
+                        continue;
+                    }
+                    matched[ordinal] = (byte) (all + 1);
+                    if (filter.matches(ordinal)) {
+                        total++;
+                        ranker.offer(ordinal, scores[ordinal]);
+                    }
+                }
+            }
+        } finally {
+            // Only the first term's postings can hold a post that was touched at all
+            for (Map.Entry<String, Integer> expansion : expansions.get(0)) {
+                Postings list = postings.get(expansion.getValue());
+                for (int i = 0; i < list.size; i++) {
+                    scores[list.ordinals[i]] = 0f;
+                    matched[list.ordinals[i]] = 0;
+                }
+            }
+        }
+
+        return new SearchHits(ranker.page(offset(query), query.size()), total, matchedTerms);
+    }
+
+    private void score(Postings list, int termIndex, float[] scores, byte[] matched, float averageLength) {
+        int documentCount = ordinals.size();
+        float idf = (float) Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+        float lengthFactor = K1 * B / averageLength;
+        for (int i = 0; i < list.size; i++) {
+            int ordinal = list.ordinals[i];
+            // Skip posts that missed one of the earlier terms; terms are AND-ed
+            if (matched[ordinal] < termIndex) {
+                continue;
+            }
+            matched[ordinal] = (byte) (termIndex + 1);
+            float tf = list.frequencies[i];
+            float norm = K1 * (1 - B) + lengthFactor * lengths[ordinal];
+            scores[ordinal] += idf * tf * (K1 + 1) / (tf + norm);
+        }
+    }
+
+    private static int offset(SearchQuery query) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, (long) query.page() * query.size()));
+    }
+
+    /**
+     * Resolves the query filters to ids, or returns null when a filter names a tag or author
+     * the index has never seen and so nothing can match.
+     */
+    private Filter filter(SearchQuery query) {
+        int author = NO_AUTHOR;
+        if (query.author() != null && !query.author().isBlank()) {
+            Integer id = authorIds.get(query.author().trim().toLowerCase());
+            if (id == null) {
+                return null;
+            }
+            author = id;
+        }
+
+        int[] tagFilter = null;
+        if (query.tags() != null && !query.tags().isEmpty()) {
+            List<Integer> ids = query.tags().stream()
+                    .filter(Objects::nonNull)
+                    .map(tag -> tagIds.get(tag.trim().toLowerCase()))
+                    .toList();
+            if (query.allTags() && ids.contains(null)) {
+                return null;
+            }
+            tagFilter = ids.stream()
+                    .filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue)
+                    .distinct()
+                    .toArray();
+            if (tagFilter.length == 0) {
+                return null;
+            }
+        }
+
+        int status = query.status() != null ? query.status().ordinal() : -1;
+        return new Filter(status, query.featuredOnly(), author, tagFilter, query.allTags());
+    }
+
+    private final class Filter {
+
+        private final int status;
+        private final boolean featuredOnly;
+        private final int author;
+        private final int[] wantedTags;
+        private final boolean allTags;
+
+        Filter(int status, boolean featuredOnly, int author, int[] wantedTags, boolean allTags) {
+            this.status = status;
+            this.featuredOnly = featuredOnly;
+            this.author = author;
+            this.wantedTags = wantedTags;
+            this.allTags = allTags;
+        }
+
+        boolean matches(int ordinal) {
+            if (status >= 0 && statuses[ordinal] != status) {
+                return false;
+            }
+            if (featuredOnly && !featured[ordinal]) {
+                return false;
+            }
+            if (author != NO_AUTHOR && authors[ordinal] != author) {
+                return false;
+            }
+            if (wantedTags != null) {
+                int carried = 0;
+                for (int wanted : wantedTags) {
+                    for (int tag : tags[ordinal]) {
+                        if (tag == wanted) {
+                            carried++;
+                            break;
+                        }
+                    }
+                }
+                return allTags ? carried == wantedTags.length : carried > 0;
+            }
+            return true;
+        }
+    }
+
+    private List<Map.Entry<String, Integer>> expand(QueryTerm queryTerm) {
+        String term = queryTerm.term();
+        if (!queryTerm.prefix() || term.length() < MIN_PREFIX_LENGTH) {
+            Integer id = termIds.get(term);
+            return id == null || postings.get(id).size == 0 ? List.of() : List.of(Map.entry(term, id));
+        }
+
+        List<Map.Entry<String, Integer>> expansions = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : termIds.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            if (postings.get(entry.getValue()).size > 0) {
+                expansions.add(entry);
+            }
+            if (expansions.size() == MAX_PREFIX_SCAN) {
+                break;
+            }
+        }
+        if (expansions.size() > MAX_PREFIX_EXPANSIONS) {
+            // Keep the most common completions, plus the term itself when it exists
+            Map.Entry<String, Integer> first = expansions.get(0);
+            expansions.sort(Comparator.comparingInt((Map.Entry<String, Integer> e) -> postings.get(e.getValue()).size).reversed());
+            expansions = new ArrayList<>(expansions.subList(0, MAX_PREFIX_EXPANSIONS));
+            if (first.getKey().equals(term) && !expansions.contains(first)) {
+                expansions.set(MAX_PREFIX_EXPANSIONS - 1, first);
+            }
+        }
+        return expansions;
+    }
+
+    // The last term is matched as a prefix for search-as-you-type, as is any term written with a trailing '*'
+    private static List<QueryTerm> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<TextAnalyzer.Token> tokens = TextAnalyzer.tokens(text);
+        Map<String, Boolean> terms = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size() && terms.size() < MAX_QUERY_TERMS; i++) {
+            TextAnalyzer.Token token = tokens.get(i);
+            boolean prefix = i == tokens.size() - 1 && !Character.isWhitespace(text.charAt(text.length() - 1))
+                    || token.end() < text.length() && text.charAt(token.end()) == '*';
+            terms.merge(token.term(), prefix, Boolean::logicalAnd);
+        }
+        return terms.entrySet().stream().map(e -> new QueryTerm(e.getKey(), e.getValue())).toList();
+    }
+
+    private static Map<String, Integer> termFrequencies(SearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, document.title(), TITLE_WEIGHT);
+        addTerms(frequencies, document.excerpt(), EXCERPT_WEIGHT);
+        addTerms(frequencies, document.content(), CONTENT_WEIGHT);
+        if (document.tags() != null) {
+            document.tags().values().forEach(tag -> addTerms(frequencies, tag, TAG_WEIGHT));
+        }
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void put(SearchDocument document, Map<String, Integer> frequencies) {
+        Integer existing = ordinals.get(document.id());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            removePostings(ordinal);
+        } else {
+            ordinal = freeOrdinals.isEmpty() ? ordinalLimit++ : freeOrdinals.pop();
+            ordinals.put(document.id(), ordinal);
+            if (ordinal >= postIds.length) {
+                grow(postIds.length * 2);
+            }
+        }
+
+        int length = 0;
+        int[] documentTerms = new int[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                postings.add(new Postings());
+                return postings.size() - 1;
+            });
+            postings.get(termId).put(ordinal, entry.getValue());
+            documentTerms[i++] = termId;
+            length += entry.getValue();
+        }
+        totalLength += length;
+
+        postIds[ordinal] = document.id();
+        live[ordinal] = true;
+        statuses[ordinal] = (byte) document.status().ordinal();
+        featured[ordinal] = document.featured();
+        authors[ordinal] = document.authorUsername() != null
+                ? authorIds.computeIfAbsent(document.authorUsername().toLowerCase(), name -> authorIds.size())
+                : NO_AUTHOR;
+        tags[ordinal] = document.tags() == null ? new int[0] : document.tags().values().stream()
+                .mapToInt(tag -> tagIds.computeIfAbsent(tag.toLowerCase(), name -> tagIds.size()))
+                .distinct()
+                .toArray();
+        publishedAt[ordinal] = epochSeconds(document.publishedDate());
+        createdAt[ordinal] = epochSeconds(document.createdAt());
+        lengths[ordinal] = length;
+        terms[ordinal] = documentTerms;
+    }
+
+    private void removePostings(int ordinal) {
+        for (int termId : terms[ordinal]) {
+            postings.get(termId).remove(ordinal);
+        }
+        totalLength -= lengths[ordinal];
+        terms[ordinal] = null;
+        tags[ordinal] = null;
+    }
+
+    private void allocate(int capacity) {
+        postIds = new long[capacity];
+        live = new boolean[capacity];
+        statuses = new byte[capacity];
+        featured = new boolean[capacity];
+        authors = new int[capacity];
+        tags = new int[capacity][];
+        publishedAt = new long[capacity];
+        createdAt = new long[capacity];
+        lengths = new int[capacity];
+        terms = new int[capacity][];
+    }
+
+    private void grow(int capacity) {
+        postIds = Arrays.copyOf(postIds, capacity);
+        live = Arrays.copyOf(live, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        featured = Arrays.copyOf(featured, capacity);
+        authors = Arrays.copyOf(authors, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        publishedAt = Arrays.copyOf(publishedAt, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        terms = Arrays.copyOf(terms, capacity);
+    }
+
+    private static long epochSeconds(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MIN_VALUE : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Scratch {
+
+        private float[] scores = new float[0];
+        private byte[] matched = new byte[0];
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity + capacity / 4];
+                matched = new byte[scores.length];
+            }
+        }
+    }
+
+    /**
+     * Ordinals of the posts containing a term, ascending, with the weighted term frequency of each.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void put(int ordinal, int frequency) {
+            // Ordinals mostly arrive in increasing order, so check the tail before searching
+            int index = size > 0 && ordinals[size - 1] < ordinal ? -size - 1 : Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                frequencies[index] = frequency;
+                return;
+            }
+            index = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+            System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+            ordinals[index] = ordinal;
+            frequencies[index] = frequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Keeps the best {@code wanted} hits in a bounded binary heap whose root is the worst of
+     * them, so ranking costs O(n log k) instead of sorting every match.
+     */
+    private final class Ranker {
+
+        private final SearchQuery.Order order;
+        private final boolean ascending;
+        private final int wanted;
+        private final int[] heapOrdinals;
+        private final float[] heapScores;
+        private int size;
+
+        Ranker(SearchQuery.Order order, boolean ascending, int wanted) {
+            this.order = order != null ? order : SearchQuery.Order.RELEVANCE;
+            this.ascending = ascending;
+            this.wanted = wanted;
+            this.heapOrdinals = new int[wanted];
+            this.heapScores = new float[wanted];
+        }
+
+        void offer(int ordinal, float score) {
+            if (size < wanted) {
+                heapOrdinals[size] = ordinal;
+                heapScores[size] = score;
+                siftUp(size++);
+            } else if (wanted > 0 && compare(ordinal, score, heapOrdinals[0], heapScores[0]) < 0) {
+                heapOrdinals[0] = ordinal;
+                heapScores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<Long> page(int offset, int pageSize) {
+            offset = Math.max(0, Math.min(offset, size));
+            int end = offset + Math.max(0, Math.min(pageSize, size - offset));
+            Integer[] ranked = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                ranked[i] = i;
+            }
+            Arrays.sort(ranked, (a, b) -> compare(heapOrdinals[a], heapScores[a], heapOrdinals[b], heapScores[b]));
+
+            List<Long> ids = new ArrayList<>(end - offset);
+            for (int i = offset; i < end; i++) {
+                ids.add(postIds[heapOrdinals[ranked[i]]]);
+            }
+            return ids;
+        }
+
+        // Negative when a ranks before b
+        private int compare(int a, float scoreA, int b, float scoreB) {
+            int result = switch (order) {
+                case RELEVANCE -> {
+                    int byScore = Float.compare(scoreB, scoreA);
+                    yield byScore != 0 ? byScore : Long.compare(publishedAt[b], publishedAt[a]);
+                }
+                case PUBLISHED_DATE -> ascending
+                        ? Long.compare(publishedAt[a], publishedAt[b])
+                        : Long.compare(publishedAt[b], publishedAt[a]);
+                case CREATED_AT -> ascending
+                        ? Long.compare(createdAt[a], createdAt[b])
+                        : Long.compare(createdAt[b], createdAt[a]);
+            };
+            if (result != 0) {
+                return result;
+            }
+            return ascending && order != SearchQuery.Order.RELEVANCE
+                    ? Long.compare(postIds[a], postIds[b])
+                    : Long.compare(postIds[b], postIds[a]);
+        }
+
+        // The root holds the worst hit, so a child must never rank worse than its parent
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (compare(heapOrdinals[index], heapScores[index], heapOrdinals[parent], heapScores[parent]) <= 0) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && compare(heapOrdinals[left], heapScores[left], heapOrdinals[worst], heapScores[worst]) > 0) {
+                    worst = left;
+                }
+                if (right < size && compare(heapOrdinals[right], heapScores[right], heapOrdinals[worst], heapScores[worst]) > 0) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int ordinal = heapOrdinals[i];
+            heapOrdinals[i] = heapOrdinals[j];
+            heapOrdinals[j] = ordinal;
+            float score = heapScores[i];
+            heapScores[i] = heapScores[j];
+            heapScores[j] = score;
+        }
+    }
+}
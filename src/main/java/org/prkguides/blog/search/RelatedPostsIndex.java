@@ -0,0 +1,401 @@
+package org.prkguides.blog.search;
+
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Top-K related posts per post, ranked by weighted tag overlap with a recency decay. Each
+ * shared tag contributes an IDF-style weight, ln(1 + N / postsWithTag), so a shared niche tag
+ * counts for more than a shared catch-all one; the overlap is then halved for every
+ * half-life the candidate is older.
+ *
+ * <p>The decay is applied to the candidate's publish time, not to its age, so
+ * ln(overlap) + publishedAt * ln2 / halfLife orders candidates exactly like
+ * overlap * 0.5^(age / halfLife) at any moment: a computed list never goes stale by itself.
+ * Lists are computed on first lookup from the tag to published posts index and kept until a
+ * post change could alter them. That change only has to look at the posts sharing one of its
+ * old or new tags. Tag weights are taken as of when a list is computed.
+ */
+@Component
+public class RelatedPostsIndex implements PostIndex {
+
+    private static final double LN_2 = Math.log(2);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int topK;
+    private final double decayPerSecond;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Posts are addressed by a dense ordinal so candidate scoring runs on arrays.
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final Map<Long, Members> publishedByTag = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private Node[] byOrdinal = new Node[INITIAL_CAPACITY];
+    private int ordinalLimit;
+    private int publishedCount;
+
+    // Scratch for compute and invalidate, guarded by the write lock
+    private double[] overlaps = new double[INITIAL_CAPACITY];
+    private int[] visited = new int[INITIAL_CAPACITY];
+    private int[] touched = new int[INITIAL_CAPACITY];
+    private int visit;
+
+    private Set<Long> touchedDuringLoad;
+    private volatile boolean ready;
+
+    public RelatedPostsIndex(@Value("${blog.related.top-k:10}") int topK,
+                             @Value("${blog.related.half-life-days:180}") double halfLifeDays) {
+        this.topK = Math.max(1, topK);
+        this.decayPerSecond = LN_2 / (halfLifeDays * 86_400);
+    }
+
+    private static final class Node {
+
+        private final long id;
+        private final int ordinal;
+        private final long[] tagIds;
+        private final boolean published;
+        private final double recency;
+
+        // Best first, null until computed or after a change that may affect it
+        private long[] related;
+        private double[] scores;
+
+        Node(long id, int ordinal, long[] tagIds, boolean published, double recency) {
+            this.id = id;
+            this.ordinal = ordinal;
+            this.tagIds = tagIds;
+            this.published = published;
+            this.recency = recency;
+        }
+    }
+
+    // Ordinals of the published posts carrying one tag, unordered
+    private static final class Members {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    ordinals[i] = ordinals[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(document.id());
+            }
+            Node previous = unlist(document.id());
+            Node node = put(document);
+            invalidate(previous, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(postId);
+            }
+            Node previous = unlist(postId);
+            if (previous != null) {
+                invalidate(previous, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            nodes.clear();
+            publishedByTag.clear();
+            freeOrdinals.clear();
+            byOrdinal = new Node[INITIAL_CAPACITY];
+            ordinalLimit = 0;
+            publishedCount = 0;
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Collection<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            // Nothing is computed yet during a load, so there is nothing to invalidate
+            for (SearchDocument document : documents) {
+                if (touchedDuringLoad == null || !touchedDuringLoad.contains(document.id())) {
+                    unlist(document.id());
+                    put(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of the published posts most related to the given one, best first. Empty for a post
+     * the index doesn't know. At most the configured top-k are kept per post.
+     */
+    public List<Long> related(Long postId, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(postId);
+            if (node == null) {
+                return List.of();
+            }
+            if (node.related != null) {
+                return head(node.related, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(postId);
+            if (node == null) {
+                return List.of();
+            }
+            if (node.related == null) {
+                compute(node);
+            }
+            List<Long> related = head(node.related, limit);
+            if (!node.published) {
+                // Only published posts are reached by invalidation, so drafts aren't kept
+                node.related = null;
+                node.scores = null;
+            }
+            return related;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Node put(SearchDocument document) {
+        long[] tagIds = document.tags() == null ? new long[0]
+                : document.tags().keySet().stream().mapToLong(Long::longValue).toArray();
+        boolean published = document.status() == PostStatus.PUBLISHED;
+        int ordinal = freeOrdinals.isEmpty() ? ordinalLimit++ : freeOrdinals.pop();
+        if (ordinal >= byOrdinal.length) {
+            grow(byOrdinal.length * 2);
+        }
+
+        Node node = new Node(document.id(), ordinal, tagIds, published, recency(document.publishedDate()));
+        nodes.put(document.id(), node);
+        byOrdinal[ordinal] = node;
+        if (published) {
+            publishedCount++;
+            for (long tagId : tagIds) {
+                publishedByTag.computeIfAbsent(tagId, id -> new Members()).add(ordinal);
+            }
+        }
+        return node;
+    }
+
+    private Node unlist(Long postId) {
+        Node node = nodes.remove(postId);
+        if (node == null) {
+            return null;
+        }
+        byOrdinal[node.ordinal] = null;
+        freeOrdinals.push(node.ordinal);
+        if (node.published) {
+            publishedCount--;
+            for (long tagId : node.tagIds) {
+                Members members = publishedByTag.get(tagId);
+                if (members != null) {
+                    members.remove(node.ordinal);
+                    if (members.size == 0) {
+                        publishedByTag.remove(tagId);
+                    }
+                }
+            }
+        }
+        return node;
+    }
+
+    private void grow(int capacity) {
+        byOrdinal = Arrays.copyOf(byOrdinal, capacity);
+        overlaps = Arrays.copyOf(overlaps, capacity);
+        visited = Arrays.copyOf(visited, capacity);
+        touched = Arrays.copyOf(touched, capacity);
+    }
+
+    /**
+     * Drops the computed lists the change could alter: those that listed the post, and those
+     * it now ranks into. Only posts sharing one of its old or new tags can be either.
+     */
+    private void invalidate(Node before, Node after) {
+        long postId = before != null ? before.id : after.id;
+        visit++;
+        for (Node changed : new Node[]{before, after}) {
+            if (changed == null) {
+                continue;
+            }
+            for (long tagId : changed.tagIds) {
+                Members members = publishedByTag.get(tagId);
+                if (members == null) {
+                    continue;
+                }
+                for (int i = 0; i < members.size; i++) {
+                    int ordinal = members.ordinals[i];
+                    if (visited[ordinal] == visit) {
+                        continue;
+                    }
+                    visited[ordinal] = visit;
+                    Node other = byOrdinal[ordinal];
+                    if (other.id != postId && other.related != null && affectedBy(other, postId, after)) {
+                        other.related = null;
+                        other.scores = null;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean affectedBy(Node node, long postId, Node changed) {
+        for (long id : node.related) {
+            if (id == postId) {
+                return true;
+            }
+        }
+        if (changed == null || !changed.published) {
+            return false;
+        }
+        double overlap = overlap(node, changed);
+        if (overlap == 0) {
+            return false;
+        }
+        return node.related.length < topK
+                || Math.log(overlap) + changed.recency > node.scores[node.scores.length - 1];
+    }
+
+    private void compute(Node node) {
+        // Sum the tag weights per candidate, remembering which slots were written
+        int touchedCount = 0;
+        for (long tagId : node.tagIds) {
+            Members members = publishedByTag.get(tagId);
+            if (members == null) {
+                continue;
+            }
+            double weight = weight(members.size);
+            for (int i = 0; i < members.size; i++) {
+                int ordinal = members.ordinals[i];
+                if (ordinal == node.ordinal) {
+                    continue;
+                }
+                if (overlaps[ordinal] == 0) {
+                    touched[touchedCount++] = ordinal;
+                }
+                overlaps[ordinal] += weight;
+            }
+        }
+
+        // Best k kept sorted, best first; ties go to the newer (higher) id
+        long[] related = new long[Math.min(topK, touchedCount)];
+        double[] scores = new double[related.length];
+        int kept = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int ordinal = touched[t];
+            Node candidate = byOrdinal[ordinal];
+            double score = Math.log(overlaps[ordinal]) + candidate.recency;
+            overlaps[ordinal] = 0;
+            if (kept == related.length && !better(score, candidate.id, scores[kept - 1], related[kept - 1])) {
+                continue;
+            }
+            int i = kept < related.length ? kept++ : kept - 1;
+            while (i > 0 && better(score, candidate.id, scores[i - 1], related[i - 1])) {
+                related[i] = related[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            related[i] = candidate.id;
+            scores[i] = score;
+        }
+        node.related = related;
+        node.scores = scores;
+    }
+
+    private static boolean better(double score, long id, double otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id > otherId);
+    }
+
+    private double overlap(Node a, Node b) {
+        double overlap = 0;
+        for (long tagId : a.tagIds) {
+            for (long other : b.tagIds) {
+                if (tagId == other) {
+                    Members members = publishedByTag.get(tagId);
+                    overlap += weight(members != null ? members.size : 1);
+                    break;
+                }
+            }
+        }
+        return overlap;
+    }
+
+    private double weight(int postsWithTag) {
+        return Math.log(1 + (double) publishedCount / postsWithTag);
+    }
+
+    private double recency(LocalDateTime publishedDate) {
+        return publishedDate != null ? publishedDate.toEpochSecond(ZoneOffset.UTC) * decayPerSecond : 0;
+    }
+
+    private static List<Long> head(long[] ids, int limit) {
+        List<Long> head = new ArrayList<>(Math.min(limit, ids.length));
+        for (int i = 0; i < ids.length && i < limit; i++) {
+            head.add(ids[i]);
+        }
+        return head;
+    }
+}
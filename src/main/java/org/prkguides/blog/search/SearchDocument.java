@@ -0,0 +1,36 @@
+package org.prkguides.blog.search;
+
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.enums.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The parts of a post the search index needs: the searchable text and the fields that
+ * filters and sorting look at. Must be built while the post's tags and author are loaded.
+ *
+ * @param tags tag names by tag id
+ */
+public record SearchDocument(Long id,
+                             String title,
+                             String excerpt,
+                             String content,
+                             Map<Long, String> tags,
+                             String authorUsername,
+                             PostStatus status,
+                             boolean featured,
+                             LocalDateTime publishedDate,
+                             LocalDateTime createdAt) {
+
+    public static SearchDocument of(Post post) {
+        Map<Long, String> tags = post.getTags().stream()
+                .collect(Collectors.toMap(Tag::getId, Tag::getName));
+        return new SearchDocument(post.getId(), post.getTitle(), post.getExcerpt(), post.getContent(), tags,
+                post.getAuthor() != null ? post.getAuthor().getUsername() : null,
+                post.getStatus(), Boolean.TRUE.equals(post.getIsFeatured()),
+                post.getPublishedDate(), post.getCreatedAt());
+    }
+}
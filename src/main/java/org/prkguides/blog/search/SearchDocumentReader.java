@@ -0,0 +1,82 @@
+package org.prkguides.blog.search;
+
+import lombok.RequiredArgsConstructor;
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reads posts for the search index over plain JDBC, with the tags of a whole chunk fetched
+ * in one extra query. Going around JPA keeps the persistence context and its entity copies
+ * out of bulk loads.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDocumentReader {
+
+    private static final String SELECT_POSTS = """
+            SELECT p.id, p.title, p.excerpt, p.content, p.status, p.is_featured, p.published_date, p.created_at, u.username
+            FROM posts p JOIN users u ON u.id = p.author_id
+            """;
+
+    private static final String SELECT_TAGS = """
+            SELECT pt.post_id, t.id, t.name
+            FROM post_tags pt JOIN tags t ON t.id = pt.tag_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Up to limit posts with an id greater than afterId, in id order
+    public List<SearchDocument> readAfter(long afterId, int limit) {
+        List<SearchDocument> documents = jdbcTemplate.query(SELECT_POSTS + "WHERE p.id > :afterId ORDER BY p.id LIMIT :limit",
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), this::mapPost);
+        if (!documents.isEmpty()) {
+            readTags(documents, "WHERE pt.post_id BETWEEN :first AND :last", new MapSqlParameterSource()
+                    .addValue("first", documents.get(0).id())
+                    .addValue("last", documents.get(documents.size() - 1).id()));
+        }
+        return documents;
+    }
+
+    // The posts that still exist among the given ids
+    public List<SearchDocument> readByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        List<SearchDocument> documents = jdbcTemplate.query(SELECT_POSTS + "WHERE p.id IN (:ids)", params, this::mapPost);
+        if (!documents.isEmpty()) {
+            readTags(documents, "WHERE pt.post_id IN (:ids)", params);
+        }
+        return documents;
+    }
+
+    private void readTags(List<SearchDocument> documents, String where, MapSqlParameterSource params) {
+        Map<Long, Map<Long, String>> tagsByPost = new HashMap<>();
+        documents.forEach(document -> tagsByPost.put(document.id(), document.tags()));
+        jdbcTemplate.query(SELECT_TAGS + where, params, rs -> {
+            Map<Long, String> tags = tagsByPost.get(rs.getLong("post_id"));
+            if (tags != null) {
+                tags.put(rs.getLong("id"), rs.getString("name"));
+            }
+        });
+    }
+
+    private SearchDocument mapPost(ResultSet rs, int rowNum) throws SQLException {
+        return new SearchDocument(rs.getLong("id"), rs.getString("title"), rs.getString("excerpt"),
+                rs.getString("content"), new HashMap<>(), rs.getString("username"),
+                PostStatus.valueOf(rs.getString("status")), rs.getBoolean("is_featured"),
+                toLocalDateTime(rs.getTimestamp("published_date")), toLocalDateTime(rs.getTimestamp("created_at")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
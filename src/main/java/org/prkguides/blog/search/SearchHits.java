@@ -0,0 +1,17 @@
+package org.prkguides.blog.search;
+
+import java.util.List;
+
+/**
+ * One page of search results.
+ *
+ * @param ids post ids of the page in rank order
+ * @param totalHits number of posts matching the query and filters
+ * @param matchedTerms index terms the query matched, including prefix expansions, for highlighting
+ */
+public record SearchHits(List<Long> ids, long totalHits, List<String> matchedTerms) {
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0, List.of());
+    }
+}
@@ -0,0 +1,191 @@
+package org.prkguides.blog.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.event.PostChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the search index in step with the posts table. Committed post changes only mark the
+ * post as dirty, so writers never wait on indexing and repeated edits to the same post
+ * collapse into one entry; a scheduled drain re-reads the dirty posts in batches and applies
+ * them. Reading the committed row rather than the event payload makes the order of events
+ * irrelevant. Every {@link PostIndex} is fed from the same documents.
+ */
+@Slf4j
+@Component
+public class SearchIndexer {
+
+    private final List<PostIndex> indexes;
+    private final PostSearchIndex postSearchIndex;
+    private final SearchDocumentReader searchDocumentReader;
+
+    // Post id -> System.nanoTime() of its oldest change not yet in the index
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    // Separate from the drain's monitor, so a long reindex doesn't hold up incremental updates
+    private final Object reindexLock = new Object();
+
+    private final Timer indexLag;
+    private final Counter indexedPosts;
+    private final Counter failedBatches;
+
+    @Value("${blog.search.indexer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${blog.search.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    public SearchIndexer(List<PostIndex> indexes, PostSearchIndex postSearchIndex,
+                         SearchDocumentReader searchDocumentReader, MeterRegistry meterRegistry) {
+        this.indexes = indexes;
+        this.postSearchIndex = postSearchIndex;
+        this.searchDocumentReader = searchDocumentReader;
+        this.indexLag = Timer.builder("blog.search.index.lag")
+                .description("Time from a post change committing to it being searchable")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.indexedPosts = meterRegistry.counter("blog.search.index.updates");
+        this.failedBatches = meterRegistry.counter("blog.search.index.failures");
+        Gauge.builder("blog.search.index.pending", pending, Map::size)
+                .description("Changed posts waiting to be indexed")
+                .register(meterRegistry);
+        Gauge.builder("blog.search.index.oldest-pending", this, SearchIndexer::oldestPendingMillis)
+                .description("Age of the oldest change not yet indexed")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("blog.search.index.documents", postSearchIndex, PostSearchIndex::size)
+                .description("Posts in the search index")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        pending.putIfAbsent(event.postId(), System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${blog.search.indexer.interval-ms:250}")
+    public synchronized void drain() {
+        while (!pending.isEmpty()) {
+            Map<Long, Long> batch = takeBatch();
+            try {
+                apply(batch);
+            } catch (RuntimeException ex) {
+                // Put the batch back, keeping any newer change that arrived meanwhile
+                batch.forEach(pending::putIfAbsent);
+                failedBatches.increment();
+                log.error("Indexing {} changed posts failed, retrying on the next run", batch.size(), ex);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts a full reindex on a background thread.
+     *
+     * @return false when a reindex is already running
+     */
+    public boolean reindexAsync() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                reindex();
+            } finally {
+                reindexing.set(false);
+            }
+        }, "search-reindex");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reindexAsync();
+    }
+
+    /**
+     * Rebuilds the index from the posts table, streaming it in id-ordered chunks so memory stays
+     * bounded by one chunk. Searches fall back to the database until it completes; posts changed
+     * while it runs keep their live version.
+     */
+    public void reindex() {
+        synchronized (reindexLock) {
+            long started = System.currentTimeMillis();
+            indexes.forEach(PostIndex::beginLoad);
+            try {
+                long lastId = 0;
+                List<SearchDocument> chunk;
+                do {
+                    chunk = searchDocumentReader.readAfter(lastId, loadBatchSize);
+                    if (!chunk.isEmpty()) {
+                        for (PostIndex index : indexes) {
+                            index.load(chunk);
+                        }
+                        lastId = chunk.get(chunk.size() - 1).id();
+                    }
+                } while (chunk.size() == loadBatchSize);
+            } catch (RuntimeException ex) {
+                // Leave the index not ready so searches keep using the database
+                log.error("Search index load failed", ex);
+                return;
+            }
+            indexes.forEach(PostIndex::finishLoad);
+            log.info("Search index loaded {} posts in {} ms", postSearchIndex.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    public boolean isReindexing() {
+        return reindexing.get();
+    }
+
+    private Map<Long, Long> takeBatch() {
+        Map<Long, Long> batch = new HashMap<>();
+        Iterator<Map.Entry<Long, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Long, Long> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void apply(Map<Long, Long> batch) {
+        Set<Long> missing = new HashSet<>(batch.keySet());
+        for (SearchDocument document : searchDocumentReader.readByIds(batch.keySet())) {
+            for (PostIndex index : indexes) {
+                index.index(document);
+            }
+            missing.remove(document.id());
+        }
+        // Posts that are gone were deleted
+        missing.forEach(id -> indexes.forEach(index -> index.remove(id)));
+
+        long now = System.nanoTime();
+        batch.values().forEach(changedAt -> indexLag.record(now - changedAt, TimeUnit.NANOSECONDS));
+        indexedPosts.increment(batch.size());
+    }
+
+    private double oldestPendingMillis() {
+        long now = System.nanoTime();
+        return pending.values().stream()
+                .mapToLong(changedAt -> now - changedAt)
+                .max()
+                .orElse(0L) / 1_000_000.0;
+    }
+}
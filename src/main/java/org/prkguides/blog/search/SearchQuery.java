@@ -0,0 +1,40 @@
+package org.prkguides.blog.search;
+
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.exceptions.BadRequestException;
+
+import java.util.Set;
+
+/**
+ * A search against the post index. Null filters match everything.
+ *
+ * @param text free text, terms are AND-ed and the last one (or any ending in '*') is prefix-matched
+ * @param allTags true when the post must carry every tag, false when any of them is enough
+ */
+public record SearchQuery(String text,
+                          Set<String> tags,
+                          boolean allTags,
+                          String author,
+                          PostStatus status,
+                          boolean featuredOnly,
+                          Order order,
+                          boolean ascending,
+                          int page,
+                          int size) {
+
+    public enum Order {
+        RELEVANCE, PUBLISHED_DATE, CREATED_AT;
+
+        public static Order of(String sortBy, boolean hasText) {
+            if (sortBy == null || sortBy.isBlank()) {
+                return hasText ? RELEVANCE : PUBLISHED_DATE;
+            }
+            return switch (sortBy) {
+                case "relevance" -> RELEVANCE;
+                case "publishedDate" -> PUBLISHED_DATE;
+                case "createdAt" -> CREATED_AT;
+                default -> throw new BadRequestException("Unsupported search sort field: " + sortBy);
+            };
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package org.prkguides.blog.search;
+
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Published post ids per tag, each list kept sorted newest first by (publishedDate, id) in
+ * primitive long arrays. Tag listings are answered from here: one tag is a slice of its list,
+ * several tags are a merge (any) or leapfrog intersection (all) of their lists, and only the
+ * posts of the final page are loaded from the database.
+ *
+ * <p>The list sizes double as per-tag published post counters, and a leaderboard ordered by
+ * count is kept next to them, so tag post counts and the most used tags are read without
+ * touching the database.
+ *
+ * <p>Fed by {@link SearchIndexer} together with the full-text index, with the same bulk load
+ * protocol. Reads share a read lock, updates take the write lock for one post or one chunk.
+ */
+@Component
+public class TagPostingIndex implements PostIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Long, PostingList> postsByTag = new HashMap<>();
+    private final Map<String, Long> tagIdsByName = new HashMap<>();
+    private final Map<Long, String> tagNames = new HashMap<>();
+    private final Map<Long, Entry> publishedPosts = new HashMap<>();
+    private final NavigableSet<TagCount> leaderboard = new TreeSet<>(
+            Comparator.comparingLong(TagCount::count).reversed().thenComparing(TagCount::tagId));
+
+    private Set<Long> touchedDuringLoad;
+    private volatile boolean ready;
+
+    /**
+     * One page of a tag listing.
+     *
+     * @param ids post ids newest first
+     * @param total number of published posts matching the tags
+     */
+    public record TagPage(List<Long> ids, long total) {
+    }
+
+    public record TagCount(Long tagId, long count) {
+    }
+
+    // A published post's position in the lists and the tags it is listed under
+    private record Entry(long publishedAt, long[] tagIds) {
+    }
+
+    @Override
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(document.id());
+            }
+            put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(postId);
+            }
+            unlist(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the index and starts a bulk load; see {@link PostSearchIndex#beginLoad()}.
+     */
+    @Override
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postsByTag.clear();
+            tagIdsByName.clear();
+            tagNames.clear();
+            publishedPosts.clear();
+            leaderboard.clear();
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void load(Collection<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument document : documents) {
+                // A live update since the load began is newer than the loaded row
+                if (touchedDuringLoad == null || !touchedDuringLoad.contains(document.id())) {
+                    put(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Exact name, as the tags table compares them
+    public Optional<Long> tagId(String tagName) {
+        if (tagName == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(tagIdsByName.get(tagName));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Published posts carrying the tag
+    public long count(Long tagId) {
+        lock.readLock().lock();
+        try {
+            PostingList list = postsByTag.get(tagId);
+            return list != null ? list.size : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tags with at least one published post, most used first
+    public List<TagCount> popular(int limit) {
+        lock.readLock().lock();
+        try {
+            return leaderboard.stream().limit(limit).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param matchAll true for posts carrying every tag, false for posts carrying any of them
+     */
+    public TagPage page(Collection<Long> tagIds, boolean matchAll, long offset, int limit) {
+        offset = Math.max(0, offset);
+        limit = Math.max(0, limit);
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = lists(tagIds, matchAll);
+            if (lists.isEmpty()) {
+                return new TagPage(List.of(), 0);
+            }
+            if (lists.size() == 1) {
+                PostingList list = lists.get(0);
+                int start = (int) Math.min(list.size, offset);
+                int end = start + Math.min(limit, list.size - start);
+                List<Long> ids = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    ids.add(list.ids[i]);
+                }
+                return new TagPage(ids, list.size);
+            }
+
+            // Several tags: walk the whole merge to count it, keeping only the requested window
+            List<Long> ids = new ArrayList<>(limit);
+            long total = 0;
+            Merge merge = matchAll ? new Intersection(lists, Long.MAX_VALUE, Long.MAX_VALUE) : new Union(lists, Long.MAX_VALUE, Long.MAX_VALUE);
+            while (merge.next()) {
+                if (total >= offset && ids.size() < limit) {
+                    ids.add(merge.id());
+                }
+                total++;
+            }
+            return new TagPage(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit post ids that come strictly after the given position, for keyset pagination.
+     * A null id starts from the newest post; a null publishedDate with an id continues among the
+     * posts without a date, which come last.
+     */
+    public List<Long> after(Collection<Long> tagIds, boolean matchAll, LocalDateTime publishedDate, Long id, int limit) {
+        long afterPublished = id != null ? epochMicros(publishedDate) : Long.MAX_VALUE;
+        long afterId = id != null ? id : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = lists(tagIds, matchAll);
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(limit);
+            Merge merge = matchAll && lists.size() > 1
+                    ? new Intersection(lists, afterPublished, afterId)
+                    : new Union(lists, afterPublished, afterId);
+            while (ids.size() < limit && merge.next()) {
+                ids.add(merge.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Empty when nothing can match: no tags given, or any unknown tag under matchAll
+    private List<PostingList> lists(Collection<Long> tagIds, boolean matchAll) {
+        List<PostingList> lists = new ArrayList<>();
+        for (Long tagId : new HashSet<>(tagIds)) {
+            PostingList list = postsByTag.get(tagId);
+            if (list == null || list.size == 0) {
+                if (matchAll) {
+                    return List.of();
+                }
+            } else {
+                lists.add(list);
+            }
+        }
+        // The shortest list drives an intersection
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private void put(SearchDocument document) {
+        unlist(document.id());
+        if (document.tags() != null) {
+            document.tags().forEach(this::name);
+        }
+        if (document.status() != PostStatus.PUBLISHED || document.tags() == null || document.tags().isEmpty()) {
+            return;
+        }
+
+        long publishedAt = epochMicros(document.publishedDate());
+        long[] tagIds = document.tags().keySet().stream().mapToLong(Long::longValue).toArray();
+        for (long tagId : tagIds) {
+            PostingList list = postsByTag.computeIfAbsent(tagId, id -> new PostingList());
+            int before = list.size;
+            list.insert(publishedAt, document.id());
+            rank(tagId, before, list.size);
+        }
+        publishedPosts.put(document.id(), new Entry(publishedAt, tagIds));
+    }
+
+    private void name(Long tagId, String name) {
+        String previous = tagNames.put(tagId, name);
+        // A renamed tag no longer answers to its old name
+        if (previous != null && !previous.equals(name)) {
+            tagIdsByName.remove(previous, tagId);
+        }
+        tagIdsByName.put(name, tagId);
+    }
+
+    private void unlist(Long postId) {
+        Entry entry = publishedPosts.remove(postId);
+        if (entry == null) {
+            return;
+        }
+        for (long tagId : entry.tagIds()) {
+            PostingList list = postsByTag.get(tagId);
+            if (list != null) {
+                int before = list.size;
+                list.remove(entry.publishedAt(), postId);
+                rank(tagId, before, list.size);
+            }
+        }
+    }
+
+    private void rank(long tagId, int before, int after) {
+        if (before == after) {
+            return;
+        }
+        if (before > 0) {
+            leaderboard.remove(new TagCount(tagId, before));
+        }
+        if (after > 0) {
+            leaderboard.add(new TagCount(tagId, after));
+        }
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    // Newest first: true when (publishedA, idA) sorts before (publishedB, idB)
+    private static boolean before(long publishedA, long idA, long publishedB, long idB) {
+        return publishedA > publishedB || (publishedA == publishedB && idA > idB);
+    }
+
+    /**
+     * Parallel arrays of publish time (epoch micros) and post id, newest first.
+     */
+    private static final class PostingList {
+
+        private long[] publishedAt = new long[4];
+        private long[] ids = new long[4];
+        private int size;
+
+        void insert(long published, long id) {
+            int index = position(published, id);
+            if (size == ids.length) {
+                publishedAt = Arrays.copyOf(publishedAt, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(publishedAt, index, publishedAt, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            publishedAt[index] = published;
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long published, long id) {
+            int index = position(published, id);
+            if (index < size && publishedAt[index] == published && ids[index] == id) {
+                System.arraycopy(publishedAt, index + 1, publishedAt, index, size - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        // First index whose entry does not sort before (published, id), searching from 'from'
+        int position(long published, long id) {
+            return position(0, published, id);
+        }
+
+        int position(int from, long published, long id) {
+            int low = from;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (before(publishedAt[mid], ids[mid], published, id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First index strictly after (published, id)
+        int positionAfter(long published, long id) {
+            int index = position(published, id);
+            return index < size && publishedAt[index] == published && ids[index] == id ? index + 1 : index;
+        }
+    }
+
+    private abstract static class Merge {
+
+        protected final List<PostingList> lists;
+        protected final int[] positions;
+        protected long id;
+
+        Merge(List<PostingList> lists, long afterPublished, long afterId) {
+            this.lists = lists;
+            this.positions = new int[lists.size()];
+            if (afterPublished != Long.MAX_VALUE || afterId != Long.MAX_VALUE) {
+                for (int i = 0; i < lists.size(); i++) {
+                    positions[i] = lists.get(i).positionAfter(afterPublished, afterId);
+                }
+            }
+        }
+
+        abstract boolean next();
+
+        long id() {
+            return id;
+        }
+    }
+
+    // Posts on any of the lists, each once
+    private static final class Union extends Merge {
+
+        Union(List<PostingList> lists, long afterPublished, long afterId) {
+            super(lists, afterPublished, afterId);
+        }
+
+        @Override
+        boolean next() {
+            int best = -1;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                int p = positions[i];
+                if (p < list.size && (best < 0 || before(list.publishedAt[p], list.ids[p],
+                        lists.get(best).publishedAt[positions[best]], lists.get(best).ids[positions[best]]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return false;
+            }
+            PostingList winner = lists.get(best);
+            long published = winner.publishedAt[positions[best]];
+            id = winner.ids[positions[best]];
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                if (positions[i] < list.size && list.publishedAt[positions[i]] == published && list.ids[positions[i]] == id) {
+                    positions[i]++;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Posts on every list: each list seeks forward to the furthest candidate until all agree
+    private static final class Intersection extends Merge {
+
+        Intersection(List<PostingList> lists, long afterPublished, long afterId) {
+            super(lists, afterPublished, afterId);
+        }
+
+        @Override
+        boolean next() {
+            PostingList first = lists.get(0);
+            if (positions[0] >= first.size) {
+                return false;
+            }
+            long published = first.publishedAt[positions[0]];
+            long candidate = first.ids[positions[0]];
+
+            int agreeing = 1;
+            int i = 1;
+            while (agreeing < lists.size()) {
+                PostingList list = lists.get(i);
+                positions[i] = list.position(positions[i], published, candidate);
+                if (positions[i] >= list.size) {
+                    return false;
+                }
+                int p = positions[i];
+                if (list.publishedAt[p] == published && list.ids[p] == candidate) {
+                    agreeing++;
+                } else {
+                    // This list has nothing at the candidate; its next post becomes the candidate
+                    published = list.publishedAt[p];
+                    candidate = list.ids[p];
+                    agreeing = 1;
+                }
+                i = (i + 1) % lists.size();
+            }
+
+            id = candidate;
+            for (int j = 0; j < lists.size(); j++) {
+                PostingList list = lists.get(j);
+                positions[j] = list.position(positions[j], published, candidate) + 1;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.prkguides.blog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into index terms: runs of letters and digits, lower-cased and stripped of
+ * accents, with common English stop words dropped. Indexing and querying must go through
+ * the same analyzer or terms won't line up.
+ */
+public final class TextAnalyzer {
+
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+            "there", "these", "they", "this", "to", "was", "will", "with");
+
+    /**
+     * A term together with where it was found in the original text.
+     */
+    public record Token(String term, int start, int end) {
+    }
+
+    private TextAnalyzer() {
+        // Utility class - prevent instantiation
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, token -> terms.add(token.term()));
+        return terms;
+    }
+
+    // Distinct terms in order of first appearance
+    public static List<String> distinctTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(text, token -> terms.add(token.term()));
+        return new ArrayList<>(terms);
+    }
+
+    public static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        tokenize(text, tokens::add);
+        return tokens;
+    }
+
+    public static String normalize(String word) {
+        String lower = word.toLowerCase();
+        if (isAscii(lower)) {
+            return lower;
+        }
+        return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static void tokenize(String text, Consumer<Token> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start < i && i - start <= MAX_TERM_LENGTH) {
+                String term = normalize(text.substring(start, i));
+                if (!STOP_WORDS.contains(term)) {
+                    consumer.accept(new Token(term, start, i));
+                }
+            }
+        }
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,9 +1,13 @@
 package org.prkguides.blog.security;
 
 import lombok.RequiredArgsConstructor;
+import org.prkguides.blog.cache.AfterCommit;
 import org.prkguides.blog.entity.User;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
 import org.prkguides.blog.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,7 +18,10 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String PRINCIPAL_CACHE = "user-principals";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
@@ -32,4 +39,32 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Principal for a request whose token has already been verified. Cached per username for
+     * a short time so authenticated requests don't hit the users table; the password hash is
+     * only needed at login and is left out of the cached copy.
+     */
+    @Cacheable(value = PRINCIPAL_CACHE, key = "#username")
+    public UserPrincipal loadAuthenticatedPrincipal(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        principal.setPassword(null);
+        return principal;
+    }
+
+    /**
+     * Drops the cached principal once the current transaction commits. Called whenever a
+     * user's role, active flag, password or profile changes, or the user is deleted.
+     */
+    public void evictPrincipal(String username) {
+        AfterCommit.run(() -> {
+            Cache cache = cacheManager.getCache(PRINCIPAL_CACHE);
+            if (cache != null) {
+                cache.evict(username);
+            }
+        });
+    }
 }
@@ -1,15 +1,29 @@
 package org.prkguides.blog.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -21,20 +35,51 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.expiration}")
     private long jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${blog.jwt.claims-cache.max-entries:10000}")
+    private long claimsCacheMaxEntries;
+
+    // Put the user id and roles into issued tokens so requests can be authenticated without a user lookup
+    @Value("${blog.jwt.embed-authorities:false}")
+    private boolean embedAuthorities;
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Token digest -> verified claims, each entry expires together with its token
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxEntries)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     public String generateToken(Authentication authentication){
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(expiryDate);
+
+        if (embedAuthorities && userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(USER_ID_CLAIM, principal.getId())
+                    .claim(ROLES_CLAIM, principal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList());
+        }
+
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
     public String generateTokenFromUsername(String username) {
@@ -44,27 +89,30 @@ public class JwtTokenProvider {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token and returns its claims, or empty when the token is invalid or expired.
+     * A token that was verified before is served from the claims cache without parsing it again.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            log.error("JWT claims string is empty");
+            return Optional.empty();
+        }
 
-        return claims.getSubject();
-    }
+        String digest = digest(token);
+        Claims cached = claimsCache.getIfPresent(digest);
+        if (cached != null && !isExpired(cached)) {
+            return Optional.of(cached);
+        }
 
-    public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            claimsCache.put(digest, claims);
+            return Optional.of(claims);
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -76,21 +124,83 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Builds the principal from a token issued with embedded authorities. Empty when the mode
+     * is off or the token predates it, in which case the caller looks the user up instead.
+     * Role changes only reach these tokens once they expire.
+     */
+    public Optional<UserPrincipal> principalFromClaims(Claims claims) {
+        if (!embedAuthorities
+                || !(claims.get(ROLES_CLAIM) instanceof List<?> roles)
+                || !(claims.get(USER_ID_CLAIM) instanceof Number userId)) {
+            return Optional.empty();
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return Optional.of(new UserPrincipal(userId.longValue(), null, null,
+                claims.getSubject(), null, null, authorities));
+    }
+
+    public String getUsernameFromToken(String token) {
+        return verifiedClaims(token).getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken).isPresent();
+    }
 
-        return claims.getExpiration();
+    public Date getExpirationDateFromToken(String token) {
+        return verifiedClaims(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
         Date expiration = getExpirationDateFromToken(token);
         return expiration.before(new Date());
     }
+
+    private Claims verifiedClaims(String token) {
+        return parseClaims(token).orElseThrow(() -> new MalformedJwtException("Invalid JWT token"));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        private static final long NO_EXPIRATION_NANOS = TimeUnit.HOURS.toNanos(1);
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return NO_EXPIRATION_NANOS;
+            }
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
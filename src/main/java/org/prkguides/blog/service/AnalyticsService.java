@@ -10,5 +10,5 @@ public interface AnalyticsService {
     Map<String, Object> getContentPerformance(int days);
     Map<String, Object> getTagAnalytics();
     Map<String, Object> getPopularContent(String period, int limit);
-    void trackPageView(String page, String referrer, String userAgent);
+    void trackPageView(String page, Long postId, String referrer, String userAgent);
 }
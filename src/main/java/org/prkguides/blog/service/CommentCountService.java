@@ -0,0 +1,35 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.enums.CommentStatus;
+
+import java.util.Map;
+
+public interface CommentCountService {
+
+    record CountDelta(long approved, long pending) {
+
+        public CountDelta plus(CountDelta other) {
+            return new CountDelta(approved + other.approved, pending + other.pending);
+        }
+    }
+
+    /**
+     * Moves one comment between the post's counters, in the caller's transaction.
+     *
+     * @param from status before the change, or null for a new comment
+     * @param to status after the change, or null for a deleted comment
+     */
+    void statusChanged(Long postId, CommentStatus from, CommentStatus to);
+
+    // Adds the given deltas to the post's approved and pending counters
+    void adjust(Long postId, long approvedDelta, long pendingDelta);
+
+    // Same for many posts, in one JDBC batch
+    void adjust(Map<Long, CountDelta> deltasByPost);
+
+    // Recounts one post's comments into its counters
+    void reconcile(Long postId);
+
+    // Recounts every post in id-range chunks, writing only those that drifted; returns how many were repaired
+    int reconcile();
+}
@@ -0,0 +1,25 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.dto.BulkModerationResultDto;
+import org.prkguides.blog.dto.CommentBulkModerationDto;
+import org.prkguides.blog.enums.ModerationAction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface CommentModerationService {
+
+    // Either the listed comments or the pending ones matching the filter, in one transaction
+    BulkModerationResultDto moderate(ModerationAction action, CommentBulkModerationDto request);
+
+    // Returns how many comments changed status or were deleted, replies of deleted comments included
+    int moderate(ModerationAction action, Collection<Long> ids);
+
+    // Approves or rejects those of the given comments still pending with the content they were judged on,
+    // leaving any a moderator already decided or the author edited since
+    int moderateIfPending(ModerationAction action, Map<Long, String> contentById);
+
+    // Pending comments created before the cutoff, on one post or all of them when postId is null
+    int moderatePending(ModerationAction action, LocalDateTime createdBefore, Long postId);
+}
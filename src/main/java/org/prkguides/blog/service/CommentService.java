@@ -1,6 +1,7 @@
 package org.prkguides.blog.service;
 
 import org.prkguides.blog.dto.*;
+import org.prkguides.blog.enums.CountMode;
 
 import java.util.List;
 
@@ -17,9 +18,9 @@ public interface CommentService {
     List<CommentDto> getCommentReplies(Long commentId);
 
     // Listing and pagination
-    PaginationResponse<CommentDto> getCommentsByPost(Long postId, int pageNo, int pageSize);
-    PaginationResponse<CommentDto> getCommentsByUser(String username, int pageNo, int pageSize);
-    PaginationResponse<CommentDto> getPendingComments(int pageNo, int pageSize);
+    PaginationResponse<CommentDto> getCommentsByPost(Long postId, int pageNo, int pageSize, CountMode countMode);
+    PaginationResponse<CommentDto> getCommentsByUser(String username, int pageNo, int pageSize, CountMode countMode);
+    PaginationResponse<CommentDto> getPendingComments(int pageNo, int pageSize, CountMode countMode);
 
     // Moderation
     CommentDto approveComment(Long id);
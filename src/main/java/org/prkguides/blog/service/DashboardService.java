@@ -0,0 +1,9 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.dto.DashboardStatsDto;
+
+public interface DashboardService {
+
+    // Cached for a few seconds; a miss costs one grouped count query plus the rollup and trending reads
+    DashboardStatsDto getDashboardStats();
+}
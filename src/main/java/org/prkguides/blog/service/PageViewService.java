@@ -0,0 +1,18 @@
+package org.prkguides.blog.service;
+
+import java.time.LocalDateTime;
+
+public interface PageViewService {
+
+    record PageViewEvent(String page, Long postId, String referrer, String userAgent, LocalDateTime viewedAt) {
+    }
+
+    // Queues the view for the next batch insert; false if the queue was full and it was dropped
+    boolean record(PageViewEvent event);
+
+    // Writes the queued views to page_views, returns how many were written
+    int flush();
+
+    // Deletes page views past the retention, returns how many were deleted
+    int prune();
+}
@@ -1,8 +1,12 @@
 package org.prkguides.blog.service;
 
 import org.prkguides.blog.dto.*;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.enums.TagMatch;
+import org.prkguides.blog.enums.TrendingWindow;
 
 import java.util.List;
+import java.util.Set;
 
 public interface PostService {
 
@@ -14,18 +18,29 @@ public interface PostService {
     void deletePost(Long id);
 
     // Listing and pagination
-    PaginationResponse<PostSummaryDto> getAllPosts(int pageNo, int pageSize);
-    PaginationResponse<PostSummaryDto> getPublishedPosts(int pageNo, int pageSize);
-    PaginationResponse<PostSummaryDto> getFeaturedPosts(int pageNo, int pageSize);
-    PaginationResponse<PostSummaryDto> getPostsByAuthor(String username, int pageNo, int pageSize);
+    PaginationResponse<PostSummaryDto> getAllPosts(int pageNo, int pageSize, CountMode countMode);
+    PaginationResponse<PostSummaryDto> getPublishedPosts(int pageNo, int pageSize, CountMode countMode);
+    PaginationResponse<PostSummaryDto> getFeaturedPosts(int pageNo, int pageSize, CountMode countMode);
+    PaginationResponse<PostSummaryDto> getPostsByAuthor(String username, int pageNo, int pageSize, CountMode countMode);
     PaginationResponse<PostSummaryDto> getPostsByTag(String tagName, int pageNo, int pageSize);
+    PaginationResponse<PostSummaryDto> getPostsByTagIds(Set<Long> tagIds, TagMatch tagMatch, int pageNo, int pageSize);
+
+    // Keyset (cursor) pagination, ordered by publishedDate then id, without a count query
+    CursorPageResponse<PostSummaryDto> getPublishedPostsAfter(String cursor, int pageSize);
+    CursorPageResponse<PostSummaryDto> getFeaturedPostsAfter(String cursor, int pageSize);
+    CursorPageResponse<PostSummaryDto> getPostsByAuthorAfter(String username, String cursor, int pageSize);
+    CursorPageResponse<PostSummaryDto> getPostsByTagAfter(String tagName, String cursor, int pageSize);
 
     // Search functionality
     PaginationResponse<PostSummaryDto> searchPosts(SearchRequestDto searchRequest);
 
+    // Starts a full rebuild of the search index in the background; false if one is already running
+    boolean reindexSearch();
+
     // Related and popular content
     List<PostSummaryDto> getRelatedPosts(Long postId, int limit);
     List<PostSummaryDto> getPopularPosts(int limit);
+    List<PostSummaryDto> getTrendingPosts(TrendingWindow window, int limit);
     List<PostSummaryDto> getRecentPosts(int limit);
 
     // View tracking
@@ -0,0 +1,40 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.enums.RollupDimension;
+import org.prkguides.blog.enums.RollupMetric;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RollupService {
+
+    record RollupDay(LocalDate date, long views, long comments) {
+    }
+
+    record RollupHour(LocalDateTime hour, long views, long comments) {
+    }
+
+    record RollupEntry(Long dimensionId, long views, long comments) {
+    }
+
+    // Counted in memory against the current hour; reaches the rollup tables on the next flush
+    void recordView(Long postId);
+    void recordComment(Long postId);
+    void recordComments(Long postId, long count);
+
+    // Writes the counted events to the hourly and daily rollups of the post, its author, its tags and the site
+    void flush();
+
+    // Drops hourly rows past the retention, their counts stay in the daily rollup
+    int compact();
+
+    // One entry per day of the window (at most 366 days), oldest first and today last, zeros included
+    List<RollupDay> daily(RollupDimension dimension, Long dimensionId, int days);
+
+    // One entry per hour still kept, oldest first
+    List<RollupHour> hourly(RollupDimension dimension, Long dimensionId, int hours);
+
+    // Dimension ids with the most views or comments over the window (at most 366 days), best first
+    List<RollupEntry> top(RollupDimension dimension, RollupMetric metric, int days, int limit);
+}
@@ -0,0 +1,24 @@
+package org.prkguides.blog.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SiteStatsService {
+
+    record AuthorStats(Long authorId, String username, long publishedPosts, long views) {
+    }
+
+    record SiteStats(long totalViews, long totalPosts, long publishedPosts, long draftPosts, long scheduledPosts,
+                     long publishedViews, List<AuthorStats> authors, LocalDateTime refreshedAt) {
+
+        public double averageViewsPerPost() {
+            return publishedPosts == 0 ? 0.0 : (double) publishedViews / publishedPosts;
+        }
+    }
+
+    // Last snapshot of the site totals; no database work unless none was taken yet
+    SiteStats getStats();
+
+    // Recomputes the snapshot with one aggregate query per figure
+    SiteStats refresh();
+}
@@ -0,0 +1,20 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.enums.TrendingWindow;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    record TrendingPost(Long postId, double score, long viewsLastHour) {
+    }
+
+    // Records a view in the post's current bucket; scores pick it up when the bucket closes
+    void recordView(Long postId);
+
+    // Best first, at most the configured top-n per window
+    List<TrendingPost> top(TrendingWindow window, int limit);
+
+    // Closes the current bucket, decays the scores and rebuilds the per-window leaders
+    void roll();
+}
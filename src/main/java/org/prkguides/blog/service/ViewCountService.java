@@ -0,0 +1,19 @@
+package org.prkguides.blog.service;
+
+import org.prkguides.blog.entity.Post;
+
+public interface ViewCountService {
+
+    // Records a view in memory; the delta reaches the posts table on the next flush
+    void increment(Long postId);
+
+    // Views recorded for the post that have not been flushed yet
+    long getPendingViews(Long postId);
+    long getTotalPendingViews();
+
+    // Persisted count plus the views still buffered in memory
+    long currentViewCount(Post post);
+
+    // Writes all accumulated deltas to the database
+    void flush();
+}
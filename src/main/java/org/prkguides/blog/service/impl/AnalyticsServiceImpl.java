@@ -3,21 +3,36 @@ package org.prkguides.blog.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.entity.User;
 import org.prkguides.blog.enums.CommentStatus;
 import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.RollupDimension;
+import org.prkguides.blog.enums.RollupMetric;
+import org.prkguides.blog.enums.TrendingWindow;
 import org.prkguides.blog.repository.CommentRepository;
 import org.prkguides.blog.repository.PostRepository;
 import org.prkguides.blog.repository.TagRepository;
 import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.search.PostSearchIndex;
 import org.prkguides.blog.service.AnalyticsService;
+import org.prkguides.blog.service.PageViewService;
+import org.prkguides.blog.service.RollupService;
+import org.prkguides.blog.service.SiteStatsService;
+import org.prkguides.blog.service.TagService;
+import org.prkguides.blog.service.TrendingService;
+import org.prkguides.blog.service.ViewCountService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,6 +45,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     private final CommentRepository commentRepository;
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
+    private final ViewCountService viewCountService;
+    private final TagService tagService;
+    private final TrendingService trendingService;
+    private final PageViewService pageViewService;
+    private final RollupService rollupService;
+    private final SiteStatsService siteStatsService;
+    private final PostSearchIndex postSearchIndex;
 
     @Override
     public Map<String, Object> getPostAnalytics(Long postId, int days) {
@@ -40,15 +62,20 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         analytics.put("postId", postId);
         analytics.put("title", post.getTitle());
-        analytics.put("viewCount", post.getViewCount());
-        analytics.put("commentCount", commentRepository.countByPostIdAndStatus(postId, CommentStatus.APPROVED));
+        analytics.put("viewCount", viewCountService.currentViewCount(post));
+        analytics.put("commentCount", approvedComments(post));
         analytics.put("publishedDate", post.getPublishedDate());
         analytics.put("author", post.getAuthor().getUsername());
         analytics.put("tags", post.getTags().stream().map(tag -> tag.getName()).collect(Collectors.toList()));
 
-        // Additional metrics would be implemented based on your tracking system
-        analytics.put("dailyViews", getDailyViewsForPost(postId, days));
-        analytics.put("engagementRate", calculateEngagementRate(postId));
+        List<RollupService.RollupDay> daily = rollupService.daily(RollupDimension.POST, postId, days);
+        analytics.put("viewsInPeriod", daily.stream().mapToLong(RollupService.RollupDay::views).sum());
+        analytics.put("commentsInPeriod", daily.stream().mapToLong(RollupService.RollupDay::comments).sum());
+        analytics.put("dailyViews", daily.stream().map(RollupService.RollupDay::views).collect(Collectors.toList()));
+        analytics.put("hourlyViews", rollupService.hourly(RollupDimension.POST, postId, 24).stream()
+                .map(RollupService.RollupHour::views)
+                .collect(Collectors.toList()));
+        analytics.put("engagementRate", calculateEngagementRate(post));
 
         return analytics;
     }
@@ -56,7 +83,6 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     @Override
     public Map<String, Object> getTrafficAnalytics(int days) {
         Map<String, Object> analytics = new HashMap<>();
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
 
         // Basic traffic metrics
         analytics.put("period", days + " days");
@@ -64,17 +90,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         analytics.put("totalViews", getTotalViews());
         analytics.put("averageViewsPerPost", getAverageViewsPerPost());
 
-        // Top performing posts
-        List<Post> topPosts = postRepository.findByStatusOrderByViewCountDesc(
-                PostStatus.PUBLISHED, PageRequest.of(0, 10)).getContent();
-        analytics.put("topPosts", topPosts.stream()
-                .map(post -> Map.of(
-                        "id", post.getId(),
-                        "title", post.getTitle(),
-                        "viewCount", post.getViewCount(),
-                        "slug", post.getSlug()
-                ))
-                .collect(Collectors.toList()));
+        // Views over the period, from the site rollup
+        List<RollupService.RollupDay> daily = rollupService.daily(RollupDimension.SITE, 0L, days);
+        analytics.put("viewsInPeriod", daily.stream().mapToLong(RollupService.RollupDay::views).sum());
+        analytics.put("dailyViews", daily.stream().map(RollupService.RollupDay::views).collect(Collectors.toList()));
+
+        // Top performing posts over the period
+        analytics.put("topPosts", topPosts(rollupService.top(RollupDimension.POST, RollupMetric.VIEWS, days, 10)));
 
         return analytics;
     }
@@ -88,9 +110,8 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         analytics.put("pendingComments", commentRepository.countByStatus(CommentStatus.PENDING));
         analytics.put("recentComments", commentRepository.countByStatusAndCreatedAtAfter(CommentStatus.APPROVED, startDate));
 
-        // Comment engagement by post
-        List<Object[]> commentsByPost = getCommentCountByPost();
-        analytics.put("commentsByPost", commentsByPost);
+        // Comment engagement by post, approvals over the period
+        analytics.put("commentsByPost", topPosts(rollupService.top(RollupDimension.POST, RollupMetric.COMMENTS, days, 10)));
 
         return analytics;
     }
@@ -108,15 +129,26 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         List<Object[]> authorStats = getAuthorPerformanceStats();
         analytics.put("authorPerformance", authorStats);
 
+        // Authors and tags drawing the most views over the period
+        List<RollupService.RollupEntry> topAuthors = rollupService.top(RollupDimension.AUTHOR, RollupMetric.VIEWS, days, 10);
+        Map<Long, String> usernames = userRepository.findAllById(ids(topAuthors)).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+        analytics.put("topAuthors", named(topAuthors, usernames));
+
+        List<RollupService.RollupEntry> topTags = rollupService.top(RollupDimension.TAG, RollupMetric.VIEWS, days, 10);
+        Map<Long, String> tagNames = tagRepository.findAllById(ids(topTags)).stream()
+                .collect(Collectors.toMap(Tag::getId, Tag::getName));
+        analytics.put("topTags", named(topTags, tagNames));
+
         // Recent content
         List<Post> recentPosts = postRepository.findTop10ByStatusOrderByPublishedDateDesc(
-                PostStatus.PUBLISHED, PageRequest.of(0, 10)).getContent();
+                PostStatus.PUBLISHED, PageRequest.of(0, 10));
         analytics.put("recentPosts", recentPosts.stream()
                 .map(post -> Map.of(
                         "id", post.getId(),
                         "title", post.getTitle(),
                         "publishedDate", post.getPublishedDate(),
-                        "viewCount", post.getViewCount()
+                        "viewCount", viewCountService.currentViewCount(post)
                 ))
                 .collect(Collectors.toList()));
 
@@ -129,15 +161,16 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         analytics.put("totalTags", tagRepository.count());
 
-        // Popular tags
-        List<Object[]> popularTags = tagRepository.findPopularTags();
-        analytics.put("popularTags", popularTags.stream()
-                .limit(20)
-                .map(result -> Map.of(
-                        "name", ((org.prkguides.blog.entity.Tag) result[0]).getName(),
-                        "postCount", result[1],
-                        "color", ((org.prkguides.blog.entity.Tag) result[0]).getColor()
-                ))
+        // Popular tags, from the maintained leaderboard
+        analytics.put("popularTags", tagService.getPopularTags(20).stream()
+                .map(tag -> {
+                    // color is optional, so not Map.of
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("name", tag.getName());
+                    entry.put("postCount", tag.getPostCount());
+                    entry.put("color", tag.getColor());
+                    return entry;
+                })
                 .collect(Collectors.toList()));
 
         return analytics;
@@ -145,87 +178,109 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     @Override
     public Map<String, Object> getPopularContent(String period, int limit) {
+        TrendingWindow window = TrendingWindow.of(period);
         Map<String, Object> popular = new HashMap<>();
-
-        // Most viewed posts
-        List<Post> popularPosts = postRepository.findByStatusOrderByViewCountDesc(
-                PostStatus.PUBLISHED, PageRequest.of(0, limit)).getContent();
-
-        popular.put("posts", popularPosts.stream()
-                .map(post -> Map.of(
-                        "id", post.getId(),
-                        "title", post.getTitle(),
-                        "slug", post.getSlug(),
-                        "viewCount", post.getViewCount(),
-                        "author", post.getAuthor().getUsername()
-                ))
+        popular.put("period", window.getDisplayName());
+
+        // Posts ranked by views decayed over the period, not by lifetime view count
+        List<TrendingService.TrendingPost> trending = trendingService.top(window, limit);
+        Map<Long, Post> posts = postRepository.findByIdIn(trending.stream()
+                        .map(TrendingService.TrendingPost::postId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        popular.put("posts", trending.stream()
+                .filter(entry -> posts.containsKey(entry.postId())
+                        && PostStatus.PUBLISHED.equals(posts.get(entry.postId()).getStatus()))
+                .map(entry -> {
+                    Post post = posts.get(entry.postId());
+                    return Map.of(
+                            "id", post.getId(),
+                            "title", post.getTitle(),
+                            "slug", post.getSlug(),
+                            "viewCount", viewCountService.currentViewCount(post),
+                            "viewsLastHour", entry.viewsLastHour(),
+                            "trendingScore", entry.score(),
+                            "author", post.getAuthor().getUsername()
+                    );
+                })
                 .collect(Collectors.toList()));
 
         return popular;
     }
 
     @Override
-    @Transactional
-    public void trackPageView(String page, String referrer, String userAgent) {
-        // This is a placeholder for actual analytics tracking
-        // In a real application, you might store this in a separate analytics table
-        // or send to an external analytics service
-        log.info("Page view tracked: {} from referrer: {}", page, referrer);
-    }
-
-    private List<Integer> getDailyViewsForPost(Long postId, int days) {
-        // This would typically come from a detailed analytics table
-        // For now, return dummy data - implement based on your tracking needs
-        return List.of(10, 15, 8, 22, 18, 12, 25); // Sample data
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Only queues, so no connection is taken
+    public void trackPageView(String page, Long postId, String referrer, String userAgent) {
+        pageViewService.record(new PageViewService.PageViewEvent(page, postId, referrer, userAgent, LocalDateTime.now()));
+        // The endpoint is public, so only published posts may reach the trending scores and rollups
+        if (postSearchIndex.isPublished(postId)) {
+            trendingService.recordView(postId);
+            rollupService.recordView(postId);
+        }
     }
 
-    private double calculateEngagementRate(Long postId) {
-        Post post = postRepository.findById(postId).orElse(null);
-        if (post == null || post.getViewCount() == 0) {
+    private double calculateEngagementRate(Post post) {
+        long views = viewCountService.currentViewCount(post);
+        if (views == 0) {
             return 0.0;
         }
+        return ((double) approvedComments(post) / views) * 100;
+    }
 
-        Long commentCount = commentRepository.countByPostIdAndStatus(postId, CommentStatus.APPROVED);
-        return (commentCount.doubleValue() / post.getViewCount()) * 100;
+    // From the counter on the post row, kept by CommentCountService
+    private static long approvedComments(Post post) {
+        return post.getApprovedCommentCount() != null ? post.getApprovedCommentCount() : 0;
     }
 
+    // From the site stats snapshot, plus the views not flushed to the posts table yet
     private Long getTotalViews() {
-        List<Post> allPosts = postRepository.findAll();
-        return allPosts.stream()
-                .mapToLong(post -> post.getViewCount() != null ? post.getViewCount() : 0L)
-                .sum();
+        return siteStatsService.getStats().totalViews() + viewCountService.getTotalPendingViews();
     }
 
     private Double getAverageViewsPerPost() {
-        List<Post> publishedPosts = postRepository.findAll().stream()
-                .filter(post -> PostStatus.PUBLISHED.equals(post.getStatus()))
-                .collect(Collectors.toList());
-
-        if (publishedPosts.isEmpty()) {
-            return 0.0;
-        }
+        return siteStatsService.getStats().averageViewsPerPost();
+    }
 
-        long totalViews = publishedPosts.stream()
-                .mapToLong(post -> post.getViewCount() != null ? post.getViewCount() : 0L)
-                .sum();
+    // Rollup entries joined with their posts; posts deleted since are left out
+    private List<Map<String, Object>> topPosts(List<RollupService.RollupEntry> entries) {
+        Map<Long, Post> posts = postRepository.findByIdIn(ids(entries)).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return entries.stream()
+                .filter(entry -> posts.containsKey(entry.dimensionId()))
+                .map(entry -> {
+                    Post post = posts.get(entry.dimensionId());
+                    return Map.<String, Object>of(
+                            "id", post.getId(),
+                            "title", post.getTitle(),
+                            "slug", post.getSlug(),
+                            "viewCount", viewCountService.currentViewCount(post),
+                            "viewsInPeriod", entry.views(),
+                            "commentsInPeriod", entry.comments()
+                    );
+                })
+                .collect(Collectors.toList());
+    }
 
-        return (double) totalViews / publishedPosts.size();
+    private List<Map<String, Object>> named(List<RollupService.RollupEntry> entries, Map<Long, String> names) {
+        return entries.stream()
+                .filter(entry -> names.containsKey(entry.dimensionId()))
+                .map(entry -> Map.<String, Object>of(
+                        "id", entry.dimensionId(),
+                        "name", names.get(entry.dimensionId()),
+                        "viewsInPeriod", entry.views(),
+                        "commentsInPeriod", entry.comments()
+                ))
+                .collect(Collectors.toList());
     }
 
-    private List<Object[]> getCommentCountByPost() {
-        // This would typically be a custom query
-        // For now, return basic data structure
-        return List.of();
+    private static List<Long> ids(List<RollupService.RollupEntry> entries) {
+        return entries.stream().map(RollupService.RollupEntry::dimensionId).collect(Collectors.toList());
     }
 
     private List<Object[]> getAuthorPerformanceStats() {
-        // This would be a complex query showing author statistics
-        return userRepository.findAll().stream()
-                .map(user -> new Object[]{
-                        user.getUsername(),
-                        postRepository.countByAuthorAndStatus(user.getId(), PostStatus.PUBLISHED),
-                        user.getPosts().stream().mapToLong(post -> post.getViewCount() != null ? post.getViewCount() : 0L).sum()
-                })
+        return siteStatsService.getStats().authors().stream()
+                .map(author -> new Object[]{author.username(), author.publishedPosts(), author.views()})
                 .collect(Collectors.toList());
     }
 }
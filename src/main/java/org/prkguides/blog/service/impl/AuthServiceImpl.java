@@ -2,12 +2,12 @@ package org.prkguides.blog.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.prkguides.blog.dto.JwtResponseDto;
 import org.prkguides.blog.dto.LoginRequestDto;
 import org.prkguides.blog.dto.UserSummaryDto;
 import org.prkguides.blog.entity.User;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
+import org.prkguides.blog.mapper.UserMapper;
 import org.prkguides.blog.repository.UserRepository;
 import org.prkguides.blog.security.JwtTokenProvider;
 import org.prkguides.blog.service.AuthService;
@@ -26,7 +26,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
 
     @Override
     public JwtResponseDto authenticateUser(LoginRequestDto loginRequest) {
@@ -38,7 +38,7 @@ public class AuthServiceImpl implements AuthService {
 
             User user = userRepository.findByUsername(loginRequest.getUsername()).orElseThrow(()-> new ResourceNotFoundException("User", "username", loginRequest.getUsername()));
 
-            UserSummaryDto userSummaryDto = modelMapper.map(user, UserSummaryDto.class);
+            UserSummaryDto userSummaryDto = userMapper.toSummaryDto(user);
 
             log.info("User {} authenticated successfully", loginRequest.getUsername());
 
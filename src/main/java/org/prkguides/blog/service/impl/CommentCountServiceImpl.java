@@ -0,0 +1,128 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.cache.AfterCommit;
+import org.prkguides.blog.cache.PostCacheIndex;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.service.CommentCountService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approved and pending comment counters on the posts row, so listings and analytics read a
+ * column instead of counting comments. Moderation changes apply in-place increments in the
+ * same transaction as the comment write. A nightly recount repairs any drift, e.g. from
+ * comments removed outside the service; it walks the posts in id ranges, one short statement
+ * per range, and only writes the posts whose counters are off.
+ */
+@Slf4j
+@Service
+public class CommentCountServiceImpl implements CommentCountService {
+
+    private static final String ADJUST_SQL =
+            "UPDATE posts SET approved_comment_count = COALESCE(approved_comment_count, 0) + ?, " +
+            "pending_comment_count = COALESCE(pending_comment_count, 0) + ? WHERE id = ?";
+    private static final String APPROVED_COUNT =
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.status = 'APPROVED')";
+    private static final String PENDING_COUNT =
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.status = 'PENDING')";
+    private static final String RECONCILE_SQL =
+            "UPDATE posts p SET approved_comment_count = " + APPROVED_COUNT + ", pending_comment_count = " + PENDING_COUNT;
+    private static final String DRIFTED_IN_RANGE =
+            " WHERE p.id BETWEEN ? AND ? AND (approved_comment_count IS NULL OR pending_comment_count IS NULL " +
+            "OR approved_comment_count <> " + APPROVED_COUNT + " OR pending_comment_count <> " + PENDING_COUNT + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostCacheIndex postCacheIndex;
+    private final Counter repaired;
+    private final Timer reconcileTimer;
+    private final int reconcileChunk;
+
+    public CommentCountServiceImpl(JdbcTemplate jdbcTemplate, PostCacheIndex postCacheIndex,
+                                   @Value("${blog.comments.counts.reconcile-chunk:1000}") int reconcileChunk,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconcileChunk = Math.max(1, reconcileChunk);
+        this.postCacheIndex = postCacheIndex;
+        this.repaired = meterRegistry.counter("blog.comments.counts.repaired");
+        this.reconcileTimer = meterRegistry.timer("blog.comments.counts.reconcile");
+    }
+
+    @Override
+    public void statusChanged(Long postId, CommentStatus from, CommentStatus to) {
+        adjust(postId, delta(CommentStatus.APPROVED, from, to), delta(CommentStatus.PENDING, from, to));
+    }
+
+    @Override
+    public void adjust(Long postId, long approvedDelta, long pendingDelta) {
+        if (approvedDelta == 0 && pendingDelta == 0) {
+            return;
+        }
+        jdbcTemplate.update(ADJUST_SQL, approvedDelta, pendingDelta, postId);
+        if (approvedDelta != 0) {
+            // Cached summaries show the approved count
+            AfterCommit.run(() -> postCacheIndex.evictPost(postId));
+        }
+    }
+
+    @Override
+    public void adjust(Map<Long, CountDelta> deltasByPost) {
+        List<Object[]> rows = new ArrayList<>(deltasByPost.size());
+        List<Long> evicted = new ArrayList<>();
+        deltasByPost.forEach((postId, delta) -> {
+            if (delta.approved() != 0 || delta.pending() != 0) {
+                rows.add(new Object[]{delta.approved(), delta.pending(), postId});
+            }
+            if (delta.approved() != 0) {
+                evicted.add(postId);
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_SQL, rows);
+        }
+        if (!evicted.isEmpty()) {
+            AfterCommit.run(() -> evicted.forEach(postCacheIndex::evictPost));
+        }
+    }
+
+    @Override
+    public void reconcile(Long postId) {
+        jdbcTemplate.update(RECONCILE_SQL + " WHERE p.id = ?", postId);
+        AfterCommit.run(() -> postCacheIndex.evictPost(postId));
+    }
+
+    @Override
+    @Scheduled(cron = "${blog.comments.counts.reconcile-cron:0 15 4 * * *}")
+    public int reconcile() {
+        int drifted = reconcileTimer.record(this::reconcileInRanges);
+        if (drifted > 0) {
+            repaired.increment(drifted);
+            log.warn("Repaired comment counters on {} posts", drifted);
+        }
+        return drifted;
+    }
+
+    // Each range commits on its own, so no statement holds locks on the whole posts table
+    private int reconcileInRanges() {
+        long[] ids = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM posts", (rs, rowNum) ->
+                rs.getObject(1) != null ? new long[]{rs.getLong(1), rs.getLong(2)} : new long[]{1, 0});
+        int drifted = 0;
+        for (long from = ids[0]; from <= ids[1]; from += reconcileChunk) {
+            drifted += jdbcTemplate.update(RECONCILE_SQL + DRIFTED_IN_RANGE, from, from + reconcileChunk - 1);
+        }
+        return drifted;
+    }
+
+    private static long delta(CommentStatus counted, CommentStatus from, CommentStatus to) {
+        return (counted.equals(to) ? 1 : 0) - (counted.equals(from) ? 1 : 0);
+    }
+}
@@ -0,0 +1,265 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.dto.BulkModerationResultDto;
+import org.prkguides.blog.dto.CommentBulkModerationDto;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.ModerationAction;
+import org.prkguides.blog.exceptions.BadRequestException;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.service.CommentCountService;
+import org.prkguides.blog.service.CommentCountService.CountDelta;
+import org.prkguides.blog.service.CommentModerationService;
+import org.prkguides.blog.service.RollupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Moderates comments in bulk with set-based statements instead of loading and saving each
+ * one. A chunk of ids is locked with one SELECT ... FOR UPDATE, which also yields the status
+ * transitions per post for the comment counters and rollups, then changed with one UPDATE.
+ * Deletes take each comment's whole reply subtree by thread path range, a chunk of subtrees
+ * per statement, after the replies below them that have no path yet. Everything in a request
+ * commits or rolls back together.
+ */
+@Slf4j
+@Service
+@Transactional
+public class CommentModerationServiceImpl implements CommentModerationService {
+
+    private static final String LOCK_FOR_STATUS =
+            "SELECT id, post_id, status FROM comments WHERE id IN (:ids) AND status <> :target";
+    private static final String LOCK_IF_UNCHANGED =
+            "SELECT id, post_id, status, content FROM comments WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE";
+    private static final String FOR_UPDATE = " FOR UPDATE";
+    private static final String UPDATE_STATUS = "UPDATE comments SET status = :target WHERE id IN (:ids)";
+    private static final String LOCK_FOR_DELETE =
+            "SELECT id, post_id, thread_path FROM comments WHERE id IN (:ids) FOR UPDATE";
+    private static final String SELECT_PENDING =
+            "SELECT id FROM comments WHERE status = 'PENDING' AND created_at < :cutoff AND id > :after";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CommentRepository commentRepository;
+    private final UnpathedReplies unpathedReplies;
+    private final CommentCountService commentCountService;
+    private final RollupService rollupService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final int maxPerRequest;
+
+    public CommentModerationServiceImpl(NamedParameterJdbcTemplate namedJdbcTemplate,
+                                        CommentRepository commentRepository,
+                                        UnpathedReplies unpathedReplies,
+                                        CommentCountService commentCountService,
+                                        RollupService rollupService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${blog.comments.moderation.chunk-size:500}") int chunkSize,
+                                        @Value("${blog.comments.moderation.max-per-request:10000}") int maxPerRequest) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.commentRepository = commentRepository;
+        this.unpathedReplies = unpathedReplies;
+        this.commentCountService = commentCountService;
+        this.rollupService = rollupService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxPerRequest = Math.max(1, maxPerRequest);
+    }
+
+    private record Subtree(Long postId, String path) {
+    }
+
+    @Override
+    public BulkModerationResultDto moderate(ModerationAction action, CommentBulkModerationDto request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getPendingOlderThanHours() != null;
+        if (byIds == byFilter) {
+            throw new BadRequestException("Give either comment ids or pendingOlderThanHours");
+        }
+
+        int affected = byIds
+                ? moderate(action, request.getIds())
+                : moderatePending(action, LocalDateTime.now().minusHours(request.getPendingOlderThanHours()), request.getPostId());
+        return new BulkModerationResultDto(action, affected);
+    }
+
+    @Override
+    public int moderate(ModerationAction action, Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > maxPerRequest) {
+            throw new BadRequestException("At most " + maxPerRequest + " comments can be moderated at once");
+        }
+
+        int affected = 0;
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            affected += apply(action, distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return record(action, affected);
+    }
+
+    @Override
+    public int moderateIfPending(ModerationAction action, Map<Long, String> contentById) {
+        if (action.getTargetStatus() == null) {
+            throw new IllegalArgumentException(action.getDisplayName() + " can't be limited to pending comments");
+        }
+        List<Long> ids = List.copyOf(contentById.keySet());
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            affected += changeStatus(action.getTargetStatus(), chunk, contentById);
+        }
+        return record(action, affected);
+    }
+
+    @Override
+    public int moderatePending(ModerationAction action, LocalDateTime createdBefore, Long postId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("cutoff", createdBefore)
+                .addValue("postId", postId);
+        String sql = SELECT_PENDING + (postId != null ? " AND post_id = :postId" : "") + " ORDER BY id LIMIT :limit";
+
+        // Keyset over the matching ids, so a chunk that leaves some comments untouched can't loop
+        int affected = 0;
+        int seen = 0;
+        long after = 0;
+        while (seen < maxPerRequest) {
+            params.addValue("after", after).addValue("limit", Math.min(chunkSize, maxPerRequest - seen));
+            List<Long> chunk = namedJdbcTemplate.queryForList(sql, params, Long.class);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            affected += apply(action, chunk);
+            seen += chunk.size();
+            after = chunk.get(chunk.size() - 1);
+        }
+        return record(action, affected);
+    }
+
+    private int apply(ModerationAction action, List<Long> ids) {
+        return action == ModerationAction.DELETE ? delete(ids) : changeStatus(action.getTargetStatus(), ids, null);
+    }
+
+    // With expected content, only pending comments still holding that content are changed
+    private int changeStatus(CommentStatus target, List<Long> ids, Map<Long, String> expectedContent) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("target", target.name());
+        Map<Long, CountDelta> deltas = new HashMap<>();
+        Map<Long, Long> approvals = new HashMap<>();
+        List<Long> changed = new ArrayList<>(ids.size());
+        String lock = expectedContent != null ? LOCK_IF_UNCHANGED : LOCK_FOR_STATUS + FOR_UPDATE;
+        namedJdbcTemplate.query(lock, params, rs -> {
+            if (expectedContent != null && !rs.getString("content").equals(expectedContent.get(rs.getLong("id")))) {
+                return;
+            }
+            Long postId = rs.getLong("post_id");
+            CommentStatus from = CommentStatus.valueOf(rs.getString("status"));
+            changed.add(rs.getLong("id"));
+            deltas.merge(postId, delta(from, target), CountDelta::plus);
+            if (CommentStatus.APPROVED.equals(target)) {
+                approvals.merge(postId, 1L, Long::sum);
+            }
+        });
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        int updated = namedJdbcTemplate.update(UPDATE_STATUS, params.addValue("ids", changed));
+        commentCountService.adjust(deltas);
+        approvals.forEach(rollupService::recordComments);
+        return updated;
+    }
+
+    private int delete(List<Long> ids) {
+        List<Subtree> subtrees = new ArrayList<>();
+        List<Long> withoutPath = new ArrayList<>();
+        namedJdbcTemplate.query(LOCK_FOR_DELETE, new MapSqlParameterSource("ids", ids), rs -> {
+            String path = rs.getString("thread_path");
+            if (path != null) {
+                subtrees.add(new Subtree(rs.getLong("post_id"), path));
+            } else {
+                withoutPath.add(rs.getLong("id"));
+            }
+        });
+
+        int deleted = deleteSubtrees(outermost(subtrees));
+        for (Long id : withoutPath) {
+            deleted += deleteWithoutPath(id);
+        }
+        return deleted;
+    }
+
+    // Drops subtrees inside another one in the list, they go with it
+    private static List<Subtree> outermost(List<Subtree> subtrees) {
+        subtrees.sort(Comparator.comparing(Subtree::postId).thenComparing(Subtree::path));
+        List<Subtree> outermost = new ArrayList<>(subtrees.size());
+        for (Subtree subtree : subtrees) {
+            Subtree last = outermost.isEmpty() ? null : outermost.get(outermost.size() - 1);
+            if (last == null || !last.postId().equals(subtree.postId()) || !subtree.path().startsWith(last.path())) {
+                outermost.add(subtree);
+            }
+        }
+        return outermost;
+    }
+
+    private int deleteSubtrees(List<Subtree> subtrees) {
+        if (subtrees.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner ranges = new StringJoiner(" OR ", "(", ")");
+        for (int i = 0; i < subtrees.size(); i++) {
+            ranges.add("(post_id = :post" + i + " AND thread_path LIKE :path" + i + ")");
+            params.addValue("post" + i, subtrees.get(i).postId()).addValue("path" + i, subtrees.get(i).path() + "%");
+        }
+
+        // Lock the whole subtrees before counting, so a reply added meanwhile can't be deleted uncounted
+        Map<Long, CountDelta> deltas = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        namedJdbcTemplate.query("SELECT id, post_id, status FROM comments WHERE " + ranges + " FOR UPDATE", params, rs -> {
+            CommentStatus status = CommentStatus.valueOf(rs.getString("status"));
+            ids.add(rs.getLong("id"));
+            deltas.merge(rs.getLong("post_id"), delta(status, null), CountDelta::plus);
+        });
+
+        // Replies without a path point into the ranges by parent link only, so they go first
+        List<UnpathedReplies.Reply> unpathed = unpathedReplies.below(ids);
+        unpathed.forEach(reply -> deltas.merge(reply.postId(), delta(reply.status(), null), CountDelta::plus));
+        int deleted = unpathedReplies.delete(unpathed);
+
+        // Replies reference their parents, so unlink them first to delete the subtree in one statement
+        namedJdbcTemplate.update("UPDATE comments SET parent_comment_id = NULL WHERE " + ranges, params);
+        deleted += namedJdbcTemplate.update("DELETE FROM comments WHERE " + ranges, params);
+        commentCountService.adjust(deltas);
+        return deleted;
+    }
+
+    // Comments not backfilled with a thread path yet go through the cascade, and their post is recounted
+    private int deleteWithoutPath(Long id) {
+        return commentRepository.findById(id).map(comment -> {
+            Long postId = comment.getPost().getId();
+            commentRepository.delete(comment);
+            commentRepository.flush();
+            commentCountService.reconcile(postId);
+            return 1;
+        }).orElse(0);
+    }
+
+    private static CountDelta delta(CommentStatus from, CommentStatus to) {
+        return new CountDelta(count(CommentStatus.APPROVED, to) - count(CommentStatus.APPROVED, from),
+                count(CommentStatus.PENDING, to) - count(CommentStatus.PENDING, from));
+    }
+
+    private static long count(CommentStatus counted, CommentStatus status) {
+        return counted.equals(status) ? 1 : 0;
+    }
+
+    private int record(ModerationAction action, int affected) {
+        meterRegistry.counter("blog.comments.moderated", "action", action.name()).increment(affected);
+        log.info("Bulk {}: {} comments affected", action.getDisplayName().toLowerCase(), affected);
+        return affected;
+    }
+}
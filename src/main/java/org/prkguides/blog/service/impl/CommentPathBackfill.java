@@ -0,0 +1,92 @@
+package org.prkguides.blog.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Fills thread_path for comments written before the column existed. Runs once at startup and
+ * does nothing when every comment has a path. Comments nested deeper than the path allows keep
+ * a null path and are left to the parent-link code paths.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentPathBackfill {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Integer missing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments WHERE thread_path IS NULL", Integer.class);
+        if (missing == null || missing == 0) {
+            return;
+        }
+
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, String> paths = new HashMap<>();
+        jdbcTemplate.query("SELECT id, parent_comment_id, thread_path FROM comments", rs -> {
+            long id = rs.getLong(1);
+            long parentId = rs.getLong(2);
+            parents.put(id, rs.wasNull() ? null : parentId);
+            if (rs.getString(3) != null) {
+                paths.put(id, rs.getString(3));
+            }
+        });
+
+        List<Object[]> batch = new ArrayList<>();
+        int filled = 0;
+        List<Long> links = new ArrayList<>();
+        for (Long id : parents.keySet()) {
+            if (!paths.containsKey(id)) {
+                // Every link filled on the way down, not only id: a parent reached through its child is skipped later
+                fill(id, parents, paths, links);
+                links.forEach(link -> batch.add(new Object[]{paths.get(link), link}));
+                links.clear();
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                filled += write(batch);
+            }
+        }
+        filled += write(batch);
+        log.info("Backfilled thread paths for {} of {} comments", filled, missing);
+    }
+
+    // Walks up to the nearest comment with a known path, then fills the chain on the way down into paths and filled
+    private static void fill(Long id, Map<Long, Long> parents, Map<Long, String> paths, List<Long> filled) {
+        Deque<Long> chain = new ArrayDeque<>();
+        Long current = id;
+        while (current != null && !paths.containsKey(current) && parents.containsKey(current)) {
+            chain.push(current);
+            current = parents.get(current);
+        }
+        String path = current != null ? paths.get(current) : null;
+        for (Long link : chain) {
+            try {
+                path = CommentPath.of(path, link);
+            } catch (IllegalArgumentException tooDeep) {
+                return;
+            }
+            paths.put(link, path);
+            filled.add(link);
+        }
+    }
+
+    private int write(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("UPDATE comments SET thread_path = ? WHERE id = ?", batch);
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+}
@@ -2,27 +2,36 @@ package org.prkguides.blog.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.prkguides.blog.cache.ListingCountCache;
 import org.prkguides.blog.dto.*;
 import org.prkguides.blog.entity.Comment;
 import org.prkguides.blog.entity.Post;
 import org.prkguides.blog.entity.User;
 import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.CountMode;
 import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.prkguides.blog.exceptions.BadRequestException;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
+import org.prkguides.blog.mapper.CommentMapper;
 import org.prkguides.blog.repository.CommentRepository;
 import org.prkguides.blog.repository.PostRepository;
 import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.service.CommentCountService;
 import org.prkguides.blog.service.CommentService;
+import org.prkguides.blog.service.RollupService;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -33,7 +42,13 @@ public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final CommentMapper commentMapper;
+    private final ListingCountCache listingCountCache;
+    private final RollupService rollupService;
+    private final CommentThreadLoader commentThreadLoader;
+    private final UnpathedReplies unpathedReplies;
+    private final CommentCountService commentCountService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CommentDto createComment(CommentCreateDto commentCreateDto, String username) {
@@ -64,16 +79,20 @@ public class CommentServiceImpl implements CommentService {
         }
 
         Comment savedComment = commentRepository.save(comment);
+        savedComment.setThreadPath(threadPath(comment.getParentComment(), savedComment.getId()));
+        commentCountService.statusChanged(post.getId(), null, CommentStatus.PENDING);
+        eventPublisher.publishEvent(new CommentCreatedEvent(savedComment.getId(), post.getId(), author.getId(),
+                savedComment.getContent()));
         log.info("Comment created successfully with ID: {}", savedComment.getId());
 
-        return mapEntityToDto(savedComment);
+        return commentThreadLoader.withoutReplies(savedComment);
     }
 
     @Override
     public CommentDto updateComment(Long id, CommentUpdateDto commentUpdateDto, String username) {
         log.info("Updating comment ID: {} by user: {}", id, username);
 
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id.toString()));
 
         User currentUser = userRepository.findByUsername(username)
@@ -85,8 +104,10 @@ public class CommentServiceImpl implements CommentService {
             throw new RuntimeException("You don't have permission to update this comment");
         }
 
+        CommentStatus previousStatus = comment.getStatus();
         comment.setContent(commentUpdateDto.getContent());
         comment.setStatus(CommentStatus.PENDING); // Reset to pending after edit
+        commentCountService.statusChanged(comment.getPost().getId(), previousStatus, CommentStatus.PENDING);
 
         Comment savedComment = commentRepository.save(comment);
         log.info("Comment updated successfully with ID: {}", savedComment.getId());
@@ -97,7 +118,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public CommentDto getCommentById(Long id) {
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findWithAuthorById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id.toString()));
         return mapEntityToDto(comment);
     }
@@ -106,7 +127,7 @@ public class CommentServiceImpl implements CommentService {
     public void deleteComment(Long id, String username) {
         log.info("Deleting comment ID: {} by user: {}", id, username);
 
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id.toString()));
 
         User currentUser = userRepository.findByUsername(username)
@@ -118,8 +139,42 @@ public class CommentServiceImpl implements CommentService {
             throw new RuntimeException("You don't have permission to delete this comment");
         }
 
-        commentRepository.delete(comment);
-        log.info("Comment deleted successfully with ID: {}", id);
+        Long postId = comment.getPost().getId();
+        if (comment.getThreadPath() == null) {
+            // Not backfilled yet, fall back to the cascade and recount the post
+            commentRepository.delete(comment);
+            commentRepository.flush();
+            commentCountService.reconcile(postId);
+            log.info("Comment deleted successfully with ID: {}", id);
+            return;
+        }
+
+        // The comment and its replies at any depth, by thread path range instead of cascading row by row
+        long approved = 0;
+        long pending = 0;
+        for (Object[] row : commentRepository.countSubtreeByStatus(postId, comment.getThreadPath())) {
+            if (CommentStatus.APPROVED.equals(row[0])) {
+                approved = (Long) row[1];
+            } else if (CommentStatus.PENDING.equals(row[0])) {
+                pending = (Long) row[1];
+            }
+        }
+
+        // Replies the backfill hasn't reached yet are outside the range, so they go by parent link first
+        List<UnpathedReplies.Reply> unpathed = unpathedReplies.below(postId, comment.getThreadPath());
+        for (UnpathedReplies.Reply reply : unpathed) {
+            if (CommentStatus.APPROVED.equals(reply.status())) {
+                approved++;
+            } else if (CommentStatus.PENDING.equals(reply.status())) {
+                pending++;
+            }
+        }
+        int deleted = unpathedReplies.delete(unpathed);
+
+        commentRepository.unlinkSubtree(postId, comment.getThreadPath());
+        deleted += commentRepository.deleteSubtree(postId, comment.getThreadPath());
+        commentCountService.adjust(postId, -approved, -pending);
+        log.info("Comment deleted successfully with ID: {} ({} comments with its replies)", id, deleted);
     }
 
     @Override
@@ -145,59 +200,73 @@ public class CommentServiceImpl implements CommentService {
         reply.setStatus(CommentStatus.PENDING);
 
         Comment savedReply = commentRepository.save(reply);
+        savedReply.setThreadPath(threadPath(parentComment, savedReply.getId()));
+        commentCountService.statusChanged(reply.getPost().getId(), null, CommentStatus.PENDING);
+        eventPublisher.publishEvent(new CommentCreatedEvent(savedReply.getId(), reply.getPost().getId(), author.getId(),
+                savedReply.getContent()));
         log.info("Reply created successfully with ID: {}", savedReply.getId());
 
-        return mapEntityToDto(savedReply);
+        return commentThreadLoader.withoutReplies(savedReply);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CommentDto> getCommentReplies(Long commentId) {
-        List<Comment> replies = commentRepository.findByParentCommentIdAndStatus(commentId, CommentStatus.APPROVED,
-                Sort.by("createdAt").ascending());
-
-        return replies.stream()
-                .map(this::mapEntityToDto)
-                .collect(Collectors.toList());
+        Comment comment = commentRepository.findWithAuthorById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId.toString()));
+        return commentThreadLoader.allReplies(comment);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PaginationResponse<CommentDto> getCommentsByPost(Long postId, int pageNo, int pageSize) {
+    public PaginationResponse<CommentDto> getCommentsByPost(Long postId, int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("createdAt").descending());
-        Page<Comment> commentsPage = commentRepository.findByPostIdAndStatusAndParentCommentIsNull(
-                postId, CommentStatus.APPROVED, pageable);
+        Slice<Comment> commentsPage = CountMode.EXACT.equals(countMode)
+                ? commentRepository.findByPostIdAndStatusAndParentCommentIsNull(postId, CommentStatus.APPROVED, pageable)
+                : commentRepository.findSliceByPostIdAndStatusAndParentCommentIsNull(postId, CommentStatus.APPROVED, pageable);
 
-        return mapToPaginationResponse(commentsPage);
+        return mapToPaginationResponse(commentsPage, approximateCount(countMode, "comments:post:" + postId,
+                () -> commentRepository.countByPostIdAndStatusAndParentCommentIsNull(postId, CommentStatus.APPROVED)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PaginationResponse<CommentDto> getCommentsByUser(String username, int pageNo, int pageSize) {
+    public PaginationResponse<CommentDto> getCommentsByUser(String username, int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("createdAt").descending());
-        Page<Comment> commentsPage = commentRepository.findByAuthorUsername(username, pageable);
+        Slice<Comment> commentsPage = CountMode.EXACT.equals(countMode)
+                ? commentRepository.findByAuthorUsername(username, pageable)
+                : commentRepository.findSliceByAuthorUsername(username, pageable);
 
-        return mapToPaginationResponse(commentsPage);
+        return mapToPaginationResponse(commentsPage, approximateCount(countMode, "comments:author:" + username,
+                () -> commentRepository.countByAuthorUsername(username)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PaginationResponse<CommentDto> getPendingComments(int pageNo, int pageSize) {
+    public PaginationResponse<CommentDto> getPendingComments(int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("createdAt").ascending());
-        Page<Comment> commentsPage = commentRepository.findByStatus(CommentStatus.PENDING, pageable);
+        Slice<Comment> commentsPage = CountMode.EXACT.equals(countMode)
+                ? commentRepository.findByStatus(CommentStatus.PENDING, pageable)
+                : commentRepository.findSliceByStatus(CommentStatus.PENDING, pageable);
 
-        return mapToPaginationResponse(commentsPage);
+        return mapToPaginationResponse(commentsPage, approximateCount(countMode, "comments:pending",
+                () -> commentRepository.countByStatus(CommentStatus.PENDING)));
     }
 
     @Override
     public CommentDto approveComment(Long id) {
         log.info("Approving comment ID: {}", id);
 
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id.toString()));
 
+        CommentStatus previousStatus = comment.getStatus();
         comment.setStatus(CommentStatus.APPROVED);
         Comment savedComment = commentRepository.save(comment);
+        if (!CommentStatus.APPROVED.equals(previousStatus)) {
+            rollupService.recordComment(comment.getPost().getId());
+            commentCountService.statusChanged(comment.getPost().getId(), previousStatus, CommentStatus.APPROVED);
+        }
 
         log.info("Comment approved successfully with ID: {}", id);
         return mapEntityToDto(savedComment);
@@ -207,11 +276,13 @@ public class CommentServiceImpl implements CommentService {
     public CommentDto rejectComment(Long id) {
         log.info("Rejecting comment ID: {}", id);
 
-        Comment comment = commentRepository.findById(id)
+        Comment comment = commentRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", id.toString()));
 
+        CommentStatus previousStatus = comment.getStatus();
         comment.setStatus(CommentStatus.REJECTED);
         Comment savedComment = commentRepository.save(comment);
+        commentCountService.statusChanged(comment.getPost().getId(), previousStatus, CommentStatus.REJECTED);
 
         log.info("Comment rejected successfully with ID: {}", id);
         return mapEntityToDto(savedComment);
@@ -229,40 +300,28 @@ public class CommentServiceImpl implements CommentService {
         return commentRepository.countByStatus(CommentStatus.PENDING);
     }
 
-    private CommentDto mapEntityToDto(Comment comment) {
-        CommentDto dto = modelMapper.map(comment, CommentDto.class);
-        dto.setAuthor(modelMapper.map(comment.getAuthor(), UserSummaryDto.class));
-        dto.setPostId(comment.getPost().getId());
-
-        if (comment.getParentComment() != null) {
-            dto.setParentCommentId(comment.getParentComment().getId());
+    private static String threadPath(Comment parent, Long id) {
+        if (parent != null && parent.getThreadPath() == null) {
+            // A root-level path would detach the reply from its thread; the transaction rolls the reply back
+            throw new BadRequestException("Comment " + parent.getId() + " can't be replied to until its thread path is backfilled");
+        }
+        try {
+            return CommentPath.of(parent != null ? parent.getThreadPath() : null, id);
+        } catch (IllegalArgumentException tooDeep) {
+            throw new BadRequestException(tooDeep.getMessage());
         }
+    }
 
-        // Map replies (only approved ones)
-        List<CommentDto> replies = comment.getReplies().stream()
-                .filter(reply -> CommentStatus.APPROVED.equals(reply.getStatus()))
-                .map(this::mapEntityToDto)
-                .collect(Collectors.toList());
-        dto.setReplies(replies);
+    private CommentDto mapEntityToDto(Comment comment) {
+        return commentThreadLoader.withReplies(List.of(comment)).get(0);
+    }
 
-        return dto;
+    private PaginationResponse<CommentDto> mapToPaginationResponse(Slice<Comment> commentsPage, Long approximateTotal) {
+        List<CommentDto> content = commentThreadLoader.withReplies(commentsPage.getContent());
+        return PaginationResponse.of(commentsPage, content, approximateTotal);
     }
 
-    private PaginationResponse<CommentDto> mapToPaginationResponse(Page<Comment> commentsPage) {
-        List<CommentDto> content = commentsPage.getContent().stream()
-                .map(this::mapEntityToDto)
-                .collect(Collectors.toList());
-
-        PaginationResponse<CommentDto> response = new PaginationResponse<>();
-        response.setContent(content);
-        response.setPage(commentsPage.getNumber());
-        response.setSize(commentsPage.getSize());
-        response.setTotalPages(commentsPage.getTotalPages());
-        response.setTotalElements(commentsPage.getTotalElements());
-        response.setLast(commentsPage.isLast());
-        response.setFirst(commentsPage.isFirst());
-        response.setEmpty(commentsPage.isEmpty());
-
-        return response;
+    private Long approximateCount(CountMode countMode, String key, Supplier<Long> counter) {
+        return CountMode.APPROXIMATE.equals(countMode) ? listingCountCache.get(key, counter) : null;
     }
 }
@@ -0,0 +1,101 @@
+package org.prkguides.blog.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.mapper.CommentMapper;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.repository.CommentSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the approved reply trees under a list of comments. The approved comments below them
+ * are read in one query with their authors (the listed comments' subtrees by thread path
+ * range, or the whole threads of their posts while a comment has no path yet), grouped by
+ * parent id and walked in memory, so the statement count doesn't depend on the size or depth
+ * of the threads.
+ * Replies below the maximum depth or past the per-level limit are left out; replyCount still
+ * says how many direct replies there are.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentThreadLoader {
+
+    private final CommentRepository commentRepository;
+    private final CommentMapper commentMapper;
+
+    @Value("${blog.comments.thread.max-depth:5}")
+    private int maxDepth;
+
+    @Value("${blog.comments.thread.max-replies:50}")
+    private int maxReplies;
+
+    public List<CommentDto> withReplies(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Comment>> repliesByParent = group(readThreads(comments));
+        return comments.stream()
+                .map(comment -> toTree(comment, 1, repliesByParent))
+                .collect(Collectors.toList());
+    }
+
+    // Every approved direct reply of the comment, each with its own tree cut as usual
+    public List<CommentDto> allReplies(Comment comment) {
+        Map<Long, List<Comment>> repliesByParent = group(readThreads(List.of(comment)));
+        return repliesByParent.getOrDefault(comment.getId(), List.of()).stream()
+                .map(reply -> toTree(reply, 2, repliesByParent))
+                .collect(Collectors.toList());
+    }
+
+    // Only the listed comments' subtrees, so a page spread over many posts doesn't read their whole threads
+    private List<Comment> readThreads(List<Comment> comments) {
+        Comment single = comments.get(0);
+        if (comments.size() == 1 && single.getThreadPath() != null) {
+            return commentRepository.findSubtree(single.getPost().getId(), single.getThreadPath(), CommentStatus.APPROVED);
+        }
+        if (comments.stream().allMatch(comment -> comment.getThreadPath() != null)) {
+            return commentRepository.findAll(CommentSpecifications.inSubtrees(comments)
+                    .and(CommentSpecifications.hasStatus(CommentStatus.APPROVED)), CommentSpecifications.THREAD_ORDER);
+        }
+        Set<Long> postIds = comments.stream()
+                .map(comment -> comment.getPost().getId())
+                .collect(Collectors.toSet());
+        return commentRepository.findThreadsByPostIds(postIds, CommentStatus.APPROVED);
+    }
+
+    // A comment nobody can have replied to yet, no query needed
+    public CommentDto withoutReplies(Comment comment) {
+        CommentDto dto = commentMapper.toDto(comment);
+        dto.setReplies(List.of());
+        dto.setReplyCount(0);
+        return dto;
+    }
+
+    // Read in thread order, so each parent's list comes out oldest first
+    private static Map<Long, List<Comment>> group(List<Comment> thread) {
+        Map<Long, List<Comment>> repliesByParent = new HashMap<>();
+        for (Comment reply : thread) {
+            if (reply.getParentComment() != null) {
+                repliesByParent.computeIfAbsent(reply.getParentComment().getId(), id -> new ArrayList<>()).add(reply);
+            }
+        }
+        return repliesByParent;
+    }
+
+    private CommentDto toTree(Comment comment, int depth, Map<Long, List<Comment>> repliesByParent) {
+        CommentDto dto = commentMapper.toDto(comment);
+        List<Comment> replies = repliesByParent.getOrDefault(comment.getId(), List.of());
+        dto.setReplyCount(replies.size());
+        dto.setReplies(depth > maxDepth ? List.of() : replies.stream()
+                .limit(maxReplies)
+                .map(reply -> toTree(reply, depth + 1, repliesByParent))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+}
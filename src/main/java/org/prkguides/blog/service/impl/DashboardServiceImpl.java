@@ -0,0 +1,94 @@
+package org.prkguides.blog.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.dto.DashboardStatsDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.enums.RollupDimension;
+import org.prkguides.blog.enums.TrendingWindow;
+import org.prkguides.blog.service.DashboardService;
+import org.prkguides.blog.service.PostService;
+import org.prkguides.blog.service.RollupService;
+import org.prkguides.blog.service.SiteStatsService;
+import org.prkguides.blog.service.ViewCountService;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final int DASHBOARD_DAYS = 30;
+    private static final int DASHBOARD_POSTS = 5;
+
+    // Post counts and views come from the site stats snapshot; the rest in one round trip: (source, group, rows)
+    private static final String COUNTS_SQL =
+            "SELECT 'users', CASE WHEN is_active = FALSE THEN 'INACTIVE' ELSE 'ACTIVE' END, COUNT(*) " +
+            "FROM users GROUP BY CASE WHEN is_active = FALSE THEN 'INACTIVE' ELSE 'ACTIVE' END " +
+            "UNION ALL SELECT 'comments', status, COUNT(*) FROM comments GROUP BY status " +
+            "UNION ALL SELECT 'tags', NULL, COUNT(*) FROM tags";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RollupService rollupService;
+    private final ViewCountService viewCountService;
+    private final PostService postService;
+    private final SiteStatsService siteStatsService;
+
+    @Override
+    @Cacheable("dashboard-stats")
+    public DashboardStatsDto getDashboardStats() {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        jdbcTemplate.query(COUNTS_SQL, rs -> {
+            counts.computeIfAbsent(rs.getString(1), source -> new HashMap<>())
+                    .put(String.valueOf(rs.getString(2)), rs.getLong(3));
+        });
+        Map<String, Long> users = counts.getOrDefault("users", Map.of());
+        Map<String, Long> comments = counts.getOrDefault("comments", Map.of());
+        SiteStatsService.SiteStats site = siteStatsService.getStats();
+
+        DashboardStatsDto stats = new DashboardStatsDto();
+        stats.setTotalPosts(site.totalPosts());
+        stats.setPublishedPosts(site.publishedPosts());
+        stats.setDraftPosts(site.draftPosts());
+        stats.setScheduledPosts(site.scheduledPosts());
+        stats.setTotalUsers(sum(users));
+        stats.setActiveUsers(users.getOrDefault("ACTIVE", 0L));
+        stats.setTotalTags(sum(counts.getOrDefault("tags", Map.of())));
+        stats.setTotalComments(sum(comments));
+        stats.setPendingComments(comments.getOrDefault("PENDING", 0L));
+        stats.setTotalViews(site.totalViews() + viewCountService.getTotalPendingViews());
+
+        List<RollupService.RollupDay> daily = rollupService.daily(RollupDimension.SITE, 0L, DASHBOARD_DAYS);
+        stats.setViewsLast30Days(daily.stream().mapToLong(RollupService.RollupDay::views).sum());
+
+        Map<String, Object> recentActivity = new LinkedHashMap<>();
+        recentActivity.put("approvedCommentsLast30Days", daily.stream().mapToLong(RollupService.RollupDay::comments).sum());
+        recentActivity.put("approvedCommentsToday", daily.get(daily.size() - 1).comments());
+        stats.setRecentActivity(recentActivity);
+
+        Map<String, Object> trafficAnalytics = new LinkedHashMap<>();
+        trafficAnalytics.put("dailyViews", daily.stream().map(RollupService.RollupDay::views).collect(Collectors.toList()));
+        trafficAnalytics.put("viewsToday", daily.get(daily.size() - 1).views());
+        stats.setTrafficAnalytics(trafficAnalytics);
+
+        Map<String, Object> popularPosts = new LinkedHashMap<>();
+        popularPosts.put("trendingToday", postService.getTrendingPosts(TrendingWindow.DAY, DASHBOARD_POSTS).stream()
+                .map(PostSummaryDto::getTitle)
+                .collect(Collectors.toList()));
+        stats.setPopularPosts(popularPosts);
+
+        return stats;
+    }
+
+    private static long sum(Map<String, Long> groups) {
+        return groups.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
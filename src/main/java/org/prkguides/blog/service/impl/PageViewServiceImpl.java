@@ -0,0 +1,131 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.service.PageViewService;
+import org.prkguides.blog.utils.BoundedEventQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page view ingestion. Request threads only put the event on a bounded lock-free queue; a
+ * scheduled writer drains it into page_views in JDBC batches. When the queue is full the
+ * event is dropped and counted rather than making the request wait, and a batch the
+ * database rejects is counted and dropped so a database outage can't back the queue up.
+ * One flush drains at most one queue capacity, so a steady stream of views can't keep it
+ * on the shared scheduler thread. Rows older than the retention are pruned nightly in chunks;
+ * the rollups keep the aggregated views for longer.
+ */
+@Slf4j
+@Service
+public class PageViewServiceImpl implements PageViewService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO page_views (page, post_id, referrer, user_agent, viewed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String PRUNE_SQL = "DELETE FROM page_views WHERE viewed_at < ? LIMIT ?";
+    private static final int MAX_TEXT_LENGTH = 500;
+    private static final int PRUNE_CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedEventQueue<PageViewEvent> queue;
+    private final Counter acceptedViews;
+    private final Counter droppedViews;
+    private final Counter writtenViews;
+    private final Counter failedViews;
+    private final int batchSize;
+    private final int retentionDays;
+
+    public PageViewServiceImpl(JdbcTemplate jdbcTemplate,
+                               @Value("${blog.page-views.queue-capacity:65536}") int queueCapacity,
+                               @Value("${blog.page-views.batch-size:1000}") int batchSize,
+                               @Value("${blog.page-views.retention-days:30}") int retentionDays,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionDays = Math.max(1, retentionDays);
+        this.queue = new BoundedEventQueue<>(queueCapacity);
+        this.acceptedViews = meterRegistry.counter("blog.page-views.accepted");
+        this.droppedViews = meterRegistry.counter("blog.page-views.dropped");
+        this.writtenViews = meterRegistry.counter("blog.page-views.written");
+        this.failedViews = meterRegistry.counter("blog.page-views.failed");
+        Gauge.builder("blog.page-views.queued", queue, BoundedEventQueue::size)
+                .description("Page views accepted and not yet written to page_views")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean record(PageViewEvent event) {
+        if (queue.offer(event)) {
+            acceptedViews.increment();
+            return true;
+        }
+        droppedViews.increment();
+        return false;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.page-views.flush-interval-ms:200}")
+    public synchronized int flush() {
+        int written = 0;
+        int drained = 0;
+        List<PageViewEvent> batch = new ArrayList<>(batchSize);
+        while (drained < queue.capacity() && queue.drainTo(batch, Math.min(batchSize, queue.capacity() - drained)) > 0) {
+            drained += batch.size();
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (PageViewEvent event : batch) {
+                rows.add(new Object[]{truncate(event.page()), event.postId(), truncate(event.referrer()),
+                        truncate(event.userAgent()), Timestamp.valueOf(event.viewedAt())});
+            }
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                writtenViews.increment(rows.size());
+                written += rows.size();
+            } catch (Exception ex) {
+                failedViews.increment(rows.size());
+                log.error("Failed to write {} page views", rows.size(), ex);
+            }
+            batch.clear();
+        }
+        if (written > 0) {
+            log.debug("Wrote {} page views", written);
+        }
+        return written;
+    }
+
+    @Override
+    @Scheduled(cron = "${blog.page-views.prune-cron:0 30 3 * * *}")
+    public int prune() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int pruned = 0;
+        int deleted;
+        // Chunked so the delete never holds locks on a whole day of views at once
+        do {
+            deleted = jdbcTemplate.update(PRUNE_SQL, cutoff, PRUNE_CHUNK);
+            pruned += deleted;
+        } while (deleted == PRUNE_CHUNK);
+        log.debug("Pruned {} page views before {}", pruned, cutoff);
+        return pruned;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Writing queued page views before shutdown");
+        while (queue.size() > 0) {
+            flush();
+        }
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+    }
+}
@@ -2,24 +2,48 @@ package org.prkguides.blog.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.prkguides.blog.cache.ListingCountCache;
+import org.prkguides.blog.cache.PostCacheInvalidator;
+import org.prkguides.blog.cache.PostCacheInvalidator.PostCacheState;
 import org.prkguides.blog.dto.*;
 import org.prkguides.blog.entity.Post;
 import org.prkguides.blog.entity.Tag;
 import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CountMode;
 import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.TagMatch;
+import org.prkguides.blog.enums.TrendingWindow;
+import org.prkguides.blog.event.PostChangedEvent;
+import org.prkguides.blog.exceptions.BadRequestException;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
+import org.prkguides.blog.mapper.PostMapper;
 import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.PostSpecifications;
 import org.prkguides.blog.repository.TagRepository;
 import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.search.Highlighter;
+import org.prkguides.blog.search.PostSearchIndex;
+import org.prkguides.blog.search.RelatedPostsIndex;
+import org.prkguides.blog.search.SearchHits;
+import org.prkguides.blog.search.SearchIndexer;
+import org.prkguides.blog.search.SearchQuery;
+import org.prkguides.blog.search.TagPostingIndex;
 import org.prkguides.blog.service.PostService;
+import org.prkguides.blog.service.RollupService;
+import org.prkguides.blog.service.TrendingService;
+import org.prkguides.blog.service.ViewCountService;
+import org.prkguides.blog.utils.PostCursor;
 import org.prkguides.blog.utils.SlugUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -28,9 +52,17 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -39,8 +71,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class PostServiceImpl implements PostService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int TITLE_FRAGMENT_LENGTH = 200;
+    private static final int EXCERPT_FRAGMENT_LENGTH = 300;
+    private static final int CONTENT_FRAGMENT_LENGTH = 160;
+
     @Autowired
-    private final ModelMapper modelMapper;
+    private final PostMapper postMapper;
 
     @Autowired
     private final PostRepository postRepository;
@@ -51,8 +88,40 @@ public class PostServiceImpl implements PostService {
     @Autowired
     private final TagRepository tagRepository;
 
+    @Autowired
+    private final PostCacheInvalidator postCacheInvalidator;
+
+    @Autowired
+    private final ViewCountService viewCountService;
+
+    @Autowired
+    private final TrendingService trendingService;
+
+    @Autowired
+    private final RollupService rollupService;
+
+    @Autowired
+    private final ListingCountCache listingCountCache;
+
+    @Autowired
+    private final PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private final TagPostingIndex tagPostingIndex;
+
+    @Autowired
+    private final RelatedPostsIndex relatedPostsIndex;
+
+    @Autowired
+    private final SearchIndexer searchIndexer;
+
+    @Autowired
+    private final CacheManager cacheManager;
+
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public PostDto createPost(PostCreateDto postCreateDto, String authorUsername) {
         log.info("Creating new post with title: {}", postCreateDto.getTitle());
 
@@ -76,13 +145,14 @@ public class PostServiceImpl implements PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        postCacheInvalidator.postChanged(null, PostCacheState.of(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.CREATED));
         log.info("Post created successfully with ID: {}", savedPost.getId());
 
         return mapEntityToDto(savedPost);
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public PostDto updatePost(Long id, PostCreateDto postUpdateDto) {
         log.info("Updating post with ID: {}", id);
 
@@ -91,6 +161,7 @@ public class PostServiceImpl implements PostService {
 
         // Store previous status to handle publishing workflow
         PostStatus previousStatus = existingPost.getStatus();
+        PostCacheState previousState = PostCacheState.of(existingPost);
 
         mapCreateDtoToEntity(postUpdateDto, existingPost);
 
@@ -106,14 +177,16 @@ public class PostServiceImpl implements PostService {
             existingPost.setTags(tags);
         }
 
-        // Handle publishing workflow
-        if (PostStatus.PUBLISHED.equals(postUpdateDto.getStatus()) &&
-                !PostStatus.PUBLISHED.equals(previousStatus) &&
-                postUpdateDto.getPublishedDate() == null) {
-            existingPost.setPublishedDate(LocalDateTime.now());
+        // Handle publishing workflow: without a new date, a published post keeps the one it had
+        if (PostStatus.PUBLISHED.equals(postUpdateDto.getStatus()) && postUpdateDto.getPublishedDate() == null) {
+            existingPost.setPublishedDate(PostStatus.PUBLISHED.equals(previousStatus) && previousState.publishedDate() != null
+                    ? previousState.publishedDate()
+                    : LocalDateTime.now());
         }
 
         Post updatedPost = postRepository.save(existingPost);
+        postCacheInvalidator.postChanged(previousState, PostCacheState.of(updatedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(updatedPost.getId(), PostChangedEvent.Type.UPDATED));
         log.info("Post updated successfully with ID: {}", updatedPost.getId());
 
         return mapEntityToDto(updatedPost);
@@ -136,7 +209,6 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public void deletePost(Long id) {
         log.info("Deleting post with ID: {}", id);
 
@@ -144,138 +216,246 @@ public class PostServiceImpl implements PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id.toString()));
 
         postRepository.delete(post);
+        postCacheInvalidator.postChanged(PostCacheState.of(post), null);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.DELETED));
         log.info("Post deleted successfully with ID: {}", id);
     }
 
     @Override
-    public PaginationResponse<PostSummaryDto> getAllPosts(int pageNo, int pageSize) {
+    public PaginationResponse<PostSummaryDto> getAllPosts(int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("createdAt").descending());
-        Page<Post> postsPage = postRepository.findAll(pageable);
-        return mapToSummaryPaginationResponse(postsPage);
+        Slice<Post> postsPage = CountMode.EXACT.equals(countMode)
+                ? postRepository.findAll(pageable)
+                : postRepository.findSliceBy(pageable);
+        return mapToSummaryPaginationResponse(postsPage,
+                approximateCount(countMode, "posts:all", postRepository::count));
     }
 
     @Override
-    @Cacheable(value = "posts", key = "'published-' + #pageNo + '-' + #pageSize")
-    public PaginationResponse<PostSummaryDto> getPublishedPosts(int pageNo, int pageSize) {
+    @Cacheable(value = "posts", key = "'published-' + #pageNo + '-' + #pageSize + '-' + #countMode")
+    public PaginationResponse<PostSummaryDto> getPublishedPosts(int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Post> postsPage = postRepository.findByStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
-        return mapToSummaryPaginationResponse(postsPage);
+        Slice<Post> postsPage = CountMode.EXACT.equals(countMode)
+                ? postRepository.findByStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable)
+                : postRepository.findSliceByStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
+        return mapToSummaryPaginationResponse(postsPage,
+                approximateCount(countMode, "posts:published", () -> postRepository.countByStatus(PostStatus.PUBLISHED)));
     }
 
     @Override
-    @Cacheable(value = "featured-posts", key = "#pageNo + '-' + #pageSize")
-    public PaginationResponse<PostSummaryDto> getFeaturedPosts(int pageNo, int pageSize) {
+    @Cacheable(value = "featured-posts", key = "#pageNo + '-' + #pageSize + '-' + #countMode")
+    public PaginationResponse<PostSummaryDto> getFeaturedPosts(int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Post> postsPage = postRepository.findByIsFeaturedTrueAndStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
-        return mapToSummaryPaginationResponse(postsPage);
+        Slice<Post> postsPage = CountMode.EXACT.equals(countMode)
+                ? postRepository.findByIsFeaturedTrueAndStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable)
+                : postRepository.findSliceByIsFeaturedTrueAndStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
+        return mapToSummaryPaginationResponse(postsPage,
+                approximateCount(countMode, "posts:featured", () -> postRepository.countByIsFeaturedTrueAndStatus(PostStatus.PUBLISHED)));
     }
 
     @Override
-    public PaginationResponse<PostSummaryDto> getPostsByAuthor(String username, int pageNo, int pageSize) {
+    public PaginationResponse<PostSummaryDto> getPostsByAuthor(String username, int pageNo, int pageSize, CountMode countMode) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<Post> postsPage = postRepository.findByAuthorUsernameAndStatusOrderByPublishedDateDesc(username, PostStatus.PUBLISHED, pageable);
-        return mapToSummaryPaginationResponse(postsPage);
+        Slice<Post> postsPage = CountMode.EXACT.equals(countMode)
+                ? postRepository.findByAuthorUsernameAndStatusOrderByPublishedDateDesc(username, PostStatus.PUBLISHED, pageable)
+                : postRepository.findSliceByAuthorUsernameAndStatusOrderByPublishedDateDesc(username, PostStatus.PUBLISHED, pageable);
+        return mapToSummaryPaginationResponse(postsPage,
+                approximateCount(countMode, "posts:author:" + username,
+                        () -> postRepository.countByAuthorUsernameAndStatus(username, PostStatus.PUBLISHED)));
     }
 
     @Override
     public PaginationResponse<PostSummaryDto> getPostsByTag(String tagName, int pageNo, int pageSize) {
-        return null;
+        if (!tagPostingIndex.isReady()) {
+            return findTaggedPosts(PostSpecifications.hasTag(tagName), pageNo, pageSize);
+        }
+        Set<Long> tagIds = tagPostingIndex.tagId(tagName).map(Set::of).orElse(Set.of());
+        return listTaggedPosts(tagIds, false, pageNo, pageSize);
+    }
+
+    @Override
+    public PaginationResponse<PostSummaryDto> getPostsByTagIds(Set<Long> tagIds, TagMatch tagMatch, int pageNo, int pageSize) {
+        boolean matchAll = TagMatch.ALL.equals(tagMatch);
+        if (!tagPostingIndex.isReady() && !tagIds.isEmpty()) {
+            Specification<Post> spec = matchAll
+                    ? tagIds.stream().map(PostSpecifications::hasTagId).reduce(Specification::and).orElseThrow()
+                    : PostSpecifications.hasAnyTagId(tagIds);
+            return findTaggedPosts(spec, pageNo, pageSize);
+        }
+        return listTaggedPosts(tagIds, matchAll, pageNo, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDto> getPublishedPostsAfter(String cursor, int pageSize) {
+        return findPostsAfter(PostSpecifications.hasStatus(PostStatus.PUBLISHED), cursor, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDto> getFeaturedPostsAfter(String cursor, int pageSize) {
+        return findPostsAfter(PostSpecifications.hasStatus(PostStatus.PUBLISHED)
+                .and(PostSpecifications.isFeatured()), cursor, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDto> getPostsByAuthorAfter(String username, String cursor, int pageSize) {
+        return findPostsAfter(PostSpecifications.hasStatus(PostStatus.PUBLISHED)
+                .and(PostSpecifications.hasAuthor(username)), cursor, pageSize);
+    }
+
+    @Override
+    public CursorPageResponse<PostSummaryDto> getPostsByTagAfter(String tagName, String cursor, int pageSize) {
+        if (!tagPostingIndex.isReady()) {
+            return findPostsAfter(PostSpecifications.hasStatus(PostStatus.PUBLISHED)
+                    .and(PostSpecifications.hasTag(tagName)), cursor, pageSize);
+        }
+        requirePageSize(pageSize);
+        PostCursor position = PostCursor.decode(cursor);
+        Set<Long> tagIds = tagPostingIndex.tagId(tagName).map(Set::of).orElse(Set.of());
+        List<Long> ids = tagPostingIndex.after(tagIds, false,
+                position != null ? position.publishedDate() : null, position != null ? position.id() : null, pageSize + 1);
+        return toCursorPage(publishedInOrder(ids), pageSize);
     }
 
     @Override
     public PaginationResponse<PostSummaryDto> searchPosts(SearchRequestDto searchRequest) {
-        Pageable pageable = createPageable(searchRequest);
+        if (isTagListing(searchRequest) && tagPostingIndex.isReady()) {
+            // Nothing to rank or filter beyond the tags, so the posting lists answer it directly
+            boolean matchAll = TagMatch.ALL.equals(searchRequest.getTagMatch());
+            return listTaggedPosts(resolveTagIds(searchRequest.getTags(), matchAll), matchAll,
+                    searchPage(searchRequest), searchSize(searchRequest));
+        }
+        if (!postSearchIndex.isReady()) {
+            // The index is still loading after a restart
+            Pageable pageable = createPageable(searchRequest);
+            Page<Post> postsPage = postRepository.findAll(createSearchSpecification(searchRequest), pageable);
+            return mapToSummaryPaginationResponse(postsPage, null);
+        }
+
+        SearchQuery query = createSearchQuery(searchRequest);
+        SearchHits hits = postSearchIndex.search(query);
 
-        // Use specification for complex queries
-        Specification<Post> spec = createSearchSpecification(searchRequest);
-        Page<Post> postsPage = postRepository.findAll(spec, pageable);
+        // Matching and ranking happen in the index; only the posts of the page are read
+        List<PostSummaryDto> content = loadInOrder(hits.ids()).stream()
+                .map(post -> {
+                    PostSummaryDto dto = mapEntityToSummaryDto(post);
+                    dto.setHighlights(highlight(post, hits.matchedTerms()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
 
-        return mapToSummaryPaginationResponse(postsPage);
+        Page<PostSummaryDto> page = new PageImpl<>(content, PageRequest.of(query.page(), query.size()), hits.totalHits());
+        return PaginationResponse.of(page, content, null);
+    }
+
+    @Override
+    public boolean reindexSearch() {
+        return searchIndexer.reindexAsync();
     }
 
     @Override
     public List<PostSummaryDto> getRelatedPosts(Long postId, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Post> relatedPosts = postRepository.findRelatedPosts(postId, PostStatus.PUBLISHED, pageable);
-        return relatedPosts.stream()
-                .map(this::mapEntityToSummaryDto)
-                .collect(Collectors.toList());
+        if (!relatedPostsIndex.isReady()) {
+            // The index is still loading after a restart
+            Pageable pageable = PageRequest.of(0, limit);
+            List<Post> relatedPosts = postRepository.findRelatedPosts(postId, PostStatus.PUBLISHED, pageable);
+            return relatedPosts.stream()
+                    .map(this::mapEntityToSummaryDto)
+                    .collect(Collectors.toList());
+        }
+        return cachedSummaries(relatedPostsIndex.related(postId, limit));
     }
 
     @Override
     @Cacheable(value = "popular-posts", key = "#limit")
     public List<PostSummaryDto> getPopularPosts(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        Page<Post> popularPosts = postRepository.findByStatusOrderByViewCountDesc(PostStatus.PUBLISHED, pageable);
-        return popularPosts.getContent().stream()
+        List<Post> popularPosts = postRepository.findByStatusOrderByViewCountDesc(PostStatus.PUBLISHED, pageable);
+        return popularPosts.stream()
                 .map(this::mapEntityToSummaryDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<PostSummaryDto> getTrendingPosts(TrendingWindow window, int limit) {
+        List<Long> ids = trendingService.top(window, limit).stream()
+                .map(TrendingService.TrendingPost::postId)
+                .collect(Collectors.toList());
+        return cachedSummaries(ids);
+    }
+
     @Override
     @Cacheable(value = "recent-posts", key = "#limit")
     public List<PostSummaryDto> getRecentPosts(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
-        Page<Post> recentPosts = postRepository.findTop10ByStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
-        return recentPosts.getContent().stream()
+        List<Post> recentPosts = postRepository.findTop10ByStatusOrderByPublishedDateDesc(PostStatus.PUBLISHED, pageable);
+        return recentPosts.stream()
                 .map(this::mapEntityToSummaryDto)
                 .collect(Collectors.toList());
     }
 
 
     @Override
-    @Transactional
     public void incrementViewCount(Long id) {
-        postRepository.incrementViewCount(id);
+        viewCountService.increment(id);
+        trendingService.recordView(id);
+        rollupService.recordView(id);
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public PostDto publishPost(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id.toString()));
+        PostCacheState previousState = PostCacheState.of(post);
 
         post.setStatus(PostStatus.PUBLISHED);
         post.setPublishedDate(LocalDateTime.now());
 
         Post savedPost = postRepository.save(post);
+        postCacheInvalidator.postChanged(previousState, PostCacheState.of(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.PUBLISHED));
         return mapEntityToDto(savedPost);
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public PostDto unpublishPost(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id.toString()));
+        PostCacheState previousState = PostCacheState.of(post);
 
         post.setStatus(PostStatus.DRAFT);
 
         Post savedPost = postRepository.save(post);
+        postCacheInvalidator.postChanged(previousState, PostCacheState.of(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.UNPUBLISHED));
         return mapEntityToDto(savedPost);
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts", "recent-posts"}, allEntries = true)
     public PostDto schedulePost(Long id, String publishDate) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id.toString()));
+        PostCacheState previousState = PostCacheState.of(post);
 
         post.setStatus(PostStatus.SCHEDULED);
         post.setPublishedDate(LocalDateTime.parse(publishDate, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
 
         Post savedPost = postRepository.save(post);
+        postCacheInvalidator.postChanged(previousState, PostCacheState.of(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.UPDATED));
         return mapEntityToDto(savedPost);
     }
 
     @Override
-    @CacheEvict(value = {"posts", "featured-posts"}, allEntries = true)
     public PostDto toggleFeatured(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id.toString()));
+        PostCacheState previousState = PostCacheState.of(post);
 
         post.setIsFeatured(!post.getIsFeatured());
 
         Post savedPost = postRepository.save(post);
+        postCacheInvalidator.postChanged(previousState, PostCacheState.of(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangedEvent.Type.UPDATED));
         return mapEntityToDto(savedPost);
     }
 
@@ -309,8 +489,8 @@ public class PostServiceImpl implements PostService {
     }
 
     private PostDto mapEntityToDto(Post entity) {
-        PostDto dto = modelMapper.map(entity, PostDto.class);
-        dto.setAuthor(modelMapper.map(entity.getAuthor(), UserSummaryDto.class));
+        PostDto dto = postMapper.toDto(entity);
+        dto.setViewCount(viewCountService.currentViewCount(entity));
         return dto;
     }
 
@@ -334,44 +514,237 @@ public class PostServiceImpl implements PostService {
     }
 
     private PostSummaryDto mapEntityToSummaryDto(Post entity) {
-        PostSummaryDto dto = modelMapper.map(entity, PostSummaryDto.class);
-        dto.setAuthor(modelMapper.map(entity.getAuthor(), UserSummaryDto.class));
+        PostSummaryDto dto = postMapper.toSummaryDto(entity);
+        dto.setViewCount(viewCountService.currentViewCount(entity));
         return dto;
     }
 
-    private PaginationResponse<PostSummaryDto> mapToSummaryPaginationResponse(Page<Post> postsPage) {
+    private PaginationResponse<PostSummaryDto> mapToSummaryPaginationResponse(Slice<Post> postsPage, Long approximateTotal) {
         List<PostSummaryDto> content = postsPage.getContent().stream()
                 .map(this::mapEntityToSummaryDto)
                 .collect(Collectors.toList());
 
-        PaginationResponse<PostSummaryDto> response = new PaginationResponse<>();
-        response.setContent(content);
-        response.setPage(postsPage.getNumber());
-        response.setSize(postsPage.getSize());
-        response.setTotalPages(postsPage.getTotalPages());
-        response.setTotalElements(postsPage.getTotalElements());
-        response.setLast(postsPage.isLast());
-        response.setFirst(postsPage.isFirst());
-        response.setEmpty(postsPage.isEmpty());
+        return PaginationResponse.of(postsPage, content, approximateTotal);
+    }
+
+    private Long approximateCount(CountMode countMode, String key, Supplier<Long> counter) {
+        return CountMode.APPROXIMATE.equals(countMode) ? listingCountCache.get(key, counter) : null;
+    }
+
+    private CursorPageResponse<PostSummaryDto> findPostsAfter(Specification<Post> listing, String cursor, int pageSize) {
+        requirePageSize(pageSize);
+        Specification<Post> spec = listing.and(PostSpecifications.publishedBefore(PostCursor.decode(cursor)));
+
+        // Fetch one extra row to learn whether another page follows, instead of counting
+        List<Post> posts = postRepository.findBy(spec, query -> query
+                .project("author")
+                .sortBy(PostSpecifications.PUBLISHED_DATE_DESC)
+                .limit(pageSize + 1)
+                .all());
+        return toCursorPage(posts, pageSize);
+    }
+
+    private static void requirePageNo(int pageNo) {
+        if (pageNo < 0) {
+            throw new BadRequestException("pageNo must not be negative");
+        }
+    }
+
+    private static void requirePageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BadRequestException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // posts holds up to pageSize + 1 entries, the extra one only signalling a next page
+    private CursorPageResponse<PostSummaryDto> toCursorPage(List<Post> posts, int pageSize) {
+        boolean hasNext = posts.size() > pageSize;
+        List<Post> pagePosts = hasNext ? posts.subList(0, pageSize) : posts;
+
+        List<PostSummaryDto> content = pagePosts.stream()
+                .map(this::mapEntityToSummaryDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            Post last = pagePosts.get(pagePosts.size() - 1);
+            nextCursor = new PostCursor(last.getPublishedDate(), last.getId()).encode();
+        }
+
+        return new CursorPageResponse<>(content, pageSize, nextCursor, hasNext);
+    }
+
+    // The given posts in the given order, skipping any deleted since their ids were looked up
+    private List<Post> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Post> posts = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Summaries of the published posts among ids from the post-summaries cache, reading only the misses;
+    // post writes evict their entry, so only published posts are ever cached
+    private List<PostSummaryDto> cachedSummaries(List<Long> ids) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache("post-summaries"));
+        Map<Long, PostSummaryDto> summaries = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            PostSummaryDto summary = cache.get(id, PostSummaryDto.class);
+            if (summary != null && PostStatus.PUBLISHED.equals(summary.getStatus())) {
+                summaries.put(id, summary);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (Post post : publishedInOrder(missing)) {
+            PostSummaryDto summary = mapEntityToSummaryDto(post);
+            cache.put(post.getId(), summary);
+            summaries.put(post.getId(), summary);
+        }
+        return ids.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
-        return response;
+    // The posting lists trail writes by one indexer run, so drop posts unpublished in between
+    private List<Post> publishedInOrder(List<Long> ids) {
+        return loadInOrder(ids).stream()
+                .filter(post -> PostStatus.PUBLISHED.equals(post.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    private PaginationResponse<PostSummaryDto> listTaggedPosts(Set<Long> tagIds, boolean matchAll, int pageNo, int pageSize) {
+        requirePageNo(pageNo);
+        requirePageSize(pageSize);
+        TagPostingIndex.TagPage tagPage = tagPostingIndex.page(tagIds, matchAll, (long) pageNo * pageSize, pageSize);
+        List<PostSummaryDto> content = publishedInOrder(tagPage.ids()).stream()
+                .map(this::mapEntityToSummaryDto)
+                .collect(Collectors.toList());
+        Page<PostSummaryDto> page = new PageImpl<>(content, PageRequest.of(pageNo, pageSize), tagPage.total());
+        return PaginationResponse.of(page, content, null);
+    }
+
+    // Used while the posting lists are loading
+    private PaginationResponse<PostSummaryDto> findTaggedPosts(Specification<Post> tagged, int pageNo, int pageSize) {
+        requirePageNo(pageNo);
+        requirePageSize(pageSize);
+        Page<Post> postsPage = postRepository.findAll(PostSpecifications.hasStatus(PostStatus.PUBLISHED).and(tagged),
+                PageRequest.of(pageNo, pageSize, PostSpecifications.PUBLISHED_DATE_DESC));
+        return mapToSummaryPaginationResponse(postsPage, null);
+    }
+
+    // Tags only, over published posts, newest first: exactly what the posting lists hold
+    private static boolean isTagListing(SearchRequestDto searchRequest) {
+        return searchRequest.getTags() != null && !searchRequest.getTags().isEmpty()
+                && !StringUtils.hasText(searchRequest.getQuery())
+                && !StringUtils.hasText(searchRequest.getAuthor())
+                && !Boolean.TRUE.equals(searchRequest.getFeaturedOnly())
+                && PostStatus.PUBLISHED.equals(searchStatus(searchRequest))
+                && SearchQuery.Order.of(searchRequest.getSortBy(), false) == SearchQuery.Order.PUBLISHED_DATE
+                && !"asc".equalsIgnoreCase(searchRequest.getSortDirection());
+    }
+
+    // Unknown names can't match; under ALL one of them rules out every post
+    private Set<Long> resolveTagIds(Set<String> tagNames, boolean matchAll) {
+        Set<Long> tagIds = new HashSet<>();
+        for (String tagName : tagNames) {
+            Optional<Long> tagId = tagPostingIndex.tagId(tagName);
+            if (tagId.isPresent()) {
+                tagIds.add(tagId.get());
+            } else if (matchAll) {
+                return Set.of();
+            }
+        }
+        return tagIds;
+    }
+
+    private Map<String, String> highlight(Post post, List<String> matchedTerms) {
+        Map<String, String> highlights = new LinkedHashMap<>();
+        putIfPresent(highlights, "title", Highlighter.highlight(post.getTitle(), matchedTerms, TITLE_FRAGMENT_LENGTH));
+        putIfPresent(highlights, "excerpt", Highlighter.highlight(post.getExcerpt(), matchedTerms, EXCERPT_FRAGMENT_LENGTH));
+        putIfPresent(highlights, "content", Highlighter.highlight(post.getContent(), matchedTerms, CONTENT_FRAGMENT_LENGTH));
+        return highlights;
+    }
+
+    private static void putIfPresent(Map<String, String> map, String key, String value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private SearchQuery createSearchQuery(SearchRequestDto searchRequest) {
+        boolean hasText = StringUtils.hasText(searchRequest.getQuery());
+        return new SearchQuery(
+                searchRequest.getQuery(),
+                searchRequest.getTags(),
+                TagMatch.ALL.equals(searchRequest.getTagMatch()),
+                searchRequest.getAuthor(),
+                searchStatus(searchRequest),
+                Boolean.TRUE.equals(searchRequest.getFeaturedOnly()),
+                SearchQuery.Order.of(searchRequest.getSortBy(), hasText),
+                "asc".equalsIgnoreCase(searchRequest.getSortDirection()),
+                searchPage(searchRequest),
+                searchSize(searchRequest));
+    }
+
+    // The controller forces PUBLISHED for non-admins; drafts only show up when an admin asks
+    private static PostStatus searchStatus(SearchRequestDto searchRequest) {
+        return searchRequest.getStatus() != null ? searchRequest.getStatus() : PostStatus.PUBLISHED;
+    }
+
+    private static int searchPage(SearchRequestDto searchRequest) {
+        int page = searchRequest.getPage() != null ? searchRequest.getPage() : 0;
+        requirePageNo(page);
+        return page;
+    }
+
+    private static int searchSize(SearchRequestDto searchRequest) {
+        int size = searchRequest.getSize() != null ? searchRequest.getSize() : 10;
+        requirePageSize(size);
+        return size;
     }
 
     private Pageable createPageable(SearchRequestDto searchRequest) {
+        String sortBy = searchRequest.getSortBy();
+        // Relevance needs the index; the database fallback orders by date instead
+        if (!StringUtils.hasText(sortBy) || "relevance".equals(sortBy)) {
+            sortBy = "publishedDate";
+        }
         Sort sort = Sort.by(
-                "desc".equalsIgnoreCase(searchRequest.getSortDirection()) ?
-                        Sort.Direction.DESC : Sort.Direction.ASC,
-                searchRequest.getSortBy()
+                "asc".equalsIgnoreCase(searchRequest.getSortDirection()) ?
+                        Sort.Direction.ASC : Sort.Direction.DESC,
+                sortBy
         );
-        return PageRequest.of(searchRequest.getPage(), searchRequest.getSize(), sort);
+        return PageRequest.of(searchPage(searchRequest), searchSize(searchRequest), sort);
     }
 
     private Specification<Post> createSearchSpecification(SearchRequestDto searchRequest) {
-        return (root, query, criteriaBuilder) -> {
-            // Implementation of complex search specification
-            // This would include all the filtering logic based on the search request
-            return criteriaBuilder.conjunction(); // Simplified for brevity
-        };
+        Specification<Post> spec = PostSpecifications.hasStatus(searchStatus(searchRequest));
+        if (StringUtils.hasText(searchRequest.getQuery())) {
+            spec = spec.and(PostSpecifications.containsText(searchRequest.getQuery().trim()));
+        }
+        if (StringUtils.hasText(searchRequest.getAuthor())) {
+            spec = spec.and(PostSpecifications.hasAuthor(searchRequest.getAuthor()));
+        }
+        if (Boolean.TRUE.equals(searchRequest.getFeaturedOnly())) {
+            spec = spec.and(PostSpecifications.isFeatured());
+        }
+        if (searchRequest.getTags() != null && !searchRequest.getTags().isEmpty()) {
+            if (TagMatch.ALL.equals(searchRequest.getTagMatch())) {
+                for (String tagName : searchRequest.getTags()) {
+                    spec = spec.and(PostSpecifications.hasTag(tagName));
+                }
+            } else {
+                spec = spec.and(PostSpecifications.hasAnyTag(searchRequest.getTags()));
+            }
+        }
+        return spec;
     }
 
 
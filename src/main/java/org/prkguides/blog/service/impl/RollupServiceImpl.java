@@ -0,0 +1,292 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.enums.RollupDimension;
+import org.prkguides.blog.enums.RollupMetric;
+import org.prkguides.blog.service.RollupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hourly and daily view and comment rollups per post, author, tag and for the whole site.
+ * Events are counted in memory per hour and post; a scheduled flush resolves each post's
+ * author and tags and adds the counts to both the hourly and the daily rows in one
+ * transaction. The daily rollup is therefore always complete, and compaction only has to
+ * prune hourly rows past their retention.
+ */
+@Slf4j
+@Service
+public class RollupServiceImpl implements RollupService {
+
+    private static final long SITE_ID = 0L;
+    private static final int RESOLVE_CHUNK = 1000;
+    // A daily window builds one entry per day, so a huge days value must not size the response
+    private static final int MAX_DAYS = 366;
+
+    private static final String SELECT_AUTHORS = "SELECT id, author_id FROM posts WHERE id IN (:ids)";
+    private static final String SELECT_TAGS = "SELECT post_id, tag_id FROM post_tags WHERE post_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int hourlyRetentionHours;
+
+    // Events not flushed yet, per hour and then per post
+    private final Map<LocalDateTime, Map<Long, Counts>> pending = new ConcurrentHashMap<>();
+    private final Counter flushedEvents;
+    private final Counter failedFlushes;
+
+    public RollupServiceImpl(NamedParameterJdbcTemplate namedJdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${blog.rollups.hourly-retention-hours:48}") int hourlyRetentionHours,
+                             MeterRegistry meterRegistry) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = namedJdbcTemplate.getJdbcTemplate();
+        this.transactionTemplate = transactionTemplate;
+        this.hourlyRetentionHours = Math.max(1, hourlyRetentionHours);
+        this.flushedEvents = meterRegistry.counter("blog.rollups.flushed");
+        this.failedFlushes = meterRegistry.counter("blog.rollups.flush.failures");
+    }
+
+    private static final class Counts {
+
+        private final LongAdder views = new LongAdder();
+        private final LongAdder comments = new LongAdder();
+    }
+
+    private record Delta(LocalDateTime hour, Long postId, long views, long comments) {
+    }
+
+    private record RowKey(RollupDimension dimension, long dimensionId, Object bucket) {
+    }
+
+    @Override
+    public void recordView(Long postId) {
+        counts(postId).views.increment();
+    }
+
+    @Override
+    public void recordComment(Long postId) {
+        counts(postId).comments.increment();
+    }
+
+    @Override
+    public void recordComments(Long postId, long count) {
+        counts(postId).comments.add(count);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.rollups.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        List<Delta> deltas = drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<Long> postIds = new HashSet<>();
+            deltas.forEach(delta -> postIds.add(delta.postId()));
+            Map<Long, Long> authors = new HashMap<>();
+            Map<Long, List<Long>> tags = new HashMap<>();
+            resolve(postIds, authors, tags);
+
+            Map<RowKey, long[]> hourly = new LinkedHashMap<>();
+            Map<RowKey, long[]> daily = new LinkedHashMap<>();
+            for (Delta delta : deltas) {
+                Timestamp hour = Timestamp.valueOf(delta.hour());
+                Date date = Date.valueOf(delta.hour().toLocalDate());
+                List<Map.Entry<RollupDimension, Long>> targets = new ArrayList<>();
+                targets.add(Map.entry(RollupDimension.POST, delta.postId()));
+                targets.add(Map.entry(RollupDimension.SITE, SITE_ID));
+                if (authors.containsKey(delta.postId())) {
+                    targets.add(Map.entry(RollupDimension.AUTHOR, authors.get(delta.postId())));
+                }
+                tags.getOrDefault(delta.postId(), List.of())
+                        .forEach(tagId -> targets.add(Map.entry(RollupDimension.TAG, tagId)));
+
+                for (Map.Entry<RollupDimension, Long> target : targets) {
+                    add(hourly, new RowKey(target.getKey(), target.getValue(), hour), delta);
+                    add(daily, new RowKey(target.getKey(), target.getValue(), date), delta);
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                upsert("rollup_hourly", "rollup_hour", hourly);
+                upsert("rollup_daily", "rollup_date", daily);
+            });
+            flushedEvents.increment(deltas.stream().mapToLong(delta -> delta.views() + delta.comments()).sum());
+            log.debug("Flushed rollups for {} post hours", deltas.size());
+        } catch (Exception ex) {
+            // Nothing was written, put the counts back for the next flush
+            deltas.forEach(delta -> {
+                Counts counts = pending.computeIfAbsent(delta.hour(), hour -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(delta.postId(), id -> new Counts());
+                counts.views.add(delta.views());
+                counts.comments.add(delta.comments());
+            });
+            failedFlushes.increment();
+            log.error("Failed to flush rollups for {} post hours", deltas.size(), ex);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${blog.rollups.compaction-cron:0 5 * * * *}")
+    public int compact() {
+        LocalDateTime cutoff = currentHour().minusHours(hourlyRetentionHours);
+        int pruned = jdbcTemplate.update("DELETE FROM rollup_hourly WHERE rollup_hour < ?", Timestamp.valueOf(cutoff));
+        log.debug("Pruned {} hourly rollup rows before {}", pruned, cutoff);
+        return pruned;
+    }
+
+    @Override
+    public List<RollupDay> daily(RollupDimension dimension, Long dimensionId, int days) {
+        LocalDate today = LocalDate.now();
+        LocalDate first = firstDay(today, days);
+        Map<LocalDate, RollupDay> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT rollup_date, views, comments FROM rollup_daily " +
+                        "WHERE dimension = ? AND dimension_id = ? AND rollup_date >= ?",
+                rs -> {
+                    LocalDate date = rs.getDate(1).toLocalDate();
+                    rows.put(date, new RollupDay(date, rs.getLong(2), rs.getLong(3)));
+                }, dimension.name(), dimensionId, Date.valueOf(first));
+
+        List<RollupDay> daily = new ArrayList<>();
+        for (LocalDate date = first; !date.isAfter(today); date = date.plusDays(1)) {
+            daily.add(rows.getOrDefault(date, new RollupDay(date, 0, 0)));
+        }
+        return daily;
+    }
+
+    @Override
+    public List<RollupHour> hourly(RollupDimension dimension, Long dimensionId, int hours) {
+        LocalDateTime current = currentHour();
+        LocalDateTime first = current.minusHours(Math.min(Math.max(1, hours), hourlyRetentionHours) - 1L);
+        Map<LocalDateTime, RollupHour> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT rollup_hour, views, comments FROM rollup_hourly " +
+                        "WHERE dimension = ? AND dimension_id = ? AND rollup_hour >= ?",
+                rs -> {
+                    LocalDateTime hour = rs.getTimestamp(1).toLocalDateTime();
+                    rows.put(hour, new RollupHour(hour, rs.getLong(2), rs.getLong(3)));
+                }, dimension.name(), dimensionId, Timestamp.valueOf(first));
+
+        List<RollupHour> hourly = new ArrayList<>();
+        for (LocalDateTime hour = first; !hour.isAfter(current); hour = hour.plusHours(1)) {
+            hourly.add(rows.getOrDefault(hour, new RollupHour(hour, 0, 0)));
+        }
+        return hourly;
+    }
+
+    @Override
+    public List<RollupEntry> top(RollupDimension dimension, RollupMetric metric, int days, int limit) {
+        LocalDate first = firstDay(LocalDate.now(), days);
+        return jdbcTemplate.query("SELECT dimension_id, SUM(views), SUM(comments) FROM rollup_daily " +
+                        "WHERE dimension = ? AND rollup_date >= ? GROUP BY dimension_id " +
+                        "ORDER BY SUM(" + metric.getColumn() + ") DESC, dimension_id DESC LIMIT ?",
+                (rs, rowNum) -> new RollupEntry(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                dimension.name(), Date.valueOf(first), limit);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending rollups before shutdown");
+        flush();
+    }
+
+    private static LocalDate firstDay(LocalDate today, int days) {
+        return today.minusDays(Math.min(Math.max(1, days), MAX_DAYS) - 1L);
+    }
+
+    private Counts counts(Long postId) {
+        return pending.computeIfAbsent(currentHour(), hour -> new ConcurrentHashMap<>())
+                .computeIfAbsent(postId, id -> new Counts());
+    }
+
+    private List<Delta> drain() {
+        LocalDateTime previousHour = currentHour().minusHours(1);
+        List<Delta> deltas = new ArrayList<>();
+        Iterator<Map.Entry<LocalDateTime, Map<Long, Counts>>> hours = pending.entrySet().iterator();
+        while (hours.hasNext()) {
+            Map.Entry<LocalDateTime, Map<Long, Counts>> hour = hours.next();
+            hour.getValue().forEach((postId, counts) -> {
+                long views = counts.views.sumThenReset();
+                long comments = counts.comments.sumThenReset();
+                if (views > 0 || comments > 0) {
+                    deltas.add(new Delta(hour.getKey(), postId, views, comments));
+                }
+            });
+            // Nothing records into an hour once the next one has started
+            if (hour.getKey().isBefore(previousHour)) {
+                hours.remove();
+            }
+        }
+        return deltas;
+    }
+
+    private void resolve(Set<Long> postIds, Map<Long, Long> authors, Map<Long, List<Long>> tags) {
+        List<Long> ids = new ArrayList<>(postIds);
+        for (int from = 0; from < ids.size(); from += RESOLVE_CHUNK) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                    ids.subList(from, Math.min(ids.size(), from + RESOLVE_CHUNK)));
+            namedJdbcTemplate.query(SELECT_AUTHORS, params,
+                    rs -> {
+                        authors.put(rs.getLong(1), rs.getLong(2));
+                    });
+            namedJdbcTemplate.query(SELECT_TAGS, params,
+                    rs -> {
+                        tags.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+                    });
+        }
+    }
+
+    private static void add(Map<RowKey, long[]> rows, RowKey key, Delta delta) {
+        long[] counts = rows.computeIfAbsent(key, k -> new long[2]);
+        counts[0] += delta.views();
+        counts[1] += delta.comments();
+    }
+
+    // Adds to the existing rows in one batch, then inserts the rows that weren't there
+    private void upsert(String table, String bucketColumn, Map<RowKey, long[]> rows) {
+        List<RowKey> keys = new ArrayList<>(rows.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (RowKey key : keys) {
+            long[] counts = rows.get(key);
+            updates.add(new Object[]{counts[0], counts[1], key.dimension().name(), key.dimensionId(), key.bucket()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE " + table + " SET views = views + ?, comments = comments + ? " +
+                "WHERE dimension = ? AND dimension_id = ? AND " + bucketColumn + " = ?", updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                RowKey key = keys.get(i);
+                long[] counts = rows.get(key);
+                inserts.add(new Object[]{key.dimension().name(), key.dimensionId(), key.bucket(), counts[0], counts[1]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (dimension, dimension_id, " + bucketColumn +
+                    ", views, comments) VALUES (?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    private static LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+}
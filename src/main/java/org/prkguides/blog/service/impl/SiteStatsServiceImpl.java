@@ -0,0 +1,69 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.service.SiteStatsService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Site totals kept as a periodically refreshed snapshot, so dashboards read them without
+ * touching the database. Each refresh is two aggregate queries over the posts table's
+ * status and view_count columns, never the post rows themselves. View counts still buffered
+ * in memory are not part of the snapshot; callers wanting them add the pending total.
+ */
+@Slf4j
+@Service
+public class SiteStatsServiceImpl implements SiteStatsService {
+
+    private static final String TOTALS_SQL =
+            "SELECT COALESCE(SUM(view_count), 0), COUNT(*), " +
+            "COUNT(CASE WHEN status = 'PUBLISHED' THEN 1 END), " +
+            "COUNT(CASE WHEN status = 'DRAFT' THEN 1 END), " +
+            "COUNT(CASE WHEN status = 'SCHEDULED' THEN 1 END), " +
+            "COALESCE(SUM(CASE WHEN status = 'PUBLISHED' THEN view_count END), 0) " +
+            "FROM posts";
+    private static final String AUTHORS_SQL =
+            "SELECT u.id, u.username, COUNT(CASE WHEN p.status = 'PUBLISHED' THEN 1 END), " +
+            "COALESCE(SUM(p.view_count), 0) " +
+            "FROM users u LEFT JOIN posts p ON p.author_id = u.id " +
+            "GROUP BY u.id, u.username ORDER BY 4 DESC, u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer refreshTimer;
+
+    private volatile SiteStats stats;
+
+    public SiteStatsServiceImpl(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshTimer = meterRegistry.timer("blog.stats.refresh");
+    }
+
+    @Override
+    public SiteStats getStats() {
+        SiteStats current = stats;
+        return current != null ? current : refresh();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.stats.refresh-interval-ms:60000}")
+    public synchronized SiteStats refresh() {
+        stats = refreshTimer.record(() -> {
+            SiteStats totals = jdbcTemplate.queryForObject(TOTALS_SQL, (rs, rowNum) ->
+                    new SiteStats(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                            rs.getLong(6), List.of(), LocalDateTime.now()));
+            List<AuthorStats> authors = jdbcTemplate.query(AUTHORS_SQL, (rs, rowNum) ->
+                    new AuthorStats(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4)));
+            return new SiteStats(totals.totalViews(), totals.totalPosts(), totals.publishedPosts(),
+                    totals.draftPosts(), totals.scheduledPosts(), totals.publishedViews(),
+                    List.copyOf(authors), totals.refreshedAt());
+        });
+        log.debug("Site stats refreshed: {} published posts, {} views", stats.publishedPosts(), stats.totalViews());
+        return stats;
+    }
+}
@@ -2,30 +2,36 @@ package org.prkguides.blog.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.prkguides.blog.dto.PaginationResponse;
 import org.prkguides.blog.dto.PostSummaryDto;
 import org.prkguides.blog.dto.TagCreateDto;
 import org.prkguides.blog.dto.TagDto;
-import org.prkguides.blog.entity.Post;
 import org.prkguides.blog.entity.Tag;
 import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.TagMatch;
+import org.prkguides.blog.event.PostChangedEvent;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
+import org.prkguides.blog.mapper.TagMapper;
 import org.prkguides.blog.repository.PostRepository;
 import org.prkguides.blog.repository.TagRepository;
+import org.prkguides.blog.search.TagPostingIndex;
+import org.prkguides.blog.service.PostService;
 import org.prkguides.blog.service.TagService;
 import org.prkguides.blog.utils.SlugUtils;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,8 +41,11 @@ import java.util.stream.Collectors;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final TagMapper tagMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostService postService;
     private final PostRepository postRepository;
-    private final ModelMapper modelMapper;
+    private final TagPostingIndex tagPostingIndex;
 
     @Override
     @CacheEvict(value = {"tags", "popular-tags"}, allEntries = true)
@@ -77,6 +86,7 @@ public class TagServiceImpl implements TagService {
                     }
                 });
 
+        boolean renamed = !existingTag.getName().equals(tagUpdateDto.getName());
         existingTag.setName(tagUpdateDto.getName());
         existingTag.setDescription(tagUpdateDto.getDescription());
         existingTag.setColor(tagUpdateDto.getColor());
@@ -89,6 +99,9 @@ public class TagServiceImpl implements TagService {
         }
 
         Tag savedTag = tagRepository.save(existingTag);
+        if (renamed) {
+            publishTaggedPostsChanged(savedTag);
+        }
         log.info("Tag updated successfully with ID: {}", savedTag.getId());
 
         return mapEntityToDto(savedTag);
@@ -120,10 +133,17 @@ public class TagServiceImpl implements TagService {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tag", "id", id.toString()));
 
+        publishTaggedPostsChanged(tag);
         tagRepository.delete(tag);
         log.info("Tag deleted successfully with ID: {}", id);
     }
 
+    // Tag names are indexed with the post, so renaming or deleting a tag changes every post carrying it
+    private void publishTaggedPostsChanged(Tag tag) {
+        tag.getPosts().forEach(post ->
+                eventPublisher.publishEvent(new PostChangedEvent(post.getId(), PostChangedEvent.Type.UPDATED)));
+    }
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "tags", key = "'all-' + #pageNo + '-' + #pageSize")
@@ -152,14 +172,27 @@ public class TagServiceImpl implements TagService {
     @Transactional(readOnly = true)
     @Cacheable(value = "popular-tags", key = "#limit")
     public List<TagDto> getPopularTags(int limit) {
-        List<Object[]> popularTagsData = tagRepository.findPopularTags();
+        if (tagPostingIndex.isReady()) {
+            // Counts and order come from the maintained leaderboard; only the top tags themselves are read
+            List<TagPostingIndex.TagCount> top = tagPostingIndex.popular(limit);
+            Map<Long, Tag> tags = tagRepository.findAllById(top.stream().map(TagPostingIndex.TagCount::tagId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Tag::getId, Function.identity()));
+            return top.stream()
+                    .filter(count -> tags.containsKey(count.tagId()))
+                    .map(count -> {
+                        TagDto dto = tagMapper.toDto(tags.get(count.tagId()));
+                        dto.setPostCount((int) count.count());
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+        }
 
-        return popularTagsData.stream()
-                .limit(limit)
+        return tagRepository.findPopularTags(PageRequest.of(0, limit)).stream()
                 .map(result -> {
                     Tag tag = (Tag) result[0];
                     Long postCount = (Long) result[1];
-                    TagDto dto = mapEntityToDto(tag);
+                    TagDto dto = tagMapper.toDto(tag);
                     dto.setPostCount(postCount.intValue());
                     return dto;
                 })
@@ -178,36 +211,10 @@ public class TagServiceImpl implements TagService {
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<PostSummaryDto> getPostsByTag(Long tagId, int pageNo, int pageSize) {
-        Tag tag = tagRepository.findById(tagId)
-                .orElseThrow(() -> new ResourceNotFoundException("Tag", "id", tagId.toString()));
-
-        Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("publishedDate").descending());
-
-        // Create specification to find posts by tag
-        Specification<Post> spec = (root, query, criteriaBuilder) -> {
-            return criteriaBuilder.and(
-                    criteriaBuilder.isMember(tag, root.get("tags")),
-                    criteriaBuilder.equal(root.get("status"), PostStatus.PUBLISHED)
-            );
-        };
-
-        Page<Post> postsPage = postRepository.findAll(spec, pageable);
-
-        List<PostSummaryDto> content = postsPage.getContent().stream()
-                .map(post -> modelMapper.map(post, PostSummaryDto.class))
-                .collect(Collectors.toList());
-
-        PaginationResponse<PostSummaryDto> response = new PaginationResponse<>();
-        response.setContent(content);
-        response.setPage(postsPage.getNumber());
-        response.setSize(postsPage.getSize());
-        response.setTotalPages(postsPage.getTotalPages());
-        response.setTotalElements(postsPage.getTotalElements());
-        response.setLast(postsPage.isLast());
-        response.setFirst(postsPage.isFirst());
-        response.setEmpty(postsPage.isEmpty());
-
-        return response;
+        if (!tagRepository.existsById(tagId)) {
+            throw new ResourceNotFoundException("Tag", "id", tagId.toString());
+        }
+        return postService.getPostsByTagIds(Set.of(tagId), TagMatch.ANY, pageNo, pageSize);
     }
 
     @Override
@@ -216,13 +223,13 @@ public class TagServiceImpl implements TagService {
         return tagRepository.count();
     }
 
-    //Todo: Replace with mapper class
     private TagDto mapEntityToDto(Tag tag) {
-        TagDto dto = modelMapper.map(tag, TagDto.class);
-        // Set post count if not already set
-        if (dto.getPostCount() == null) {
-            dto.setPostCount(tag.getPosts().size());
-        }
+        TagDto dto = tagMapper.toDto(tag);
+        // Published posts, as in the popular tags; read from the posting lists rather than loading tag.posts
+        long postCount = tagPostingIndex.isReady()
+                ? tagPostingIndex.count(tag.getId())
+                : postRepository.countByTagsIdAndStatus(tag.getId(), PostStatus.PUBLISHED);
+        dto.setPostCount((int) postCount);
         return dto;
     }
 }
@@ -0,0 +1,175 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.enums.TrendingWindow;
+import org.prkguides.blog.service.TrendingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory trending scores. A view only bumps the post's open bucket; every bucket interval
+ * the buckets are closed into a one-hour ring (for exact recent counts) and folded into one
+ * exponentially decayed score per window, score = score * e^(-bucket / window) + views.
+ * The top-n of each window is then rebuilt into an immutable list, so reads never touch the
+ * counters. Scores start empty after a restart and build up again from live views.
+ */
+@Slf4j
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final TrendingWindow[] WINDOWS = TrendingWindow.values();
+
+    // A post whose every score fell below this and that had no views in the last hour is dropped
+    private static final double IDLE_SCORE = 0.05;
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final Map<Long, PostActivity> activity = new ConcurrentHashMap<>();
+    private final int bucketsPerHour;
+    private final int topN;
+    private final int maxTracked;
+    private final double[] decay = new double[WINDOWS.length];
+    private final Timer rollTimer;
+    private final Counter untrackedViews;
+
+    // Guarded by roll()
+    private int position;
+
+    private volatile Map<TrendingWindow, List<TrendingPost>> leaders = emptyLeaders();
+
+    public TrendingServiceImpl(@Value("${blog.trending.bucket-ms:60000}") long bucketMillis,
+                               @Value("${blog.trending.top-n:100}") int topN,
+                               @Value("${blog.trending.max-tracked:100000}") int maxTracked,
+                               MeterRegistry meterRegistry) {
+        this.bucketsPerHour = (int) Math.max(1, TrendingWindow.HOUR.getDuration().toMillis() / bucketMillis);
+        this.topN = Math.max(1, topN);
+        this.maxTracked = Math.max(this.topN, maxTracked);
+        for (TrendingWindow window : WINDOWS) {
+            decay[window.ordinal()] = Math.exp(-(double) bucketMillis / window.getDuration().toMillis());
+        }
+        this.rollTimer = meterRegistry.timer("blog.trending.roll");
+        this.untrackedViews = meterRegistry.counter("blog.trending.untracked");
+        Gauge.builder("blog.trending.tracked-posts", activity, Map::size)
+                .description("Posts with a live trending score")
+                .register(meterRegistry);
+    }
+
+    private final class PostActivity {
+
+        // Views in the open bucket; RETIRED once the entry has been dropped as idle
+        private final AtomicInteger open = new AtomicInteger();
+
+        // Closed buckets of the last hour and their sum, guarded by roll()
+        private final int[] buckets = new int[bucketsPerHour];
+        private long lastHour;
+        private final double[] scores = new double[WINDOWS.length];
+
+        private boolean idle() {
+            if (lastHour > 0) {
+                return false;
+            }
+            for (double score : scores) {
+                if (score >= IDLE_SCORE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void recordView(Long postId) {
+        while (true) {
+            PostActivity post = activity.get(postId);
+            if (post == null) {
+                // Bounded so no stream of views can grow the map without limit; the cap may be overshot by racing views
+                if (activity.size() >= maxTracked) {
+                    untrackedViews.increment();
+                    return;
+                }
+                post = activity.computeIfAbsent(postId, id -> new PostActivity());
+            }
+            if (post.open.incrementAndGet() > 0) {
+                return;
+            }
+            // Raced with the entry being dropped; the next lookup creates a fresh one
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public List<TrendingPost> top(TrendingWindow window, int limit) {
+        List<TrendingPost> top = leaders.get(window);
+        return top.size() > limit ? top.subList(0, Math.max(0, limit)) : top;
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${blog.trending.bucket-ms:60000}")
+    public synchronized void roll() {
+        rollTimer.record(() -> {
+            List<PriorityQueue<TrendingPost>> heaps = new ArrayList<>(WINDOWS.length);
+            for (int w = 0; w < WINDOWS.length; w++) {
+                heaps.add(new PriorityQueue<>(Comparator.comparingDouble(TrendingPost::score)));
+            }
+
+            position = (position + 1) % bucketsPerHour;
+            Iterator<Map.Entry<Long, PostActivity>> entries = activity.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, PostActivity> entry = entries.next();
+                PostActivity post = entry.getValue();
+                int closed = post.open.getAndSet(0);
+                post.lastHour += closed - post.buckets[position];
+                post.buckets[position] = closed;
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    post.scores[w] = post.scores[w] * decay[w] + closed;
+                }
+
+                if (post.idle() && post.open.compareAndSet(0, RETIRED)) {
+                    entries.remove();
+                    continue;
+                }
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    offer(heaps.get(w), new TrendingPost(entry.getKey(), post.scores[w], post.lastHour));
+                }
+            }
+
+            Map<TrendingWindow, List<TrendingPost>> rebuilt = new EnumMap<>(TrendingWindow.class);
+            for (TrendingWindow window : WINDOWS) {
+                List<TrendingPost> top = new ArrayList<>(heaps.get(window.ordinal()));
+                top.sort(Comparator.comparingDouble(TrendingPost::score).reversed()
+                        .thenComparing(TrendingPost::postId, Comparator.reverseOrder()));
+                rebuilt.put(window, List.copyOf(top));
+            }
+            leaders = rebuilt;
+        });
+        log.debug("Trending scores rolled for {} posts", activity.size());
+    }
+
+    private void offer(PriorityQueue<TrendingPost> heap, TrendingPost post) {
+        if (post.score() < IDLE_SCORE) {
+            return;
+        }
+        if (heap.size() < topN) {
+            heap.add(post);
+        } else if (post.score() > heap.peek().score()) {
+            heap.poll();
+            heap.add(post);
+        }
+    }
+
+    private static Map<TrendingWindow, List<TrendingPost>> emptyLeaders() {
+        Map<TrendingWindow, List<TrendingPost>> empty = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : WINDOWS) {
+            empty.put(window, List.of());
+        }
+        return empty;
+    }
+}
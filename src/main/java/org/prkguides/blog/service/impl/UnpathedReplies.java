@@ -0,0 +1,71 @@
+package org.prkguides.blog.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.repository.CommentRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Replies without a thread path, because the backfill hasn't reached them or they sit deeper
+ * than a path allows, hang below their thread by parent link only. Path range deletes miss
+ * them, so they are collected level by level and deleted before the range they point into.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnpathedReplies {
+
+    private static final int IN_CHUNK = 1000;
+
+    private final CommentRepository commentRepository;
+
+    public record Reply(Long id, Long postId, CommentStatus status) {
+    }
+
+    // At any depth below the subtree at the given path
+    public List<Reply> below(Long postId, String path) {
+        return collect(commentRepository.findUnpathedReplies(postId, path));
+    }
+
+    // At any depth below the given comments
+    public List<Reply> below(Collection<Long> parentIds) {
+        return collect(repliesOf(new ArrayList<>(parentIds)));
+    }
+
+    // Unlinks them first, so the self-referencing foreign key doesn't depend on delete order
+    public int delete(List<Reply> replies) {
+        List<Long> ids = replies.stream().map(Reply::id).toList();
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            commentRepository.unlinkByIdIn(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)));
+        }
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            deleted += commentRepository.deleteByIdIn(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)));
+        }
+        return deleted;
+    }
+
+    private List<Reply> collect(List<Object[]> level) {
+        List<Reply> replies = new ArrayList<>();
+        while (!level.isEmpty()) {
+            List<Long> ids = new ArrayList<>(level.size());
+            for (Object[] row : level) {
+                replies.add(new Reply((Long) row[0], (Long) row[1], (CommentStatus) row[2]));
+                ids.add((Long) row[0]);
+            }
+            level = repliesOf(ids);
+        }
+        return replies;
+    }
+
+    private List<Object[]> repliesOf(List<Long> parentIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int from = 0; from < parentIds.size(); from += IN_CHUNK) {
+            rows.addAll(commentRepository.findUnpathedRepliesOf(parentIds.subList(from, Math.min(parentIds.size(), from + IN_CHUNK))));
+        }
+        return rows;
+    }
+}
@@ -2,15 +2,20 @@ package org.prkguides.blog.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.prkguides.blog.cache.PostCacheInvalidator;
+import org.prkguides.blog.cache.PostCacheInvalidator.PostCacheState;
 import org.prkguides.blog.dto.*;
 import org.prkguides.blog.entity.User;
 import org.prkguides.blog.enums.PostStatus;
 import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.event.PostChangedEvent;
 import org.prkguides.blog.exceptions.ResourceNotFoundException;
+import org.prkguides.blog.mapper.UserMapper;
 import org.prkguides.blog.repository.PostRepository;
 import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.security.CustomUserDetailsService;
 import org.prkguides.blog.service.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,8 +35,11 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PostRepository postRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final PostCacheInvalidator postCacheInvalidator;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -110,6 +118,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(username);
         log.info("Profile updated successfully for user: {}", username);
 
         return mapEntityToDto(savedUser);
@@ -135,6 +144,7 @@ public class UserServiceImpl implements UserService {
         // Update password
         user.setPassword(passwordEncoder.encode(passwordChangeDto.getNewPassword()));
         userRepository.save(user);
+        userDetailsService.evictPrincipal(username);
 
         log.info("Password changed successfully for user: {}", username);
     }
@@ -145,7 +155,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
 
-        return modelMapper.map(user, UserSummaryDto.class);
+        return userMapper.toSummaryDto(user);
     }
 
     @Override
@@ -157,7 +167,7 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
 
         return authors.stream()
-                .map(user -> modelMapper.map(user, UserSummaryDto.class))
+                .map(user -> userMapper.toSummaryDto(user))
                 .collect(Collectors.toList());
     }
 
@@ -168,7 +178,7 @@ public class UserServiceImpl implements UserService {
         Page<User> usersPage = userRepository.findAll(pageable);
 
         List<UserSummaryDto> content = usersPage.getContent().stream()
-                .map(user -> modelMapper.map(user, UserSummaryDto.class))
+                .map(user -> userMapper.toSummaryDto(user))
                 .collect(Collectors.toList());
 
         PaginationResponse<UserSummaryDto> response = new PaginationResponse<>();
@@ -195,6 +205,7 @@ public class UserServiceImpl implements UserService {
             Role role = Role.valueOf(roleString.toUpperCase());
             user.setRole(role);
             User savedUser = userRepository.save(user);
+            userDetailsService.evictPrincipal(savedUser.getUsername());
 
             log.info("Role updated successfully for user ID: {}", id);
             return mapEntityToDto(savedUser);
@@ -212,6 +223,7 @@ public class UserServiceImpl implements UserService {
 
         user.setIsActive(!user.getIsActive());
         User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(savedUser.getUsername());
 
         log.info("Active status toggled for user ID: {} to {}", id, savedUser.getIsActive());
         return mapEntityToDto(savedUser);
@@ -224,14 +236,18 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id.toString()));
 
+        // The user's posts go with it (cascade), so they have to leave the caches and the search index too
+        user.getPosts().forEach(post -> {
+            postCacheInvalidator.postChanged(PostCacheState.of(post), null);
+            eventPublisher.publishEvent(new PostChangedEvent(post.getId(), PostChangedEvent.Type.DELETED));
+        });
         userRepository.delete(user);
+        userDetailsService.evictPrincipal(user.getUsername());
         log.info("User deleted successfully with ID: {}", id);
     }
 
-    //Todo : Move to mapper class
     private UserDto mapUserEntityToDto(User user){
-        UserDto dto = modelMapper.map(user,UserDto.class);
-        dto.setFullName(user.getFullName());
+        UserDto dto = userMapper.toDto(user);
 
         //Get post count for this user
         Long postCount = postRepository.countByAuthorAndStatus(user.getId(), PostStatus.PUBLISHED);
@@ -249,12 +265,11 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Long getActiveUserCount() {
-        return (long) userRepository.findByIsActiveTrue().size();
+        return userRepository.countByIsActiveTrue();
     }
 
     private UserDto mapEntityToDto(User user) {
-        UserDto dto = modelMapper.map(user, UserDto.class);
-        dto.setFullName(user.getFullName());
+        UserDto dto = userMapper.toDto(user);
 
         // Get post count for this user
         Long postCount = postRepository.countByAuthorAndStatus(user.getId(),
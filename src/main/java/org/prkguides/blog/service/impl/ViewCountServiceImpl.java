@@ -0,0 +1,129 @@
+package org.prkguides.blog.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.service.ViewCountService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view counter. Increments land in a per-post LongAdder instead of an
+ * UPDATE on the hottest rows of the posts table; a scheduled flusher writes the
+ * accumulated deltas in JDBC batches. At most one flush interval of views is lost
+ * if the process dies without a clean shutdown. Adders left at zero by a flush are dropped,
+ * so the map only holds posts viewed since the last flush.
+ */
+@Slf4j
+@Service
+public class ViewCountServiceImpl implements ViewCountService {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final Counter flushedViews;
+    private final Counter failedFlushes;
+
+    @Value("${blog.views.flush-batch-size:500}")
+    private int batchSize;
+
+    public ViewCountServiceImpl(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushedViews = meterRegistry.counter("blog.views.flushed");
+        this.failedFlushes = meterRegistry.counter("blog.views.flush.failures");
+        Gauge.builder("blog.views.pending", this, ViewCountServiceImpl::getTotalPendingViews)
+                .description("Views recorded in memory and not yet written to the posts table")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void increment(Long postId) {
+        LongAdder adder = pendingViews.computeIfAbsent(postId, id -> new LongAdder());
+        adder.increment();
+        if (pendingViews.get(postId) != adder) {
+            // A flush dropped the adder as idle in between, move the view to the live one
+            long moved = adder.sumThenReset();
+            if (moved > 0) {
+                pendingViews.computeIfAbsent(postId, id -> new LongAdder()).add(moved);
+            }
+        }
+    }
+
+    @Override
+    public long getPendingViews(Long postId) {
+        LongAdder adder = pendingViews.get(postId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    @Override
+    public long getTotalPendingViews() {
+        return pendingViews.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    @Override
+    public long currentViewCount(Post post) {
+        long persisted = post.getViewCount() != null ? post.getViewCount() : 0L;
+        return persisted + getPendingViews(post.getId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pendingViews.forEach((postId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                batch.add(new Object[]{delta, postId});
+            }
+        });
+        // The deltas are in the batch now; idle posts don't keep an adder
+        pendingViews.forEach((postId, adder) -> {
+            if (adder.sum() == 0 && pendingViews.remove(postId, adder)) {
+                // A view may have landed between the check and the removal; move it to a live adder
+                long late = adder.sumThenReset();
+                if (late > 0) {
+                    pendingViews.computeIfAbsent(postId, id -> new LongAdder()).add(late);
+                }
+            }
+        });
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int written = 0;
+        try {
+            while (written < batch.size()) {
+                List<Object[]> chunk = batch.subList(written, Math.min(batch.size(), written + batchSize));
+                jdbcTemplate.batchUpdate(FLUSH_SQL, chunk);
+                flushedViews.increment(chunk.stream().mapToLong(row -> (Long) row[0]).sum());
+                written += chunk.size();
+            }
+            log.debug("Flushed view counts for {} posts", batch.size());
+        } catch (Exception ex) {
+            // Put the unwritten deltas back so the next flush retries them
+            batch.subList(written, batch.size()).forEach(row ->
+                    pendingViews.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]));
+            failedFlushes.increment();
+            log.error("Failed to flush view counts for {} posts", batch.size() - written, ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending view counts before shutdown");
+        flush();
+    }
+}
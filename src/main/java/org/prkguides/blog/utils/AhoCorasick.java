@@ -0,0 +1,127 @@
+package org.prkguides.blog.utils;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over a fixed set of terms: one pass over the text finds every
+ * occurrence of any term, however many terms there are. Matching ignores case and only counts
+ * whole words, so a term inside a longer word doesn't match. Immutable once built, and safe
+ * for concurrent use.
+ */
+public final class AhoCorasick {
+
+    // Per state, its outgoing characters sorted with the matching target states
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Lengths of the terms ending in each state, those reached through its failure links included
+    private final int[][] outputs;
+
+    public AhoCorasick(Collection<String> terms) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Set<Integer>> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(new HashSet<>());
+        for (String term : terms) {
+            String normalized = term.trim().toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                Integer next = trie.get(state).get(normalized.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(normalized.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    ends.add(new HashSet<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(normalized.length());
+        }
+
+        int states = trie.size();
+        edgeChars = new char[states][];
+        edgeTargets = new int[states][];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            edgeChars[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[state][i] = edge.getKey();
+                edgeTargets[state][i++] = edge.getValue();
+            }
+        }
+
+        // Breadth first, so a state's failure target is complete before its children need it
+        failure = new int[states];
+        outputs = new int[states][];
+        outputs[0] = new int[0];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            outputs[child] = toArray(ends.get(child), new int[0]);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int fallback = failure[state];
+                int target;
+                while ((target = next(fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = Math.max(target, 0);
+                outputs[child] = toArray(ends.get(child), outputs[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return edgeChars[0].length == 0;
+    }
+
+    /**
+     * The first whole-word occurrence of a term in the text, as it appears there, or null.
+     */
+    public String findWord(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int target;
+            while ((target = next(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(target, 0);
+            for (int length : outputs[state]) {
+                int start = i - length + 1;
+                if (!isWordChar(text, start - 1) && !isWordChar(text, i + 1)) {
+                    return text.subSequence(start, i + 1).toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private int next(int state, char c) {
+        int i = Arrays.binarySearch(edgeChars[state], c);
+        return i >= 0 ? edgeTargets[state][i] : -1;
+    }
+
+    private static boolean isWordChar(CharSequence text, int index) {
+        return index >= 0 && index < text.length() && Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static int[] toArray(Set<Integer> own, int[] inherited) {
+        int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+        int i = inherited.length;
+        for (int length : own) {
+            merged[i++] = length;
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,43 @@
+package org.prkguides.blog.utils;
+
+/**
+ * Materialized path of a comment: the ids from the thread's top-level comment down to the
+ * comment itself, each as a fixed-width base-36 segment. Fixed width keeps string order equal
+ * to id order, so ordering by path renders a thread depth first with replies oldest first,
+ * and a subtree is every path starting with the comment's own.
+ */
+public final class CommentPath {
+
+    public static final int SEGMENT_LENGTH = 8;
+
+    // Bounded by the index key length of the thread_path column
+    public static final int MAX_DEPTH = 95;
+    public static final int MAX_LENGTH = SEGMENT_LENGTH * MAX_DEPTH;
+
+    private CommentPath() {
+    }
+
+    /**
+     * @param parentPath Path of the comment replied to, or null for a top-level comment
+     * @param id Id of the new comment
+     * @throws IllegalArgumentException if the reply would nest deeper than {@value #MAX_DEPTH}
+     */
+    public static String of(String parentPath, long id) {
+        if (parentPath == null) {
+            return segment(id);
+        }
+        if (depth(parentPath) >= MAX_DEPTH) {
+            throw new IllegalArgumentException("Replies can't be nested more than " + MAX_DEPTH + " levels deep");
+        }
+        return parentPath + segment(id);
+    }
+
+    public static int depth(String path) {
+        return path.length() / SEGMENT_LENGTH;
+    }
+
+    static String segment(long id) {
+        String encoded = Long.toString(id, 36);
+        return "0".repeat(Math.max(0, SEGMENT_LENGTH - encoded.length())) + encoded;
+    }
+}
@@ -0,0 +1,46 @@
+package org.prkguides.blog.utils;
+
+import org.prkguides.blog.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a post listing ordered by (publishedDate DESC, id DESC). Clients only ever see
+ * the encoded form, so the format can change without breaking them. A published post without
+ * a publishedDate sorts after every dated one, as NULL does in MySQL's descending order, and
+ * is encoded with an empty date.
+ */
+public record PostCursor(LocalDateTime publishedDate, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = (publishedDate != null ? publishedDate.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned as nextCursor.
+     *
+     * @param cursor The encoded cursor, or null/blank for the first page
+     * @return The decoded position, or null for the first page
+     */
+    public static PostCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String date = raw.substring(0, separator);
+            return new PostCursor(date.isEmpty() ? null : LocalDateTime.parse(date),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Approved and pending comment counters per post, filled from the comments table
+ALTER TABLE posts ADD COLUMN approved_comment_count BIGINT DEFAULT 0;
+ALTER TABLE posts ADD COLUMN pending_comment_count BIGINT DEFAULT 0;
+
+UPDATE posts p SET
+    approved_comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.status = 'APPROVED'),
+    pending_comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id AND c.status = 'PENDING');
+
+CREATE INDEX idx_comment_post_status ON comments(post_id, status);
@@ -0,0 +1,12 @@
+-- Append-only page view log, written in batches by the page view ingester
+CREATE TABLE IF NOT EXISTS page_views (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    page VARCHAR(500) NOT NULL,
+    post_id BIGINT,
+    referrer VARCHAR(500),
+    user_agent VARCHAR(500),
+    viewed_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_page_views_post_viewed_at ON page_views(post_id, viewed_at);
+CREATE INDEX idx_page_views_viewed_at ON page_views(viewed_at);
@@ -0,0 +1,22 @@
+-- Hourly and daily view/comment rollups per post, author, tag and for the whole site
+CREATE TABLE IF NOT EXISTS rollup_hourly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    dimension VARCHAR(10) NOT NULL,
+    dimension_id BIGINT NOT NULL,
+    rollup_hour DATETIME NOT NULL,
+    views BIGINT NOT NULL,
+    comments BIGINT NOT NULL,
+    CONSTRAINT uk_rollup_hourly_key UNIQUE (dimension, dimension_id, rollup_hour)
+);
+CREATE INDEX idx_rollup_hourly_dimension_hour ON rollup_hourly(dimension, rollup_hour);
+
+CREATE TABLE IF NOT EXISTS rollup_daily (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    dimension VARCHAR(10) NOT NULL,
+    dimension_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    views BIGINT NOT NULL,
+    comments BIGINT NOT NULL,
+    CONSTRAINT uk_rollup_daily_key UNIQUE (dimension, dimension_id, rollup_date)
+);
+CREATE INDEX idx_rollup_daily_dimension_date ON rollup_daily(dimension, rollup_date);
@@ -0,0 +1,118 @@
+package org.prkguides.blog.benchmark;
+
+import org.prkguides.blog.BlogApplication;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database
+ * and seeds it with a configurable number of posts, for benchmarks that go through the
+ * real service and repository layers.
+ */
+public final class BenchmarkContext {
+
+    public static final int TAG_COUNT = 50;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(int postCount) {
+        return start(postCount, 0, 0);
+    }
+
+    /**
+     * @param tagsPerPost tags attached to each post, drawn from a pool of {@value #TAG_COUNT}
+     * @param commentsPerPost approved comments on each post; every third one is a reply
+     */
+    public static ConfigurableApplicationContext start(int postCount, int tagsPerPost, int commentsPerPost) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "logging.level.root=WARN")
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate, postCount);
+        seedTags(jdbcTemplate, postCount, tagsPerPost);
+        seedComments(jdbcTemplate, postCount, commentsPerPost);
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int postCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, created_at, updated_at) " +
+                "VALUES (1, 'bench', 'bench@example.com', 'x', 'Bench', 'Author', 'ADMIN', TRUE, ?, ?)", now, now);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(postCount);
+        for (int i = 1; i <= postCount; i++) {
+            Timestamp published = Timestamp.valueOf(start.plusMinutes(i));
+            batch.add(new Object[]{i, "Benchmark post " + i, "benchmark-post-" + i, "Excerpt of post " + i,
+                    "Content of benchmark post " + i, i % 97, i % 10 == 0, published, published, published});
+            if (batch.size() == BATCH_SIZE || i == postCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO posts (id, title, slug, excerpt, content, view_count, status, is_featured, " +
+                        "allow_comments, author_id, published_date, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, 'PUBLISHED', ?, TRUE, 1, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static void seedTags(JdbcTemplate jdbcTemplate, int postCount, int tagsPerPost) {
+        if (tagsPerPost <= 0) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> tags = new ArrayList<>(TAG_COUNT);
+        for (int t = 1; t <= TAG_COUNT; t++) {
+            tags.add(new Object[]{t, "Tag " + t, "tag-" + t, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tags (id, name, slug, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", tags);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= postCount; i++) {
+            for (int t = 0; t < Math.min(tagsPerPost, TAG_COUNT); t++) {
+                batch.add(new Object[]{i, (i + t * 7) % TAG_COUNT + 1});
+            }
+            if (batch.size() >= BATCH_SIZE || i == postCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static void seedComments(JdbcTemplate jdbcTemplate, int postCount, int commentsPerPost) {
+        if (commentsPerPost <= 0) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (int i = 1; i <= postCount; i++) {
+            long firstOfPost = id + 1;
+            for (int c = 0; c < commentsPerPost; c++) {
+                id++;
+                Long parent = c % 3 == 2 ? firstOfPost : null;
+                String path = CommentPath.of(parent != null ? CommentPath.of(null, parent) : null, id);
+                batch.add(new Object[]{id, "Comment " + c + " on post " + i, i, parent, path, now, now});
+            }
+            if (batch.size() >= BATCH_SIZE || i == postCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO comments (id, content, status, post_id, author_id, parent_comment_id, thread_path, created_at, updated_at) " +
+                        "VALUES (?, ?, 'APPROVED', ?, 1, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
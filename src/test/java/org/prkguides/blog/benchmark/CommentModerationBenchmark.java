@@ -0,0 +1,65 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.enums.ModerationAction;
+import org.prkguides.blog.service.CommentModerationService;
+import org.prkguides.blog.service.CommentService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approving a moderation backlog: one bulk request against the same comments approved one
+ * by one through approveComment. Every invocation starts from all of them pending again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentModerationBenchmark {
+
+    @Param({"1000"})
+    public int backlog;
+
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+    private CommentModerationService commentModerationService;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(10, 0, backlog / 10);
+        commentService = context.getBean(CommentService.class);
+        commentModerationService = context.getBean(CommentModerationService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ids = jdbcTemplate.queryForList("SELECT id FROM comments ORDER BY id", Long.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBacklog() {
+        jdbcTemplate.update("UPDATE comments SET status = 'PENDING'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int bulk() {
+        return commentModerationService.moderate(ModerationAction.APPROVE, ids);
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        for (Long id : ids) {
+            commentService.approveComment(id);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,96 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.service.CommentService;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subtree reads on a single large thread. WIDE puts every reply directly under the top-level
+ * comment; DEEP stacks them into chains as deep as a thread path allows, each chain hanging
+ * off the top-level comment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentThreadBenchmark {
+
+    private static final long POST_ID = 1L;
+    private static final long ROOT_ID = 1L;
+
+    public enum Shape { WIDE, DEEP }
+
+    @Param({"WIDE", "DEEP"})
+    public Shape shape;
+
+    @Param({"10000"})
+    public int replies;
+
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+    private CommentRepository commentRepository;
+    private String rootPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(1);
+        commentService = context.getBean(CommentService.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        seedThread(context.getBean(JdbcTemplate.class));
+        rootPath = CommentPath.of(null, ROOT_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long countSubtree() {
+        return commentRepository.countSubtree(POST_ID, rootPath);
+    }
+
+    @Benchmark
+    public List<CommentDto> replies() {
+        return commentService.getCommentReplies(ROOT_ID);
+    }
+
+    @Benchmark
+    public CommentDto thread() {
+        return commentService.getCommentById(ROOT_ID);
+    }
+
+    private void seedThread(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String root = CommentPath.of(null, ROOT_ID);
+        List<Object[]> rows = new ArrayList<>(replies + 1);
+        rows.add(new Object[]{ROOT_ID, null, root, now, now});
+
+        long parent = ROOT_ID;
+        String parentPath = root;
+        for (long id = ROOT_ID + 1; id <= ROOT_ID + replies; id++) {
+            if (shape == Shape.WIDE || CommentPath.depth(parentPath) == CommentPath.MAX_DEPTH) {
+                parent = ROOT_ID;
+                parentPath = root;
+            }
+            String path = CommentPath.of(parentPath, id);
+            rows.add(new Object[]{id, parent, path, now, now});
+            parent = id;
+            parentPath = path;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, content, status, post_id, author_id, parent_comment_id, " +
+                "thread_path, created_at, updated_at) VALUES (?, 'Reply', 'APPROVED', " + POST_ID + ", 1, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,74 @@
+package org.prkguides.blog.benchmark;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.security.JwtTokenProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT work done by the authentication filter: validating the token and then
+ * reading the username from it. The cold variant verifies a fresh token on every call,
+ * which is what a first request with a token costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "912a7ecf8bcc3ca4af8c909fec427d2a71aa6a74c4898568a651c7c771679073" +
+            "aa4164a9bbaee5a5fe6178e4668118016bea5db92ae8c5d7574bbda7c76bd386";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = provider(10_000L);
+        token = tokenProvider.generateTokenFromUsername("johndoe");
+
+        // Far more distinct tokens than this provider's claims cache holds, so every lookup misses
+        uncachedProvider = provider(1L);
+        tokens = new String[1 << 12];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = uncachedProvider.generateTokenFromUsername("user" + i);
+        }
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return tokenProvider.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public String filterPath() {
+        // What JwtAuthenticationFilter does for every authenticated request
+        return tokenProvider.parseClaims(token).map(Claims::getSubject).orElse(null);
+    }
+
+    @Benchmark
+    public String filterPathCold() {
+        return uncachedProvider.parseClaims(tokens[next++ & (tokens.length - 1)]).map(Claims::getSubject).orElse(null);
+    }
+
+    private static JwtTokenProvider provider(long claimsCacheMaxEntries) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxEntries", claimsCacheMaxEntries);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,80 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.dto.CursorPageResponse;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.service.PostService;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.prkguides.blog.utils.PostCursor;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the first and a deep page of published posts with offset pagination
+ * (OFFSET scan plus COUNT query) versus keyset pagination on (publishedDate, id).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    // 1-based page number as a reader would see it
+    @Param({"1", "5000"})
+    public int page;
+
+    @Param({"60000"})
+    public int postCount;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private CacheManager cacheManager;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(postCount);
+        postService = context.getBean(PostService.class);
+        cacheManager = context.getBean(CacheManager.class);
+
+        // The cursor a client would hold after reading page - 1 pages
+        if (page > 1) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            cursor = jdbcTemplate.queryForObject(
+                    "SELECT published_date, id FROM posts WHERE status = 'PUBLISHED' " +
+                            "ORDER BY published_date DESC, id DESC LIMIT 1 OFFSET ?",
+                    (rs, rowNum) -> new PostCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)).encode(),
+                    (page - 1) * PAGE_SIZE - 1);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        // Measure the database path, not the listing cache
+        Objects.requireNonNull(cacheManager.getCache("posts")).clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> offset() {
+        return postService.getPublishedPosts(page - 1, PAGE_SIZE, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public CursorPageResponse<PostSummaryDto> keyset() {
+        return postService.getPublishedPostsAfter(cursor, PAGE_SIZE);
+    }
+}
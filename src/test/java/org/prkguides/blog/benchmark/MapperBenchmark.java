@@ -0,0 +1,161 @@
+package org.prkguides.blog.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.dto.TagDto;
+import org.prkguides.blog.dto.UserSummaryDto;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.mapper.CommentMapper;
+import org.prkguides.blog.mapper.CommentMapperImpl;
+import org.prkguides.blog.mapper.PostMapper;
+import org.prkguides.blog.mapper.PostMapperImpl;
+import org.prkguides.blog.mapper.TagMapper;
+import org.prkguides.blog.mapper.TagMapperImpl;
+import org.prkguides.blog.mapper.UserMapper;
+import org.prkguides.blog.mapper.UserMapperImpl;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of entity to DTO mapping with the generated MapStruct mappers versus the
+ * reflective ModelMapper calls they replaced. Run with the benchmark profile; the gc
+ * profiler adds gc.alloc.rate.norm, the bytes allocated per mapped object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private TagMapper tagMapper;
+    private PostMapper postMapper;
+    private CommentMapper commentMapper;
+
+    private User user;
+    private Tag tag;
+    private Post post;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        userMapper = new UserMapperImpl();
+        tagMapper = new TagMapperImpl();
+        postMapper = new PostMapperImpl(userMapper, tagMapper);
+        commentMapper = new CommentMapperImpl(userMapper);
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("johndoe");
+        user.setEmail("john@example.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setBio("Writes about Spring and the JVM.");
+        user.setRole(Role.USER);
+        user.setCreatedAt(LocalDateTime.now());
+
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Tag t = new Tag("Tag " + i, "tag-" + i);
+            t.setId((long) i);
+            t.setColor("#3498db");
+            tags.add(t);
+        }
+        tag = tags.iterator().next();
+
+        post = new Post();
+        post.setId(42L);
+        post.setTitle("Getting Started with Spring Boot");
+        post.setSlug("getting-started-with-spring-boot");
+        post.setExcerpt("A short tour of auto-configuration.");
+        post.setContent("Spring Boot makes it easy to create stand-alone applications. ".repeat(50));
+        post.setReadingTimeMinutes(5);
+        post.setViewCount(1250L);
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setPublishedDate(LocalDateTime.now());
+        post.setAuthor(user);
+        post.setTags(tags);
+        post.setCreatedAt(LocalDateTime.now());
+
+        comment = new Comment();
+        comment.setId(7L);
+        comment.setContent("Great article, thanks!");
+        comment.setStatus(CommentStatus.APPROVED);
+        comment.setPost(post);
+        comment.setAuthor(user);
+        comment.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PostSummaryDto postSummaryModelMapper() {
+        PostSummaryDto dto = modelMapper.map(post, PostSummaryDto.class);
+        dto.setAuthor(modelMapper.map(post.getAuthor(), UserSummaryDto.class));
+        return dto;
+    }
+
+    @Benchmark
+    public PostSummaryDto postSummaryMapStruct() {
+        return postMapper.toSummaryDto(post);
+    }
+
+    @Benchmark
+    public PostDto postModelMapper() {
+        PostDto dto = modelMapper.map(post, PostDto.class);
+        dto.setAuthor(modelMapper.map(post.getAuthor(), UserSummaryDto.class));
+        return dto;
+    }
+
+    @Benchmark
+    public PostDto postMapStruct() {
+        return postMapper.toDto(post);
+    }
+
+    @Benchmark
+    public CommentDto commentModelMapper() {
+        CommentDto dto = modelMapper.map(comment, CommentDto.class);
+        dto.setAuthor(modelMapper.map(comment.getAuthor(), UserSummaryDto.class));
+        dto.setPostId(comment.getPost().getId());
+        return dto;
+    }
+
+    @Benchmark
+    public CommentDto commentMapStruct() {
+        return commentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public TagDto tagModelMapper() {
+        return modelMapper.map(tag, TagDto.class);
+    }
+
+    @Benchmark
+    public TagDto tagMapStruct() {
+        return tagMapper.toDto(tag);
+    }
+
+    @Benchmark
+    public UserSummaryDto userModelMapper() {
+        return modelMapper.map(user, UserSummaryDto.class);
+    }
+
+    @Benchmark
+    public UserSummaryDto userMapStruct() {
+        return userMapper.toSummaryDto(user);
+    }
+}
@@ -0,0 +1,49 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.service.PageViewService;
+import org.prkguides.blog.utils.BoundedEventQueue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page view ingestion queue: four request threads offering events while one writer drains
+ * batches, the shape of the page view ingester without the database behind it.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageViewQueueBenchmark {
+
+    private BoundedEventQueue<PageViewService.PageViewEvent> queue;
+    private PageViewService.PageViewEvent event;
+    private final List<PageViewService.PageViewEvent> batch = new ArrayList<>(1000);
+
+    @Setup
+    public void setUp() {
+        queue = new BoundedEventQueue<>(65536);
+        event = new PageViewService.PageViewEvent("/posts/1", 1L, null, "JMH", LocalDateTime.now());
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(4)
+    public boolean offer() {
+        return queue.offer(event);
+    }
+
+    @Benchmark
+    @Group("ingest")
+    @GroupThreads(1)
+    public int drain() {
+        int drained = queue.drainTo(batch, 1000);
+        batch.clear();
+        return drained;
+    }
+}
@@ -0,0 +1,62 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the listing response envelope from a Page (exact totals) and from a Slice with
+ * and without an approximate total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationResponseBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private List<PostSummaryDto> content;
+    private Page<PostSummaryDto> page;
+    private Slice<PostSummaryDto> slice;
+
+    @Setup
+    public void setUp() {
+        content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            PostSummaryDto dto = new PostSummaryDto();
+            dto.setId((long) i);
+            content.add(dto);
+        }
+        PageRequest pageable = PageRequest.of(3, pageSize);
+        page = new PageImpl<>(content, pageable, 10_000);
+        slice = new SliceImpl<>(content, pageable, true);
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> fromPage() {
+        return PaginationResponse.of(page, content, null);
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> fromSlice() {
+        return PaginationResponse.of(slice, content, null);
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> fromSliceWithApproximateTotal() {
+        return PaginationResponse.of(slice, content, 10_000L);
+    }
+}
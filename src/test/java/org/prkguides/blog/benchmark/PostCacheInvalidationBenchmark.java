@@ -0,0 +1,186 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.cache.PostCacheIndex;
+import org.prkguides.blog.cache.PostCacheInvalidator;
+import org.prkguides.blog.cache.PostCacheInvalidator.PostCacheState;
+import org.prkguides.blog.config.CacheConfiguration;
+import org.prkguides.blog.config.CacheProperties;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.enums.PostStatus;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hit rate of the post caches under a mixed read/write workload, comparing the old
+ * allEntries wipe on every write with the reverse-index targeted invalidation.
+ * Reads are skewed towards recent posts and the first listing pages; most writes are
+ * draft saves, some are edits of published posts and a few publish a draft.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PostCacheInvalidationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    public enum Strategy { ALL_ENTRIES, TARGETED }
+
+    @Param({"ALL_ENTRIES", "TARGETED"})
+    public Strategy strategy;
+
+    @Param({"0.01", "0.05"})
+    public double writeRatio;
+
+    @Param({"10000"})
+    public int postCount;
+
+    private PostCacheInvalidator invalidator;
+    private Cache posts;
+    private Cache featuredPosts;
+    private Cache recentPosts;
+
+    private PostCacheState[] states;
+    private int publishedCount;
+    private List<Long> featuredIds;
+
+    // Reported by JMH next to the throughput; the hit rate is hits / (hits + misses)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long hits;
+        public long misses;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        for (String cacheName : PostCacheIndex.TRACKED_CACHES) {
+            CacheProperties.Spec spec = new CacheProperties.Spec();
+            spec.setMaxEntries(100_000L);
+            properties.getSpecs().put(cacheName, spec);
+        }
+
+        PostCacheIndex index = new PostCacheIndex();
+        invalidator = new PostCacheInvalidator(index);
+        CacheManager cacheManager = new CacheConfiguration().cacheManager(properties, index);
+        posts = cacheManager.getCache("posts");
+        featuredPosts = cacheManager.getCache("featured-posts");
+        recentPosts = cacheManager.getCache("recent-posts");
+
+        // The first fifth of the ids are published (newest first), every tenth of those is featured
+        publishedCount = postCount / 5;
+        states = new PostCacheState[postCount];
+        featuredIds = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < postCount; i++) {
+            boolean published = i < publishedCount;
+            boolean featured = published && i % 10 == 0;
+            states[i] = new PostCacheState((long) i, published ? PostStatus.PUBLISHED : PostStatus.DRAFT,
+                    featured, published ? now.minusHours(i) : null);
+            if (featured) {
+                featuredIds.add((long) i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object mixedWorkload(Counters counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < writeRatio) {
+            write(random);
+            return null;
+        }
+
+        double pick = random.nextDouble();
+        if (pick < 0.6) {
+            long id = skewed(random, publishedCount);
+            return read(posts, id, () -> post(id), counters);
+        }
+        if (pick < 0.9) {
+            int page = (int) skewed(random, publishedCount / PAGE_SIZE);
+            return read(posts, "published-" + page + "-" + PAGE_SIZE, () -> page(page, publishedCount, null), counters);
+        }
+        if (pick < 0.97) {
+            int page = (int) skewed(random, Math.max(1, featuredIds.size() / PAGE_SIZE));
+            return read(featuredPosts, page + "-" + PAGE_SIZE, () -> page(page, featuredIds.size(), featuredIds), counters);
+        }
+        return read(recentPosts, 5, () -> page(0, 5, null).getContent(), counters);
+    }
+
+    private void write(ThreadLocalRandom random) {
+        double pick = random.nextDouble();
+        PostCacheState before;
+        PostCacheState after;
+        if (pick < 0.7) {
+            // Draft save
+            before = states[publishedCount + random.nextInt(postCount - publishedCount)];
+            after = before;
+        } else if (pick < 0.95) {
+            // Edit of a published post that keeps its place in the listings
+            before = states[(int) skewed(random, publishedCount)];
+            after = before;
+        } else {
+            // Publishing a draft
+            before = states[publishedCount + random.nextInt(postCount - publishedCount)];
+            after = new PostCacheState(before.id(), PostStatus.PUBLISHED, false, LocalDateTime.now());
+        }
+
+        if (strategy == Strategy.ALL_ENTRIES) {
+            posts.clear();
+            featuredPosts.clear();
+            recentPosts.clear();
+        } else {
+            invalidator.postChanged(before, after);
+        }
+    }
+
+    private Object read(Cache cache, Object key, java.util.function.Supplier<Object> loader, Counters counters) {
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            counters.hits++;
+            return cached.get();
+        }
+        counters.misses++;
+        Object value = loader.get();
+        cache.put(key, value);
+        return value;
+    }
+
+    private static long skewed(ThreadLocalRandom random, int bound) {
+        double r = random.nextDouble();
+        return (long) (r * r * r * bound);
+    }
+
+    private static PostDto post(long id) {
+        PostDto dto = new PostDto();
+        dto.setId(id);
+        dto.setSlug("post-" + id);
+        return dto;
+    }
+
+    private static PaginationResponse<PostSummaryDto> page(int page, int total, List<Long> ids) {
+        List<PostSummaryDto> content = new ArrayList<>();
+        for (int i = page * PAGE_SIZE; i < Math.min(total, (page + 1) * PAGE_SIZE); i++) {
+            PostSummaryDto dto = new PostSummaryDto();
+            dto.setId(ids != null ? ids.get(i) : (long) i);
+            content.add(dto);
+        }
+        PaginationResponse<PostSummaryDto> response = new PaginationResponse<>();
+        response.setContent(content);
+        response.setPage(page);
+        response.setSize(PAGE_SIZE);
+        return response;
+    }
+}
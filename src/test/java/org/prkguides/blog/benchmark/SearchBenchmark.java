@@ -0,0 +1,186 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.search.PostSearchIndex;
+import org.prkguides.blog.search.RelatedPostsIndex;
+import org.prkguides.blog.search.SearchDocument;
+import org.prkguides.blog.search.SearchHits;
+import org.prkguides.blog.search.SearchQuery;
+import org.prkguides.blog.search.TagPostingIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of the in-memory post search on a synthetic corpus. Words follow a
+ * Zipf-like distribution so common terms have long posting lists; queries mix one and two
+ * terms, prefixes and the SearchRequestDto filters. The tag listings run against the posting
+ * lists fed from the same documents, and related posts from the related posts index. Run with -Djmh.include=SearchBenchmark and read the
+ * p0.99 line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SearchBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int CONTENT_WORDS = 300;
+    private static final int AUTHORS = 200;
+    private static final int TAGS = 50;
+
+    @Param({"100000"})
+    public int postCount;
+
+    private PostSearchIndex index;
+    private TagPostingIndex tagIndex;
+    private RelatedPostsIndex relatedIndex;
+    private SearchDocument[] documents;
+    private String[] words;
+    private double[] cumulative;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = word(random, i);
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < VOCABULARY; i++) {
+            cumulative[i] /= sum;
+        }
+
+        index = new PostSearchIndex();
+        index.beginLoad();
+        tagIndex = new TagPostingIndex();
+        tagIndex.beginLoad();
+        relatedIndex = new RelatedPostsIndex(10, 180);
+        relatedIndex.beginLoad();
+        documents = new SearchDocument[postCount + 1];
+        LocalDateTime now = LocalDateTime.now();
+        List<SearchDocument> chunk = new ArrayList<>();
+        for (int id = 1; id <= postCount; id++) {
+            documents[id] = new SearchDocument((long) id, text(random, 8), text(random, 30), text(random, CONTENT_WORDS),
+                    tags(random.nextInt(TAGS / 2), TAGS / 2 + random.nextInt(TAGS / 2)), "author" + random.nextInt(AUTHORS),
+                    id % 10 == 0 ? PostStatus.DRAFT : PostStatus.PUBLISHED, id % 20 == 0,
+                    now.minusMinutes(id), now.minusMinutes(id));
+            chunk.add(documents[id]);
+            if (chunk.size() == 1000) {
+                index.load(chunk);
+                tagIndex.load(chunk);
+                relatedIndex.load(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        index.load(chunk);
+        index.finishLoad();
+        tagIndex.load(chunk);
+        tagIndex.finishLoad();
+        relatedIndex.load(chunk);
+        relatedIndex.finishLoad();
+    }
+
+    @Benchmark
+    public SearchHits singleTerm() {
+        return index.search(query(pick() + " ", null, null, false));
+    }
+
+    @Benchmark
+    public SearchHits twoTermsWithPrefix() {
+        String prefix = pick();
+        return index.search(query(pick() + " " + prefix.substring(0, Math.min(3, prefix.length())), null, null, false));
+    }
+
+    @Benchmark
+    public SearchHits commonTermWithFilters() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.search(query(words[random.nextInt(10)] + " ", Set.of("tag" + random.nextInt(TAGS)),
+                random.nextBoolean() ? "author" + random.nextInt(AUTHORS) : null, random.nextBoolean()));
+    }
+
+    @Benchmark
+    public SearchHits filtersOnly() {
+        return index.search(query(null, Set.of("tag" + ThreadLocalRandom.current().nextInt(TAGS)), null, false));
+    }
+
+    @Benchmark
+    public TagPostingIndex.TagPage tagListingDeepPage() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return tagIndex.page(List.of((long) random.nextInt(TAGS)), false, random.nextInt(100) * 10, 10);
+    }
+
+    @Benchmark
+    public TagPostingIndex.TagPage tagListingAnyOfTwo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return tagIndex.page(List.of((long) random.nextInt(TAGS / 2), (long) (TAGS / 2 + random.nextInt(TAGS / 2))),
+                false, 0, 10);
+    }
+
+    @Benchmark
+    public TagPostingIndex.TagPage tagListingAllOfTwo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return tagIndex.page(List.of((long) random.nextInt(TAGS / 2), (long) (TAGS / 2 + random.nextInt(TAGS / 2))),
+                true, 0, 10);
+    }
+
+    @Benchmark
+    public List<Long> relatedPosts() {
+        return relatedIndex.related((long) (1 + ThreadLocalRandom.current().nextInt(postCount)), 5);
+    }
+
+    // A post edit invalidates the lists it may enter, then its own list is recomputed
+    @Benchmark
+    public List<Long> relatedPostsAfterEdit() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(postCount);
+        relatedIndex.index(documents[id]);
+        return relatedIndex.related((long) id, 5);
+    }
+
+    private static Map<Long, String> tags(int first, int second) {
+        return Map.of((long) first, "tag" + first, (long) second, "tag" + second);
+    }
+
+    private static SearchQuery query(String text, Set<String> tags, String author, boolean featuredOnly) {
+        return new SearchQuery(text, tags, false, author, PostStatus.PUBLISHED, featuredOnly,
+                SearchQuery.Order.of(null, text != null), false, 0, 10);
+    }
+
+    private String pick() {
+        return words[sample(ThreadLocalRandom.current().nextDouble())];
+    }
+
+    private int sample(double r) {
+        int i = java.util.Arrays.binarySearch(cumulative, r);
+        return Math.min(VOCABULARY - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private String text(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(words[sample(random.nextDouble())]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String word(Random random, int rank) {
+        int length = 4 + random.nextInt(6);
+        StringBuilder word = new StringBuilder(length + 5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.append(rank).toString();
+    }
+}
@@ -0,0 +1,95 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.dto.SearchRequestDto;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.service.CommentService;
+import org.prkguides.blog.service.PostService;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against an embedded H2 database seeded through
+ * {@link BenchmarkContext}. The caches are cleared before every invocation so each call
+ * measures the repository, mapping and response building path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "20000"})
+    public int postCount;
+
+    @Param({"3"})
+    public int tagsPerPost;
+
+    @Param({"10"})
+    public int commentsPerPost;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private CommentService commentService;
+    private CacheManager cacheManager;
+    private SearchRequestDto searchRequest;
+    private long postId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(postCount, tagsPerPost, commentsPerPost);
+        postService = context.getBean(PostService.class);
+        commentService = context.getBean(CommentService.class);
+        cacheManager = context.getBean(CacheManager.class);
+
+        postId = postCount / 2;
+        searchRequest = new SearchRequestDto();
+        searchRequest.setSize(PAGE_SIZE);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> publishedPosts() {
+        return postService.getPublishedPosts(0, PAGE_SIZE, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> publishedPostsWithoutCount() {
+        return postService.getPublishedPosts(0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public PostDto postBySlug() {
+        return postService.getPostBySlug("benchmark-post-" + postId);
+    }
+
+    @Benchmark
+    public PaginationResponse<PostSummaryDto> searchPosts() {
+        return postService.searchPosts(searchRequest);
+    }
+
+    @Benchmark
+    public PaginationResponse<CommentDto> commentsByPost() {
+        return commentService.getCommentsByPost(postId, 0, PAGE_SIZE, CountMode.EXACT);
+    }
+}
@@ -0,0 +1,51 @@
+package org.prkguides.blog.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.prkguides.blog.utils.SlugUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slug generation for post and tag titles. The unique variant runs against a set of taken
+ * slugs, with {@code collisions} numbered copies of the base slug already in use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugBenchmark {
+
+    @Param({"Getting Started with Spring Boot", "  Crème Brûlée: 10 Tips & Tricks -- for Beginners!  "})
+    public String title;
+
+    @Param({"0", "10"})
+    public int collisions;
+
+    private Set<String> existingSlugs;
+
+    @Setup
+    public void setUp() {
+        existingSlugs = new HashSet<>();
+        String base = SlugUtils.generateSlug(title);
+        if (collisions > 0) {
+            existingSlugs.add(base);
+            for (int i = 1; i < collisions; i++) {
+                existingSlugs.add(base + "-" + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public String generateSlug() {
+        return SlugUtils.generateSlug(title);
+    }
+
+    @Benchmark
+    public String generateUniqueSlug() {
+        return SlugUtils.generateUniqueSlug(title, existingSlugs::contains);
+    }
+}
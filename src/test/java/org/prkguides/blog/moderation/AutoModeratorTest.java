@@ -0,0 +1,134 @@
+package org.prkguides.blog.moderation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.dto.CommentUpdateDto;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.ModerationVerdict;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.event.CommentCreatedEvent;
+import org.prkguides.blog.service.CommentService;
+import org.prkguides.blog.support.CommentFixture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The scheduled flush is pushed out so the test decides when decisions are written
+@SpringBootTest(properties = {
+        "blog.moderation.enabled=true",
+        "blog.moderation.flush-interval-ms=3600000",
+        "blog.moderation.blocklist=casino,cheap pills",
+        "blog.moderation.reputation.trusted-after=2",
+        "blog.moderation.reputation.cache-ttl-seconds=0"
+})
+@Import(CommentFixture.class)
+class AutoModeratorTest {
+
+    @Autowired
+    private AutoModerator autoModerator;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CommentFixture fixture;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        postId = fixture.post(user("auto-owner")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void blocklistMatchesWholeWordsOnly() {
+        long runs = blocklistRuns();
+        assertThat(autoModerator.moderate(comment(-1L, "Occasional casinos are not blocklisted"))).isEqualTo(ModerationVerdict.ABSTAIN);
+        assertThat(autoModerator.moderate(comment(-1L, "Get CHEAP PILLS here"))).isEqualTo(ModerationVerdict.REJECT);
+        assertThat(blocklistRuns() - runs).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsLinkFloodsAndRepeats() {
+        assertThat(autoModerator.moderate(comment(-1L, "See https://a.example, www.b.example and http://c.example")))
+                .isEqualTo(ModerationVerdict.REJECT);
+        assertThat(autoModerator.moderate(comment(-1L, "Only https://www.a.example and www.b.example")))
+                .isEqualTo(ModerationVerdict.ABSTAIN);
+
+        String text = "The very same paragraph, posted over and over " + System.nanoTime();
+        assertThat(autoModerator.moderate(comment(-2L, text))).isEqualTo(ModerationVerdict.ABSTAIN);
+        assertThat(autoModerator.moderate(comment(-2L, text.toUpperCase() + "!"))).isEqualTo(ModerationVerdict.REJECT);
+        assertThat(autoModerator.moderate(comment(-3L, text))).isEqualTo(ModerationVerdict.REJECT);
+    }
+
+    @Test
+    void approvesTrustedAuthorsInBulk() throws InterruptedException {
+        User author = user("auto-trusted");
+        for (int i = 0; i < 2; i++) {
+            commentService.approveComment(create("Earlier approved comment " + i + " " + System.nanoTime(), author));
+        }
+        Long comment = create("A new comment from a trusted author " + System.nanoTime(), author);
+
+        // The rules run on a worker once the comment commits
+        int written = 0;
+        for (int attempt = 0; attempt < 50 && written == 0; attempt++) {
+            Thread.sleep(100);
+            written = autoModerator.flush();
+        }
+
+        assertThat(written).isEqualTo(1);
+        assertThat(fixture.status(comment)).isEqualTo("APPROVED");
+        assertThat(fixture.counts(postId)).containsExactly(3L, 0L);
+    }
+
+    @Test
+    void leavesCommentsEditedAfterTheVerdictPending() {
+        User author = user("auto-editor");
+        String original = "Cheap pills, judged before the edit " + System.nanoTime();
+        Long comment = create(original, author);
+        CommentCreatedEvent judged = new CommentCreatedEvent(comment, postId, author.getId(), original);
+
+        commentService.updateComment(comment, new CommentUpdateDto("An edit the rules never saw"), author.getUsername());
+
+        assertThat(autoModerator.moderate(judged)).isEqualTo(ModerationVerdict.REJECT);
+        assertThat(autoModerator.flush()).isZero();
+        assertThat(fixture.status(comment)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void holdsAuthorsRejectedMoreThanApproved() {
+        User author = user("auto-doubtful");
+        commentService.rejectComment(create("A rejected comment " + System.nanoTime(), author));
+
+        assertThat(autoModerator.moderate(new CommentCreatedEvent(-1L, postId, author.getId(), "Hello again")))
+                .isEqualTo(ModerationVerdict.HOLD);
+    }
+
+    private Long create(String content, User author) {
+        return fixture.comment(postId, content, author.getUsername());
+    }
+
+    private long blocklistRuns() {
+        return meterRegistry.get("blog.moderation.rule").tag("rule", "keyword-blocklist").timer().count();
+    }
+
+    private CommentCreatedEvent comment(Long authorId, String content) {
+        return new CommentCreatedEvent(-1L, postId, authorId, content);
+    }
+
+    private User user(String username) {
+        return fixture.user(username, Role.USER);
+    }
+}
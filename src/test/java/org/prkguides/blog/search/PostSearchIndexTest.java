@@ -0,0 +1,94 @@
+package org.prkguides.blog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.enums.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex();
+        index.index(post(1L, "Getting started with Spring Boot", "Spring Boot makes it easy.", Set.of("Java", "Spring"), "alice", PostStatus.PUBLISHED, false, 3));
+        index.index(post(2L, "Kotlin coroutines", "Coroutines, not threads. A Spring mention.", Set.of("Kotlin"), "bob", PostStatus.PUBLISHED, true, 2));
+        index.index(post(3L, "Spring Data JPA tips", "Repositories and specifications.", Set.of("Java", "JPA"), "alice", PostStatus.PUBLISHED, true, 1));
+        index.index(post(4L, "Draft about Spring", "Not ready yet.", Set.of("Spring"), "alice", PostStatus.DRAFT, false, 0));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveContentMatches() {
+        SearchHits hits = index.search(query("spring", null, null, PostStatus.PUBLISHED, false));
+
+        assertThat(hits.totalHits()).isEqualTo(3);
+        assertThat(hits.ids()).last().isEqualTo(2L);
+    }
+
+    @Test
+    void requiresAllTermsAndMatchesLastOneAsPrefix() {
+        assertThat(index.search(query("spring bo", null, null, PostStatus.PUBLISHED, false)).ids()).containsExactly(1L);
+        assertThat(index.search(query("spring bo ", null, null, PostStatus.PUBLISHED, false)).ids()).isEmpty();
+        assertThat(index.search(query("corout*", null, null, PostStatus.PUBLISHED, false)).matchedTerms()).contains("coroutines");
+    }
+
+    @Test
+    void appliesFilters() {
+        assertThat(index.search(query("spring", null, "ALICE", PostStatus.PUBLISHED, false)).ids()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search(query("spring", Set.of("jpa", "kotlin"), null, PostStatus.PUBLISHED, false)).ids()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search(query("spring", null, null, PostStatus.PUBLISHED, true)).ids()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search(query("spring", null, null, PostStatus.DRAFT, false)).ids()).containsExactly(4L);
+    }
+
+    @Test
+    void sortsByDateWithoutQueryText() {
+        SearchQuery query = new SearchQuery(null, null, false, null, PostStatus.PUBLISHED, false,
+                SearchQuery.Order.PUBLISHED_DATE, false, 1, 2);
+
+        SearchHits hits = index.search(query);
+
+        assertThat(hits.totalHits()).isEqualTo(3);
+        assertThat(hits.ids()).containsExactly(1L);
+    }
+
+    @Test
+    void reflectsUpdatesAndRemovals() {
+        index.index(post(2L, "Kotlin flows", "Cold streams.", Set.of("Kotlin"), "bob", PostStatus.PUBLISHED, true, 2));
+        index.remove(3L);
+
+        assertThat(index.search(query("spring", null, null, PostStatus.PUBLISHED, false)).ids()).containsExactly(1L);
+        assertThat(index.search(query("flows", null, null, PostStatus.PUBLISHED, false)).ids()).containsExactly(2L);
+        assertThat(index.search(query("coroutines", null, null, PostStatus.PUBLISHED, false)).ids()).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void highlightsMatchedTermsAndEscapesTheRest() {
+        String fragment = Highlighter.highlight("Use <b>Spring</b> Boot", List.of("spring"), 100);
+
+        assertThat(fragment).isEqualTo("Use &lt;b&gt;<mark>Spring</mark>&lt;/b&gt; Boot");
+        assertThat(Highlighter.highlight("Nothing here", List.of("spring"), 100)).isNull();
+    }
+
+    private static SearchQuery query(String text, Set<String> tags, String author, PostStatus status, boolean featuredOnly) {
+        return new SearchQuery(text, tags, false, author, status, featuredOnly, SearchQuery.Order.RELEVANCE, false, 0, 10);
+    }
+
+    private static SearchDocument post(Long id, String title, String content, Set<String> tags, String author,
+                                       PostStatus status, boolean featured, int daysAgo) {
+        Map<Long, String> tagsById = new HashMap<>();
+        tags.forEach(tag -> tagsById.put((long) tag.hashCode(), tag));
+        return new SearchDocument(id, title, null, content, tagsById, author, status, featured,
+                NOW.minusDays(daysAgo), NOW.minusDays(daysAgo));
+    }
+}
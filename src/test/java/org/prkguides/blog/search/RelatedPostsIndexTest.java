@@ -0,0 +1,64 @@
+package org.prkguides.blog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.enums.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedPostsIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static final long JAVA = 1L;
+    private static final long SPRING = 2L;
+    private static final long JPA = 3L;
+    private static final long KOTLIN = 4L;
+
+    private RelatedPostsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelatedPostsIndex(3, 30);
+        index.index(post(1L, Map.of(JAVA, "Java", SPRING, "Spring", JPA, "JPA"), PostStatus.PUBLISHED, 10));
+        index.index(post(2L, Map.of(JAVA, "Java", SPRING, "Spring", JPA, "JPA"), PostStatus.PUBLISHED, 40));
+        index.index(post(3L, Map.of(JAVA, "Java"), PostStatus.PUBLISHED, 0));
+        index.index(post(4L, Map.of(KOTLIN, "Kotlin"), PostStatus.PUBLISHED, 0));
+        index.index(post(5L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.DRAFT, 0));
+        index.index(post(6L, Map.of(JAVA, "Java"), PostStatus.PUBLISHED, 5));
+    }
+
+    @Test
+    void ranksByWeightedOverlapThenRecency() {
+        // Post 2 shares three tags but is a month older; the fresh Java-only posts still trail it
+        assertThat(index.related(1L, 10)).containsExactly(2L, 3L, 6L);
+        assertThat(index.related(4L, 10)).isEmpty();
+        assertThat(index.related(99L, 10)).isEmpty();
+    }
+
+    @Test
+    void decaysOldPostsBelowFresherWeakerMatches() {
+        index.index(post(2L, Map.of(JAVA, "Java", SPRING, "Spring", JPA, "JPA"), PostStatus.PUBLISHED, 400));
+
+        assertThat(index.related(1L, 10)).containsExactly(3L, 6L, 2L);
+    }
+
+    @Test
+    void refreshesListsWhenPostsChange() {
+        assertThat(index.related(3L, 10)).containsExactly(6L, 1L, 2L);
+
+        index.remove(6L);
+        index.index(post(5L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.PUBLISHED, 0));
+
+        assertThat(index.related(3L, 10)).containsExactly(5L, 1L, 2L);
+        assertThat(index.related(3L, 1)).containsExactly(5L);
+    }
+
+    private static SearchDocument post(Long id, Map<Long, String> tags, PostStatus status, int daysAgo) {
+        return new SearchDocument(id, "Post " + id, null, null, tags, "alice", status, false,
+                NOW.minusDays(daysAgo), NOW.minusDays(daysAgo));
+    }
+}
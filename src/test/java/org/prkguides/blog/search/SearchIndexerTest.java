@@ -0,0 +1,106 @@
+package org.prkguides.blog.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.dto.PostCreateDto;
+import org.prkguides.blog.dto.PostDto;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.service.PostService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The scheduled drain is pushed out so the test decides when pending changes are applied
+@SpringBootTest(properties = "blog.search.indexer.interval-ms=3600000")
+class SearchIndexerTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByUsername("indexer").isEmpty()) {
+            User user = new User();
+            user.setUsername("indexer");
+            user.setEmail("indexer@example.com");
+            user.setPassword("secret");
+            user.setFirstName("Indexer");
+            user.setRole(Role.ADMIN);
+            userRepository.save(user);
+        }
+        searchIndexer.reindex();
+    }
+
+    @Test
+    void appliesCommittedChangesOnDrain() {
+        PostDto post = postService.createPost(post("Walrus migration patterns"), "indexer");
+        postService.updatePost(post.getId(), post("Narwhal migration patterns"));
+        postService.updatePost(post.getId(), post("Narwhal migration patterns revisited"));
+
+        // Three writes to one post collapse into one pending change, not yet searchable
+        assertThat(pending()).isEqualTo(1);
+        assertThat(search("narwhal").totalHits()).isZero();
+
+        searchIndexer.drain();
+
+        assertThat(pending()).isZero();
+        assertThat(search("narwhal").ids()).containsExactly(post.getId());
+        assertThat(search("walrus").totalHits()).isZero();
+
+        postService.deletePost(post.getId());
+        searchIndexer.drain();
+
+        assertThat(search("narwhal").totalHits()).isZero();
+    }
+
+    @Test
+    void ignoresRolledBackWrites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            postService.createPost(post("Rolled back platypus"), "indexer");
+            status.setRollbackOnly();
+        });
+
+        assertThat(pending()).isZero();
+    }
+
+    private double pending() {
+        return meterRegistry.get("blog.search.index.pending").gauge().value();
+    }
+
+    private SearchHits search(String text) {
+        return postSearchIndex.search(new SearchQuery(text, null, false, null, PostStatus.PUBLISHED, false,
+                SearchQuery.Order.RELEVANCE, false, 0, 10));
+    }
+
+    private static PostCreateDto post(String title) {
+        PostCreateDto dto = new PostCreateDto();
+        dto.setTitle(title);
+        dto.setContent("Body of " + title);
+        dto.setStatus(PostStatus.PUBLISHED);
+        dto.setTagNames(Set.of("Indexing"));
+        return dto;
+    }
+}
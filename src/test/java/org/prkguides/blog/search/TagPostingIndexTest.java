@@ -0,0 +1,104 @@
+package org.prkguides.blog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.enums.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagPostingIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static final long JAVA = 1L;
+    private static final long SPRING = 2L;
+    private static final long KOTLIN = 3L;
+
+    private TagPostingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagPostingIndex();
+        index.index(post(1L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.PUBLISHED, 5));
+        index.index(post(2L, Map.of(KOTLIN, "Kotlin"), PostStatus.PUBLISHED, 4));
+        index.index(post(3L, Map.of(JAVA, "Java"), PostStatus.PUBLISHED, 3));
+        index.index(post(4L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.PUBLISHED, 2));
+        index.index(post(5L, Map.of(SPRING, "Spring", KOTLIN, "Kotlin"), PostStatus.PUBLISHED, 1));
+        index.index(post(6L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.DRAFT, 0));
+    }
+
+    @Test
+    void listsPublishedPostsNewestFirst() {
+        TagPostingIndex.TagPage page = index.page(List.of(JAVA), false, 1, 2);
+
+        assertThat(page.ids()).containsExactly(3L, 1L);
+        assertThat(page.total()).isEqualTo(3);
+        assertThat(index.count(JAVA)).isEqualTo(3);
+    }
+
+    @Test
+    void clampsOutOfRangeWindows() {
+        assertThat(index.page(List.of(JAVA), false, -5, 2).ids()).containsExactly(4L, 3L);
+        assertThat(index.page(List.of(JAVA), false, (long) Integer.MAX_VALUE * 10, 2).ids()).isEmpty();
+        assertThat(index.page(List.of(JAVA, KOTLIN), false, Long.MAX_VALUE, 2).total()).isEqualTo(5);
+    }
+
+    @Test
+    void mergesAnyAndIntersectsAll() {
+        assertThat(index.page(List.of(JAVA, KOTLIN), false, 0, 10).ids()).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(index.page(List.of(JAVA, SPRING), true, 0, 10).ids()).containsExactly(4L, 1L);
+        assertThat(index.page(List.of(JAVA, KOTLIN), true, 0, 10).total()).isZero();
+        assertThat(index.page(List.of(JAVA, 99L), true, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void continuesAfterCursor() {
+        assertThat(index.after(List.of(SPRING, KOTLIN), false, NOW.minusDays(2), 4L, 10)).containsExactly(2L, 1L);
+        assertThat(index.after(List.of(JAVA, SPRING), true, NOW.minusDays(2), 4L, 10)).containsExactly(1L);
+        assertThat(index.after(List.of(JAVA), false, null, null, 2)).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void listsPostsWithoutADateLast() {
+        index.index(new SearchDocument(7L, "Post 7", null, null, Map.of(KOTLIN, "Kotlin"), "alice",
+                PostStatus.PUBLISHED, false, null, NOW));
+        index.index(new SearchDocument(8L, "Post 8", null, null, Map.of(KOTLIN, "Kotlin"), "alice",
+                PostStatus.PUBLISHED, false, null, NOW));
+
+        assertThat(index.after(List.of(KOTLIN), false, NOW.minusDays(4), 2L, 10)).containsExactly(8L, 7L);
+        assertThat(index.after(List.of(KOTLIN), false, null, 8L, 10)).containsExactly(7L);
+    }
+
+    @Test
+    void followsUnpublishingAndRenames() {
+        index.index(post(4L, Map.of(JAVA, "Java", SPRING, "Spring"), PostStatus.DRAFT, 2));
+        index.index(post(3L, Map.of(JAVA, "Java 21"), PostStatus.PUBLISHED, 3));
+        index.remove(5L);
+
+        assertThat(index.page(List.of(SPRING), false, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.tagId("Java 21")).contains(JAVA);
+        assertThat(index.tagId("Java")).isEmpty();
+    }
+
+    @Test
+    void ranksTagsByPublishedPosts() {
+        assertThat(index.popular(2)).containsExactly(
+                new TagPostingIndex.TagCount(JAVA, 3), new TagPostingIndex.TagCount(SPRING, 3));
+
+        index.index(post(1L, Map.of(KOTLIN, "Kotlin"), PostStatus.PUBLISHED, 5));
+        index.remove(4L);
+
+        assertThat(index.popular(10)).containsExactly(new TagPostingIndex.TagCount(KOTLIN, 3),
+                new TagPostingIndex.TagCount(JAVA, 1), new TagPostingIndex.TagCount(SPRING, 1));
+        assertThat(index.count(JAVA)).isEqualTo(1);
+    }
+
+    private static SearchDocument post(Long id, Map<Long, String> tags, PostStatus status, int daysAgo) {
+        return new SearchDocument(id, "Post " + id, null, null, tags, "alice", status, false,
+                NOW.minusDays(daysAgo), NOW.minusDays(daysAgo));
+    }
+}
@@ -0,0 +1,88 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.dto.CommentReplyDto;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.support.CommentFixture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Small chunks so reconciliation walks several id ranges
+@SpringBootTest(properties = "blog.comments.counts.reconcile-chunk=3")
+@Import(CommentFixture.class)
+class CommentCountServiceTest {
+
+    private static final String ADMIN = "counter-admin";
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentCountService commentCountService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentFixture fixture;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        postId = fixture.post(fixture.user(ADMIN, Role.ADMIN)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void countersFollowModeration() {
+        Long first = create();
+        Long second = create();
+        create();
+        assertThat(fixture.counts(postId)).containsExactly(0L, 3L);
+
+        commentService.approveComment(first);
+        commentService.approveComment(second);
+        commentService.approveComment(second);
+        assertThat(fixture.counts(postId)).containsExactly(2L, 1L);
+
+        commentService.rejectComment(second);
+        commentService.replyToComment(first, new CommentReplyDto("A reply to the first"), ADMIN);
+        assertThat(fixture.counts(postId)).containsExactly(1L, 2L);
+
+        // Takes the pending reply along with it
+        commentService.deleteComment(first, ADMIN);
+        assertThat(fixture.counts(postId)).containsExactly(0L, 1L);
+        assertThat(postRepository.findById(postId).orElseThrow().getApprovedCommentCount()).isZero();
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        commentService.approveComment(create());
+        // Settles whatever other tests left behind, so only the drift below is counted
+        commentCountService.reconcile();
+        jdbcTemplate.update("UPDATE posts SET approved_comment_count = 7, pending_comment_count = NULL WHERE id = ?", postId);
+
+        assertThat(commentCountService.reconcile()).isEqualTo(1);
+        assertThat(fixture.counts(postId)).containsExactly(1L, 0L);
+        assertThat(commentCountService.reconcile()).isZero();
+    }
+
+    private Long create() {
+        return fixture.comment(postId, "A comment to count", ADMIN);
+    }
+}
@@ -0,0 +1,129 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.dto.CommentBulkModerationDto;
+import org.prkguides.blog.dto.CommentReplyDto;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.ModerationAction;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.exceptions.BadRequestException;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.support.CommentFixture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "blog.comments.moderation.chunk-size=2")
+@Import(CommentFixture.class)
+class CommentModerationServiceTest {
+
+    private static final String MODERATOR = "bulk-moderator";
+
+    @Autowired
+    private CommentModerationService commentModerationService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentFixture fixture;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentCountService commentCountService;
+
+    private User moderator;
+    private Post post;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        moderator = fixture.user(MODERATOR, Role.ADMIN);
+        post = fixture.post(moderator);
+        postId = post.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void approvesAndRejectsListedComments() {
+        List<Long> ids = List.of(create(), create(), create(), create(), create());
+        commentService.approveComment(ids.get(0));
+
+        assertThat(commentModerationService.moderate(ModerationAction.APPROVE, ids)).isEqualTo(4);
+        assertThat(fixture.counts(postId)).containsExactly(5L, 0L);
+
+        assertThat(commentModerationService.moderate(ModerationAction.REJECT, ids.subList(0, 3))).isEqualTo(3);
+        assertThat(fixture.counts(postId)).containsExactly(2L, 0L);
+    }
+
+    @Test
+    void deletesSubtreesOnce() {
+        Long root = create();
+        Long reply = commentService.replyToComment(root, new CommentReplyDto("A reply to the root"), MODERATOR).getId();
+        commentService.replyToComment(reply, new CommentReplyDto("A reply to the reply"), MODERATOR);
+        Long other = create();
+        Long kept = create();
+        commentService.approveComment(other);
+
+        // The reply is inside the root's subtree, so it isn't deleted twice
+        assertThat(commentModerationService.moderate(ModerationAction.DELETE, List.of(reply, root, other))).isEqualTo(4);
+        assertThat(fixture.commentIds(postId)).containsExactly(kept);
+        assertThat(fixture.counts(postId)).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void deletesRepliesWithoutAPathBelowASubtree() {
+        Comment root = commentRepository.findById(create()).orElseThrow();
+        Comment unpathed = fixture.unpathed(post, moderator, root, CommentStatus.APPROVED);
+        fixture.unpathed(post, moderator, unpathed, CommentStatus.PENDING);
+        Long kept = create();
+        // The unpathed rows bypassed the counters
+        commentCountService.reconcile(postId);
+        assertThat(fixture.counts(postId)).containsExactly(1L, 3L);
+
+        assertThat(commentModerationService.moderate(ModerationAction.DELETE, List.of(root.getId()))).isEqualTo(3);
+        assertThat(fixture.commentIds(postId)).containsExactly(kept);
+        assertThat(fixture.counts(postId)).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void moderatesPendingCommentsByFilter() {
+        Long old = create();
+        Long older = create();
+        Long recent = create();
+        jdbcTemplate.update("UPDATE comments SET created_at = DATEADD('DAY', -2, created_at) WHERE id IN (?, ?)", old, older);
+
+        CommentBulkModerationDto filter = new CommentBulkModerationDto(null, 24, postId);
+        assertThat(commentModerationService.moderate(ModerationAction.APPROVE, filter).getAffected()).isEqualTo(2);
+        assertThat(fixture.counts(postId)).containsExactly(2L, 1L);
+        assertThat(fixture.status(recent)).isEqualTo("PENDING");
+
+        assertThatThrownBy(() -> commentModerationService.moderate(ModerationAction.APPROVE,
+                new CommentBulkModerationDto(List.of(recent), 24, null)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private Long create() {
+        return fixture.comment(postId, "A comment to moderate", MODERATOR);
+    }
+}
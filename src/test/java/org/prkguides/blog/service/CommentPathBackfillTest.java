@@ -0,0 +1,64 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.service.impl.CommentPathBackfill;
+import org.prkguides.blog.support.CommentFixture;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(CommentFixture.class)
+class CommentPathBackfillTest {
+
+    // Below 2^16 a Long hashes to itself, so in any HashMap of up to 65536 buckets the child
+    // (bucket 1) is visited before its parent (the last bucket)
+    private static final long PARENT_ID = 65_535L;
+    private static final long CHILD_ID = 65_536L;
+
+    @Autowired
+    private CommentPathBackfill commentPathBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentFixture fixture;
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void fillsParentsReachedThroughTheirChildren() {
+        User author = fixture.user("backfill-author", Role.USER);
+        Long postId = fixture.post(author).getId();
+        insert(PARENT_ID, null, postId, author.getId());
+        insert(CHILD_ID, PARENT_ID, postId, author.getId());
+
+        commentPathBackfill.backfill();
+
+        String parentPath = CommentPath.of(null, PARENT_ID);
+        assertThat(fixture.threadPath(PARENT_ID)).isEqualTo(parentPath);
+        assertThat(fixture.threadPath(CHILD_ID)).isEqualTo(CommentPath.of(parentPath, CHILD_ID));
+    }
+
+    // With an explicit id and no thread path, as written before the column existed
+    private void insert(long id, Long parentId, Long postId, Long authorId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO comments (id, content, status, post_id, author_id, parent_comment_id, " +
+                "created_at, updated_at) VALUES (?, 'Old comment', 'APPROVED', ?, ?, ?, ?, ?)",
+                id, postId, authorId, parentId, now, now);
+    }
+}
@@ -0,0 +1,201 @@
+package org.prkguides.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.prkguides.blog.dto.CommentDto;
+import org.prkguides.blog.dto.CommentReplyDto;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.exceptions.BadRequestException;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.support.CommentFixture;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Comment listings build the reply trees from one query for the whole thread, so a page
+ * costs the same number of statements however many replies hang below it.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "blog.comments.thread.max-depth=3",
+        "blog.comments.thread.max-replies=4"
+})
+@Import(CommentFixture.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CommentThreadQueryCountTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CommentFixture fixture;
+
+    private Statistics statistics;
+    private Long postId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = List.of(fixture.user("thread-carol", Role.USER), fixture.user("thread-dave", Role.USER));
+            Post post = fixture.post(users.get(0));
+            postId = post.getId();
+
+            // Five top-level comments, each with six replies, each reply with a five deep chain
+            for (int i = 0; i < 5; i++) {
+                Comment root = fixture.comment(post, users.get(i % 2), null, CommentStatus.APPROVED);
+                for (int j = 0; j < 6; j++) {
+                    Comment parent = fixture.comment(post, users.get(j % 2), root, CommentStatus.APPROVED);
+                    for (int depth = 0; depth < 5; depth++) {
+                        parent = fixture.comment(post, users.get(depth % 2), parent, CommentStatus.APPROVED);
+                    }
+                }
+                fixture.comment(post, users.get(1), root, CommentStatus.PENDING);
+            }
+        });
+    }
+
+    @AfterAll
+    void cleanUp() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void pageOfThreadsCostsConstantStatements() {
+        statistics.clear();
+        PaginationResponse<CommentDto> page = commentService.getCommentsByPost(postId, 0, 10, CountMode.NONE);
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        CommentDto root = page.getContent().get(0);
+        assertThat(root.getReplyCount()).isEqualTo(6);
+        assertThat(root.getReplies()).hasSize(4);
+        assertThat(root.getReplies().get(0).getAuthor().getUsername()).startsWith("thread-");
+        // Three levels of replies are rendered, the deepest only shows its reply count
+        CommentDto deepest = root.getReplies().get(0).getReplies().get(0).getReplies().get(0);
+        assertThat(deepest.getReplyCount()).isEqualTo(1);
+        assertThat(deepest.getReplies()).isEmpty();
+    }
+
+    @Test
+    void repliesOfOneCommentUseTheSameLoader() {
+        Long rootId = commentRepository.findSliceByPostIdAndStatusAndParentCommentIsNull(postId, CommentStatus.APPROVED,
+                PageRequest.of(0, 1)).getContent().get(0).getId();
+
+        statistics.clear();
+        List<CommentDto> replies = commentService.getCommentReplies(rootId);
+
+        assertThat(replies).hasSize(6);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void userListingReadsOnlyTheListedSubtrees() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User author = fixture.user("thread-erin", Role.USER);
+            User other = fixture.user("thread-dave", Role.USER);
+            Post post = fixture.post(other);
+
+            for (int i = 0; i < 2; i++) {
+                fixture.comment(post, other, fixture.comment(post, author, null, CommentStatus.APPROVED), CommentStatus.APPROVED);
+            }
+            // A busy thread on the same post that the listing has no reason to read
+            Comment busy = fixture.comment(post, other, null, CommentStatus.APPROVED);
+            for (int i = 0; i < 20; i++) {
+                fixture.comment(post, other, busy, CommentStatus.APPROVED);
+            }
+        });
+
+        statistics.clear();
+        PaginationResponse<CommentDto> page = commentService.getCommentsByUser("thread-erin", 0, 10, CountMode.NONE);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent()).allSatisfy(comment -> assertThat(comment.getReplies()).hasSize(1));
+        assertThat(statistics.getEntityStatistics(Comment.class.getName()).getLoadCount()).isEqualTo(4);
+    }
+
+    @Test
+    void deletingACommentTakesItsWholeSubtree() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            User author = fixture.user("thread-carol", Role.USER);
+            Post other = fixture.post(author);
+
+            Comment root = fixture.comment(other, author, null, CommentStatus.APPROVED);
+            Comment reply = fixture.comment(other, author, root, CommentStatus.PENDING);
+            fixture.comment(other, author, reply, CommentStatus.APPROVED);
+            Comment sibling = fixture.comment(other, author, null, CommentStatus.APPROVED);
+            return new Long[]{other.getId(), root.getId(), sibling.getId()};
+        });
+
+        commentService.deleteComment(ids[1], "thread-carol");
+
+        assertThat(commentRepository.findByPostIdAndAuthorUsername(ids[0], "thread-carol"))
+                .extracting(Comment::getId)
+                .containsExactly(ids[2]);
+    }
+
+    @Test
+    void deletingACommentTakesRepliesNotBackfilledYet() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            User author = fixture.user("thread-dave", Role.USER);
+            Post other = fixture.post(author);
+
+            Comment root = fixture.comment(other, author, null, CommentStatus.APPROVED);
+            Comment reply = fixture.comment(other, author, root, CommentStatus.APPROVED);
+            Comment unpathed = fixture.unpathed(other, author, reply, CommentStatus.PENDING);
+            fixture.unpathed(other, author, unpathed, CommentStatus.PENDING);
+            Comment sibling = fixture.comment(other, author, null, CommentStatus.APPROVED);
+            return new Long[]{other.getId(), root.getId(), sibling.getId()};
+        });
+
+        commentService.deleteComment(ids[1], "thread-dave");
+
+        assertThat(commentRepository.findByPostIdAndAuthorUsername(ids[0], "thread-dave"))
+                .extracting(Comment::getId)
+                .containsExactly(ids[2]);
+    }
+
+    @Test
+    void replyingToACommentWithoutAPathIsRejected() {
+        Long[] ids = transactionTemplate.execute(status -> {
+            User author = fixture.user("thread-dave", Role.USER);
+            Post other = fixture.post(author);
+            return new Long[]{other.getId(), fixture.unpathed(other, author, null, CommentStatus.PENDING).getId()};
+        });
+
+        CommentReplyDto reply = new CommentReplyDto();
+        reply.setContent("A reply");
+        assertThatThrownBy(() -> commentService.replyToComment(ids[1], reply, "thread-dave"))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(commentRepository.findByPostIdAndAuthorUsername(ids[0], "thread-dave")).hasSize(1);
+    }
+}
@@ -0,0 +1,61 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.dto.DashboardStatsDto;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.TagRepository;
+import org.prkguides.blog.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private SiteStatsService siteStatsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void matchesTheIndividualCounts() {
+        Objects.requireNonNull(cacheManager.getCache("dashboard-stats")).clear();
+        // Post counts come from the snapshot, which other tests may have taken before their writes
+        siteStatsService.refresh();
+
+        DashboardStatsDto stats = dashboardService.getDashboardStats();
+
+        assertThat(stats.getTotalPosts()).isEqualTo(postRepository.count());
+        assertThat(stats.getPublishedPosts()).isEqualTo(postRepository.countByStatus(PostStatus.PUBLISHED));
+        assertThat(stats.getScheduledPosts()).isEqualTo(postRepository.countByStatus(PostStatus.SCHEDULED));
+        assertThat(stats.getDraftPosts()).isEqualTo(postRepository.countByStatus(PostStatus.DRAFT));
+        assertThat(stats.getTotalUsers()).isEqualTo(userRepository.count());
+        assertThat(stats.getActiveUsers()).isEqualTo(userRepository.countByIsActiveTrue());
+        assertThat(stats.getTotalTags()).isEqualTo(tagRepository.count());
+        assertThat(stats.getPendingComments()).isEqualTo(commentRepository.countByStatus(CommentStatus.PENDING));
+        assertThat(dashboardService.getDashboardStats()).isSameAs(stats);
+    }
+}
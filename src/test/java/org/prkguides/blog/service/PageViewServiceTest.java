@@ -0,0 +1,73 @@
+package org.prkguides.blog.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.service.impl.PageViewServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PageViewServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writesQueuedViewsInBatches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PageViewService pageViews = new PageViewServiceImpl(jdbcTemplate, 16, 2, 30, registry);
+        LocalDateTime now = LocalDateTime.now();
+
+        pageViews.record(view(9001L, now));
+        pageViews.record(view(9001L, now));
+        pageViews.record(view(9001L, now.minusDays(1)));
+        pageViews.record(view(9001L, now.minusDays(5)));
+        pageViews.record(view(null, now));
+
+        assertThat(pageViews.flush()).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM page_views WHERE post_id = 9001", Long.class))
+                .isEqualTo(4);
+        assertThat(registry.counter("blog.page-views.written").count()).isEqualTo(5);
+    }
+
+    @Test
+    void dropsViewsWhenTheQueueIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PageViewService pageViews = new PageViewServiceImpl(jdbcTemplate, 4, 100, 30, registry);
+
+        long accepted = IntStream.range(0, 6).filter(i -> pageViews.record(view(9002L, LocalDateTime.now()))).count();
+
+        assertThat(accepted).isEqualTo(4);
+        assertThat(registry.counter("blog.page-views.dropped").count()).isEqualTo(2);
+        assertThat(pageViews.flush()).isEqualTo(4);
+        assertThat(pageViews.record(view(9002L, LocalDateTime.now()))).isTrue();
+    }
+
+    @Test
+    void prunesViewsPastTheRetention() {
+        PageViewService pageViews = new PageViewServiceImpl(jdbcTemplate, 16, 100, 3, new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+        pageViews.record(view(9003L, now));
+        pageViews.record(view(9003L, now.minusDays(2)));
+        pageViews.record(view(9003L, now.minusDays(4)));
+        pageViews.record(view(9003L, now.minusDays(40)));
+        pageViews.flush();
+        // Other tests share the table, so count every row past the retention, not only these
+        Long expired = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM page_views WHERE viewed_at < ?", Long.class,
+                now.minusDays(3).minusHours(1));
+
+        assertThat(pageViews.prune()).isEqualTo(expired.intValue());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM page_views WHERE post_id = 9003", Long.class))
+                .isEqualTo(2);
+    }
+
+    private static PageViewService.PageViewEvent view(Long postId, LocalDateTime viewedAt) {
+        return new PageViewService.PageViewEvent("/posts/" + postId, postId, "https://example.com", "JUnit", viewedAt);
+    }
+}
@@ -0,0 +1,239 @@
+package org.prkguides.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.prkguides.blog.dto.CursorPageResponse;
+import org.prkguides.blog.dto.PaginationResponse;
+import org.prkguides.blog.dto.PostSummaryDto;
+import org.prkguides.blog.dto.SearchRequestDto;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CountMode;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.enums.TagMatch;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.TagRepository;
+import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.search.SearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements each post listing issues for a full page. The author is fetched
+ * with the posts and the tags of the whole page come from one batch query, so a page costs
+ * two statements, plus the COUNT when exact totals are requested.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostListingQueryCountTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    private Statistics statistics;
+    private Long firstPostId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> seedPosts());
+        // The posts were saved through the repository, so the search index hasn't seen them
+        searchIndexer.reindex();
+    }
+
+    private void seedPosts() {
+        // Two authors so the author fetch can't be served from the persistence context by luck
+        List<User> authors = userRepository.saveAll(List.of(user("alice"), user("bob")));
+        List<Tag> tags = tagRepository.saveAll(List.of(
+                new Tag("Java", "java"), new Tag("Spring", "spring"), new Tag("JPA", "jpa")));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 50; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setSlug("post-" + i);
+            post.setContent("Content " + i);
+            post.setStatus(PostStatus.PUBLISHED);
+            post.setPublishedDate(now.minusHours(i));
+            post.setIsFeatured(i % 2 == 0);
+            post.setViewCount((long) i);
+            post.setAuthor(authors.get(i % 2));
+            post.setTags(Set.of(tags.get(i % 3), tags.get((i + 1) % 3)));
+            Post saved = postRepository.save(post);
+            if (firstPostId == null) {
+                firstPostId = saved.getId();
+            }
+        }
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void publishedPosts() {
+        assertStatements(3, () -> postService.getPublishedPosts(0, PAGE_SIZE, CountMode.EXACT));
+        assertStatements(2, () -> postService.getPublishedPosts(1, PAGE_SIZE, CountMode.NONE));
+    }
+
+    @Test
+    void featuredPosts() {
+        assertStatements(3, () -> postService.getFeaturedPosts(0, PAGE_SIZE, CountMode.EXACT));
+        assertStatements(2, () -> postService.getFeaturedPosts(0, PAGE_SIZE, CountMode.NONE));
+    }
+
+    @Test
+    void postsByAuthor() {
+        assertStatements(3, () -> postService.getPostsByAuthor("alice", 0, PAGE_SIZE, CountMode.EXACT));
+        assertStatements(2, () -> postService.getPostsByAuthor("bob", 0, PAGE_SIZE, CountMode.NONE));
+    }
+
+    @Test
+    void allPosts() {
+        assertStatements(3, () -> postService.getAllPosts(0, PAGE_SIZE, CountMode.EXACT));
+        assertStatements(2, () -> postService.getAllPosts(0, PAGE_SIZE, CountMode.NONE));
+    }
+
+    @Test
+    void popularAndRecentPosts() {
+        assertStatements(2, () -> postService.getPopularPosts(PAGE_SIZE));
+        assertStatements(2, () -> postService.getRecentPosts(10));
+    }
+
+    @Test
+    void relatedPosts() {
+        // Ranking comes from the related posts index; the summaries are read once and then cached
+        assertStatements(2, () -> postService.getRelatedPosts(firstPostId, PAGE_SIZE));
+        assertStatements(0, () -> postService.getRelatedPosts(firstPostId, PAGE_SIZE));
+    }
+
+    @Test
+    void cursorPages() {
+        assertStatements(2, () -> postService.getPublishedPostsAfter(null, PAGE_SIZE));
+        assertStatements(2, () -> postService.getPostsByTagAfter("Java", null, PAGE_SIZE));
+    }
+
+    @Test
+    void cursorPagesWalkPastPostsWithoutADate() {
+        List<Long> seeded = transactionTemplate.execute(status -> {
+            User author = userRepository.save(user("carol"));
+            return List.of(postRepository.save(post(author, "dated", LocalDateTime.now())).getId(),
+                    postRepository.save(post(author, "undated-1", null)).getId(),
+                    postRepository.save(post(author, "undated-2", null)).getId());
+        });
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<PostSummaryDto> page = postService.getPostsByAuthorAfter("carol", cursor, 1);
+            page.getContent().forEach(post -> walked.add(post.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactly(seeded.get(0), seeded.get(2), seeded.get(1));
+    }
+
+    @Test
+    void tagListings() {
+        // Tag membership and totals come from the posting lists, only the page itself is loaded
+        assertStatements(2, () -> postService.getPostsByTag("Java", 1, PAGE_SIZE));
+
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSize(PAGE_SIZE);
+        request.setTags(Set.of("Java", "Spring"));
+        request.setTagMatch(TagMatch.ALL);
+        assertStatements(2, () -> postService.searchPosts(request));
+    }
+
+    @Test
+    void search() {
+        // Matching and counting happen in the index, only the page itself is loaded
+        SearchRequestDto request = new SearchRequestDto();
+        request.setSize(PAGE_SIZE);
+        assertStatements(2, () -> postService.searchPosts(request));
+
+        request.setQuery("conte");
+        request.setTags(Set.of("Java"));
+        assertStatements(2, () -> postService.searchPosts(request));
+    }
+
+    private void assertStatements(long expected, Supplier<Object> call) {
+        statistics.clear();
+        Object result = call.get();
+
+        assertThat(size(result)).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private static int size(Object result) {
+        if (result instanceof PaginationResponse<?> page) {
+            return page.getContent().size();
+        }
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        return ((CursorPageResponse<?>) result).getContent().size();
+    }
+
+    private static Post post(User author, String slug, LocalDateTime publishedDate) {
+        Post post = new Post();
+        post.setTitle(slug);
+        post.setSlug(slug);
+        post.setContent("Content");
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setPublishedDate(publishedDate);
+        post.setAuthor(author);
+        return post;
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName(username);
+        user.setRole(Role.USER);
+        return user;
+    }
+}
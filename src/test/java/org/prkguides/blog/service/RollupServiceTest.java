@@ -0,0 +1,98 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.Tag;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.enums.RollupDimension;
+import org.prkguides.blog.enums.RollupMetric;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.TagRepository;
+import org.prkguides.blog.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RollupServiceTest {
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rollsEventsUpPerPostAuthorTagAndSite() {
+        User author = new User();
+        author.setUsername("rollup-author");
+        author.setEmail("rollup-author@example.com");
+        author.setPassword("secret");
+        author.setFirstName("Rollup");
+        author.setRole(Role.USER);
+        author = userRepository.save(author);
+        Tag tag = tagRepository.save(new Tag("Rollups", "rollups"));
+        Post post = postRepository.save(post("First", author));
+        Post other = postRepository.save(post("Second", author));
+        jdbcTemplate.update("INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?), (?, ?)",
+                post.getId(), tag.getId(), other.getId(), tag.getId());
+
+        for (int i = 0; i < 3; i++) {
+            rollupService.recordView(post.getId());
+        }
+        rollupService.recordView(other.getId());
+        rollupService.recordComment(other.getId());
+        rollupService.flush();
+        rollupService.recordView(post.getId());
+        rollupService.flush();
+
+        assertThat(rollupService.daily(RollupDimension.POST, post.getId(), 2))
+                .extracting(RollupService.RollupDay::views).containsExactly(0L, 4L);
+        assertThat(rollupService.daily(RollupDimension.POST, post.getId(), Integer.MAX_VALUE)).hasSize(366);
+        assertThat(rollupService.hourly(RollupDimension.POST, post.getId(), 1).get(0).views()).isEqualTo(4);
+        assertThat(rollupService.daily(RollupDimension.AUTHOR, author.getId(), 1).get(0).views()).isEqualTo(5);
+        assertThat(rollupService.daily(RollupDimension.TAG, tag.getId(), 1).get(0).comments()).isEqualTo(1);
+        assertThat(rollupService.top(RollupDimension.POST, RollupMetric.COMMENTS, 7, 1))
+                .containsExactly(new RollupService.RollupEntry(other.getId(), 1, 1));
+
+        // Hourly rows past the retention go, the daily rollup keeps their counts
+        jdbcTemplate.update("UPDATE rollup_hourly SET rollup_hour = ? WHERE dimension = 'POST' AND dimension_id = ?",
+                LocalDateTime.now().minusDays(3), post.getId());
+        assertThat(rollupService.compact()).isPositive();
+        assertThat(rollupService.hourly(RollupDimension.POST, post.getId(), 24))
+                .allMatch(hour -> hour.views() == 0);
+        assertThat(rollupService.daily(RollupDimension.POST, post.getId(), 1).get(0).views()).isEqualTo(4);
+
+        jdbcTemplate.update("DELETE FROM post_tags WHERE tag_id = ?", tag.getId());
+        postRepository.deleteAll(Set.of(post, other));
+        tagRepository.delete(tag);
+        userRepository.delete(author);
+    }
+
+    private static Post post(String title, User author) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setSlug("rollup-" + title.toLowerCase());
+        post.setContent("Content of " + title);
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setPublishedDate(LocalDateTime.now());
+        post.setAuthor(author);
+        return post;
+    }
+}
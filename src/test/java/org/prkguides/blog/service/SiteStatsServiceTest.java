@@ -0,0 +1,66 @@
+package org.prkguides.blog.service;
+
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SiteStatsServiceTest {
+
+    @Autowired
+    private SiteStatsService siteStatsService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void aggregatesTotalsAndAuthorsIntoTheSnapshot() {
+        SiteStatsService.SiteStats before = siteStatsService.refresh();
+
+        User author = new User();
+        author.setUsername("stats-author");
+        author.setEmail("stats-author@example.com");
+        author.setPassword("secret");
+        author.setFirstName("Stats");
+        author.setRole(Role.USER);
+        author = userRepository.save(author);
+        List<Post> posts = postRepository.saveAll(List.of(
+                post("stats-published", author, PostStatus.PUBLISHED, 30L),
+                post("stats-draft", author, PostStatus.DRAFT, 5L)));
+
+        assertThat(siteStatsService.getStats()).isSameAs(before);
+
+        SiteStatsService.SiteStats after = siteStatsService.refresh();
+        assertThat(after.totalViews() - before.totalViews()).isEqualTo(35);
+        assertThat(after.publishedPosts() - before.publishedPosts()).isEqualTo(1);
+        assertThat(after.publishedViews() - before.publishedViews()).isEqualTo(30);
+        assertThat(after.authors()).contains(new SiteStatsService.AuthorStats(author.getId(), "stats-author", 1, 35));
+
+        postRepository.deleteAll(posts);
+        userRepository.delete(author);
+    }
+
+    private static Post post(String slug, User author, PostStatus status, long views) {
+        Post post = new Post();
+        post.setTitle(slug);
+        post.setSlug(slug);
+        post.setContent("Content of " + slug);
+        post.setStatus(status);
+        post.setViewCount(views);
+        post.setAuthor(author);
+        return post;
+    }
+}
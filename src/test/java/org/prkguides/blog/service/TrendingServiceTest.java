@@ -0,0 +1,79 @@
+package org.prkguides.blog.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.prkguides.blog.enums.TrendingWindow;
+import org.prkguides.blog.service.impl.TrendingServiceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingServiceTest {
+
+    private TrendingService trending;
+
+    @BeforeEach
+    void setUp() {
+        trending = new TrendingServiceImpl(60_000, 10, 20, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void ranksRecentViewsAboveOlderOnesPerWindow() {
+        views(1L, 10);
+        rollMinutes(120);
+        views(2L, 5);
+        trending.roll();
+
+        assertThat(trending.top(TrendingWindow.HOUR, 10)).extracting(TrendingService.TrendingPost::postId)
+                .containsExactly(2L, 1L);
+        assertThat(trending.top(TrendingWindow.WEEK, 10)).extracting(TrendingService.TrendingPost::postId)
+                .containsExactly(1L, 2L);
+        assertThat(trending.top(TrendingWindow.DAY, 1)).hasSize(1);
+    }
+
+    @Test
+    void countsTheLastHourExactlyAndDropsIdlePosts() {
+        views(1L, 3);
+        trending.roll();
+        assertThat(trending.top(TrendingWindow.DAY, 10).get(0).viewsLastHour()).isEqualTo(3);
+
+        rollMinutes(60);
+        assertThat(trending.top(TrendingWindow.DAY, 10).get(0).viewsLastHour()).isZero();
+
+        rollMinutes(60 * 24 * 7 * 6);
+        assertThat(trending.top(TrendingWindow.WEEK, 10)).isEmpty();
+
+        views(1L, 1);
+        trending.roll();
+        assertThat(trending.top(TrendingWindow.HOUR, 10).get(0).viewsLastHour()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsTrackingNewPostsAtTheCap() {
+        for (long postId = 1; postId <= 30; postId++) {
+            views(postId, 1);
+        }
+        views(1L, 5);
+        trending.roll();
+
+        assertThat(trending.top(TrendingWindow.HOUR, 10).get(0).postId()).isEqualTo(1L);
+        assertThat(trending.top(TrendingWindow.HOUR, 10).get(0).viewsLastHour()).isEqualTo(6);
+        assertThat(trending.top(TrendingWindow.HOUR, 30)).hasSize(10);
+        views(25L, 1);
+        trending.roll();
+        assertThat(trending.top(TrendingWindow.HOUR, 10)).extracting(TrendingService.TrendingPost::postId)
+                .doesNotContain(25L);
+    }
+
+    private void views(Long postId, int count) {
+        for (int i = 0; i < count; i++) {
+            trending.recordView(postId);
+        }
+    }
+
+    private void rollMinutes(int minutes) {
+        for (int i = 0; i < minutes; i++) {
+            trending.roll();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.prkguides.blog.support;
+
+import lombok.RequiredArgsConstructor;
+import org.prkguides.blog.dto.CommentCreateDto;
+import org.prkguides.blog.entity.Comment;
+import org.prkguides.blog.entity.Post;
+import org.prkguides.blog.entity.User;
+import org.prkguides.blog.enums.CommentStatus;
+import org.prkguides.blog.enums.PostStatus;
+import org.prkguides.blog.enums.Role;
+import org.prkguides.blog.repository.CommentRepository;
+import org.prkguides.blog.repository.PostRepository;
+import org.prkguides.blog.repository.UserRepository;
+import org.prkguides.blog.service.CommentService;
+import org.prkguides.blog.utils.CommentPath;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Users, posts and comments for the comment tests, plus reads of the post counters. Posts
+ * created here are removed with their comments by {@link #cleanUp()}, so each test starts
+ * from the rows it creates itself. Pull it in with {@code @Import(CommentFixture.class)}.
+ */
+@RequiredArgsConstructor
+public class CommentFixture {
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final CommentService commentService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final List<Long> posts = new ArrayList<>();
+
+    // Users are kept across tests, so they are looked up before being created
+    public User user(String username, Role role) {
+        return userRepository.findByUsername(username).orElseGet(() -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("secret");
+            user.setFirstName(username);
+            user.setRole(role);
+            return userRepository.save(user);
+        });
+    }
+
+    public Post post(User author) {
+        long unique = System.nanoTime();
+        Post post = new Post();
+        post.setTitle("Comment fixture post " + unique);
+        post.setSlug("comment-fixture-post-" + unique);
+        post.setContent("Content");
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setAuthor(author);
+        Post saved = postRepository.save(post);
+        posts.add(saved.getId());
+        return saved;
+    }
+
+    // A pending comment written through the service, so the counters see it
+    public Long comment(Long postId, String content, String username) {
+        return commentService.createComment(new CommentCreateDto(content, postId, null), username).getId();
+    }
+
+    // Saved directly, with its thread path but bypassing the counters, for seeding threads
+    public Comment comment(Post post, User author, Comment parent, CommentStatus status) {
+        Comment comment = unpathed(post, author, parent, status);
+        comment.setThreadPath(CommentPath.of(parent != null ? parent.getThreadPath() : null, comment.getId()));
+        return commentRepository.save(comment);
+    }
+
+    // As left by rows written before thread paths existed, until the backfill reaches them
+    public Comment unpathed(Post post, User author, Comment parent, CommentStatus status) {
+        Comment comment = new Comment();
+        comment.setContent("Reply");
+        comment.setPost(post);
+        comment.setAuthor(author);
+        comment.setParentComment(parent);
+        comment.setStatus(status);
+        return commentRepository.save(comment);
+    }
+
+    // The post's (approved, pending) counters
+    public List<Long> counts(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT approved_comment_count, pending_comment_count FROM posts WHERE id = ?",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)), postId);
+    }
+
+    public String status(Long commentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM comments WHERE id = ?", String.class, commentId);
+    }
+
+    public String threadPath(Long commentId) {
+        return jdbcTemplate.queryForObject("SELECT thread_path FROM comments WHERE id = ?", String.class, commentId);
+    }
+
+    public List<Long> commentIds(Long postId) {
+        return jdbcTemplate.queryForList("SELECT id FROM comments WHERE post_id = ? ORDER BY id", Long.class, postId);
+    }
+
+    public void cleanUp() {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Map<String, List<Long>> ids = Map.of("ids", List.copyOf(posts));
+        namedJdbcTemplate.update("UPDATE comments SET parent_comment_id = NULL WHERE post_id IN (:ids)", ids);
+        namedJdbcTemplate.update("DELETE FROM comments WHERE post_id IN (:ids)", ids);
+        namedJdbcTemplate.update("DELETE FROM posts WHERE id IN (:ids)", ids);
+        posts.clear();
+    }
+}